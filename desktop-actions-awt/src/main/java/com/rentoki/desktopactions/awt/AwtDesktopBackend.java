@@ -0,0 +1,127 @@
+package com.rentoki.desktopactions.awt;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * {@link DesktopBackend} built on {@link java.awt.Desktop}.
+ *
+ * <p>The Desktop instance and its supported actions are probed once, on first use, and
+ * reused until {@link #refresh()} is called.
+ *
+ * @author Rentoki
+ */
+public final class AwtDesktopBackend implements DesktopBackend {
+    private volatile Probe probe;
+
+    @Override
+    public String name() {
+        return "awt";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.TOOLKIT;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return probe().desktop != null;
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return switch (action) {
+            case BROWSE -> probe().isSupported(Desktop.Action.BROWSE);
+            case OPEN_FILE_DIRECTORY, OPEN_FILE_LOCATION -> probe().isSupported(Desktop.Action.OPEN);
+            case MOVE_TO_TRASH -> probe().isSupported(Desktop.Action.MOVE_TO_TRASH);
+            default -> false;
+        };
+    }
+
+    @Override
+    public void refresh() {
+        probe = null;
+    }
+
+    @Override
+    public void browse(URI uri) throws DesktopActionException {
+        try {
+            requireDesktop(Desktop.Action.BROWSE).browse(uri);
+        } catch (IOException e) {
+            throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void openDirectory(File directory) throws DesktopActionException {
+        try {
+            requireDesktop(Desktop.Action.OPEN).open(directory);
+        } catch (IOException e) {
+            throw new DesktopActionException(ErrorMessage.OPEN_FILE_DIRECTORY_FAILED.getMessage() + directory.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public void moveToTrash(File file) throws DesktopActionException {
+        requireDesktop(Desktop.Action.MOVE_TO_TRASH).moveToTrash(file);
+    }
+
+    private Desktop requireDesktop(Desktop.Action action) throws DesktopActionException {
+        Probe current = probe();
+        if (!current.isSupported(action)) {
+            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+        }
+
+        return current.desktop;
+    }
+
+    private Probe probe() {
+        Probe current = probe;
+        if (current == null) {
+            current = Probe.run();
+            probe = current;
+        }
+        return current;
+    }
+
+    private static final class Probe {
+        final Desktop desktop;
+        final Set<Desktop.Action> supportedActions;
+
+        Probe(Desktop desktop, Set<Desktop.Action> supportedActions) {
+            this.desktop = desktop;
+            this.supportedActions = supportedActions;
+        }
+
+        static Probe run() {
+            if (!Desktop.isDesktopSupported()) {
+                return new Probe(null, Collections.emptySet());
+            }
+
+            Desktop desktop = Desktop.getDesktop();
+            Set<Desktop.Action> supported = EnumSet.noneOf(Desktop.Action.class);
+            for (Desktop.Action action : Desktop.Action.values()) {
+                if (desktop.isSupported(action)) {
+                    supported.add(action);
+                }
+            }
+
+            return new Probe(desktop, Collections.unmodifiableSet(supported));
+        }
+
+        boolean isSupported(Desktop.Action action) {
+            return supportedActions.contains(action);
+        }
+    }
+}
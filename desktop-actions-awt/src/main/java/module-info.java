@@ -0,0 +1,7 @@
+module DesktopActions.awt {
+    requires DesktopActions;
+    requires java.desktop;
+
+    provides com.rentoki.desktopactions.spi.DesktopBackend with
+            com.rentoki.desktopactions.awt.AwtDesktopBackend;
+}
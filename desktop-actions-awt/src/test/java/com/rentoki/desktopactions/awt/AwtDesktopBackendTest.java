@@ -0,0 +1,92 @@
+package com.rentoki.desktopactions.awt;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.awt.*;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class AwtDesktopBackendTest {
+    private MockedStatic<Desktop> desktopMock;
+    private AwtDesktopBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        desktopMock = mockStatic(Desktop.class);
+        backend = new AwtDesktopBackend();
+    }
+
+    @AfterEach
+    void tearDown() {
+        desktopMock.close();
+    }
+
+    @Test
+    void supports_WhenCalledRepeatedly_ShouldProbeDesktopOnce() {
+        Desktop desktop = mock(Desktop.class);
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(desktop);
+        when(desktop.isSupported(Desktop.Action.BROWSE)).thenReturn(true);
+
+        assertTrue(backend.isAvailable());
+        assertTrue(backend.supports(DesktopAction.BROWSE));
+        assertTrue(backend.supports(DesktopAction.BROWSE));
+
+        desktopMock.verify(Desktop::isDesktopSupported, times(1));
+        desktopMock.verify(Desktop::getDesktop, times(1));
+        verify(desktop, times(1)).isSupported(Desktop.Action.BROWSE);
+    }
+
+    @Test
+    void supports_ShouldMapDesktopActions() {
+        Desktop desktop = mock(Desktop.class);
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(desktop);
+        when(desktop.isSupported(Desktop.Action.OPEN)).thenReturn(true);
+
+        assertTrue(backend.supports(DesktopAction.OPEN_FILE_DIRECTORY));
+        assertTrue(backend.supports(DesktopAction.OPEN_FILE_LOCATION));
+        assertFalse(backend.supports(DesktopAction.BROWSE));
+        assertFalse(backend.supports(DesktopAction.CREATE_SHORTCUT));
+    }
+
+    @Test
+    void isAvailable_WhenDesktopNotSupported_ShouldNotCallGetDesktop() {
+        when(Desktop.isDesktopSupported()).thenReturn(false);
+
+        assertFalse(backend.isAvailable());
+        desktopMock.verify(Desktop::getDesktop, never());
+    }
+
+    @Test
+    void refresh_ShouldProbeAgainOnNextCall() {
+        when(Desktop.isDesktopSupported()).thenReturn(false);
+        assertFalse(backend.isAvailable());
+
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(mock(Desktop.class));
+        backend.refresh();
+
+        assertTrue(backend.isAvailable());
+    }
+
+    @Test
+    void browse_WhenActionNotSupported_ShouldThrowDesktopActionException() {
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(mock(Desktop.class));
+
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> backend.browse(URI.create("https://www.example.com"))
+        );
+        assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), exception.getMessage());
+    }
+}
@@ -0,0 +1,161 @@
+package com.rentoki.desktopactions;
+
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opt-in single-flight coalescing of identical actions.
+ *
+ * <p>Double clicks and automated retries often ask for the same {@code browse(uri)} or
+ * {@code openFileDirectory(dir)} several times within milliseconds, and each would open another
+ * browser tab or window. With coalescing enabled, {@link DesktopActions#browse(URI)},
+ * {@link DesktopActions#openFileLocation(File)} and {@link DesktopActions#openFileDirectory(File)}
+ * are keyed by action and normalized target: URIs by {@link URI#normalize()}, files by their
+ * absolute, normalized path.
+ *
+ * <ul>
+ *     <li>A call made while an identical call is running waits for it and shares its outcome,
+ *     success or failure.</li>
+ *     <li>A call made within the {@linkplain #setWindow(Duration) suppression window} after an
+ *     identical call succeeded returns at once without doing anything.</li>
+ *     <li>A call after an identical call failed runs again, so retries still work.</li>
+ * </ul>
+ *
+ * <p>Coalescing applies across threads and to the actions of {@link DesktopActionsAsync}.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * ActionCoalescer.setEnabled(true);
+ * ActionCoalescer.setWindow(Duration.ofSeconds(1));
+ * DesktopActions.browse(uri);
+ * DesktopActions.browse(uri);  // suppressed
+ * </pre>
+ */
+public final class ActionCoalescer {
+    /**
+     * The default suppression window, about the double-click interval of common desktops.
+     */
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(500);
+
+    private static final Map<Key, CompletableFuture<Void>> FLIGHTS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+    private static volatile Duration window = DEFAULT_WINDOW;
+
+    private ActionCoalescer() {
+    }
+
+    /**
+     * Enables or disables coalescing. Calls already waiting on an identical call are not affected.
+     *
+     * @param enabled {@code true} to coalesce identical actions
+     */
+    public static void setEnabled(boolean enabled) {
+        ActionCoalescer.enabled = enabled;
+        if (!enabled) {
+            FLIGHTS.values().removeIf(CompletableFuture::isDone);
+        }
+    }
+
+    /**
+     * Returns whether identical actions are coalesced.
+     *
+     * @return {@code true} if coalescing is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets how long after an action succeeded identical actions are suppressed. Zero only joins
+     * identical actions that are still running.
+     *
+     * @param window the suppression window, must not be negative
+     */
+    public static void setWindow(Duration window) {
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("window must not be null or negative");
+        }
+        ActionCoalescer.window = window;
+    }
+
+    /**
+     * Returns how long after an action succeeded identical actions are suppressed.
+     *
+     * @return the suppression window
+     */
+    public static Duration getWindow() {
+        return window;
+    }
+
+    static void run(DesktopAction action, URI target, Action task) throws DesktopActionException {
+        coalesce(action, target == null ? null : target.normalize(), task);
+    }
+
+    static void run(DesktopAction action, File target, Action task) throws DesktopActionException {
+        coalesce(action, target == null ? null : target.toPath().toAbsolutePath().normalize(), task);
+    }
+
+    private static void coalesce(DesktopAction action, Object target, Action task) throws DesktopActionException {
+        if (!enabled || target == null) {
+            task.run();
+            return;
+        }
+
+        Key key = new Key(action, target);
+        CompletableFuture<Void> flight = new CompletableFuture<>();
+        CompletableFuture<Void> existing = FLIGHTS.putIfAbsent(key, flight);
+        if (existing != null) {
+            // The identical call is still running or succeeded within the window.
+            await(existing);
+            return;
+        }
+
+        try {
+            task.run();
+        } catch (Throwable e) {
+            FLIGHTS.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+
+        flight.complete(null);
+        Duration suppression = window;
+        if (suppression.isZero()) {
+            FLIGHTS.remove(key, flight);
+        } else {
+            CompletableFuture.delayedExecutor(suppression.toNanos(), TimeUnit.NANOSECONDS)
+                    .execute(() -> FLIGHTS.remove(key, flight));
+        }
+    }
+
+    private static void await(CompletableFuture<Void> flight) throws DesktopActionException {
+        try {
+            flight.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DesktopActionException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw (RuntimeException) e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DesktopActionException(ErrorMessage.ACTION_INTERRUPTED.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    interface Action {
+        void run() throws DesktopActionException;
+    }
+
+    private record Key(DesktopAction action, Object target) {
+    }
+}
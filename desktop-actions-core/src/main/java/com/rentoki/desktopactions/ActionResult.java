@@ -0,0 +1,81 @@
+package com.rentoki.desktopactions;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The outcome of a single desktop action.
+ *
+ * <p>A result either reports success or carries the {@link DesktopActionException} that
+ * the equivalent blocking call in {@link DesktopActions} would have thrown.
+ *
+ * @author Rentoki
+ */
+public final class ActionResult {
+    private final DesktopAction action;
+    private final String target;
+    private final DesktopActionException error;
+
+    private ActionResult(DesktopAction action, String target, DesktopActionException error) {
+        this.action = Objects.requireNonNull(action, "action");
+        this.target = target;
+        this.error = error;
+    }
+
+    /**
+     * Creates a successful result.
+     *
+     * @param action the action that was performed
+     * @param target the URL, path or command the action was performed on
+     * @return a successful result
+     */
+    public static ActionResult success(DesktopAction action, String target) {
+        return new ActionResult(action, target, null);
+    }
+
+    /**
+     * Creates a failed result.
+     *
+     * @param action the action that was attempted
+     * @param target the URL, path or command the action was attempted on
+     * @param error  the reason the action failed (must not be null)
+     * @return a failed result
+     */
+    public static ActionResult failure(DesktopAction action, String target, DesktopActionException error) {
+        return new ActionResult(action, target, Objects.requireNonNull(error, "error"));
+    }
+
+    public DesktopAction getAction() {
+        return action;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public Optional<DesktopActionException> getError() {
+        return Optional.ofNullable(error);
+    }
+
+    /**
+     * Rethrows the failure carried by this result, if any.
+     *
+     * @throws DesktopActionException if this result is a failure
+     */
+    public void orThrow() throws DesktopActionException {
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return isSuccess()
+                ? action + " " + target + ": success"
+                : action + " " + target + ": " + error.getMessage();
+    }
+}
@@ -0,0 +1,99 @@
+package com.rentoki.desktopactions;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-item outcome of a batch operation such as {@link DesktopActions#moveToTrash(java.util.Collection)}.
+ *
+ * <p>A batch never aborts on the first failure; every item gets its own {@link ActionResult}.
+ * Items are reported in the order they were given.
+ *
+ * @param <T> the type of the batch items, for example {@link java.nio.file.Path} or {@link java.net.URI}
+ * @author Rentoki
+ */
+public final class BatchResult<T> {
+    private final Map<T, ActionResult> results;
+
+    private BatchResult(Map<T, ActionResult> results) {
+        this.results = Collections.unmodifiableMap(results);
+    }
+
+    /**
+     * Creates a batch result from per-item results.
+     *
+     * @param results the result of every item, in the order the items were given
+     * @param <T>     the type of the batch items
+     * @return a batch result backed by a copy of the given map
+     */
+    public static <T> BatchResult<T> of(Map<T, ActionResult> results) {
+        return new BatchResult<>(new LinkedHashMap<>(results));
+    }
+
+    /**
+     * Returns the result of every item, in the order the items were given.
+     *
+     * @return an unmodifiable map from item to result
+     */
+    public Map<T, ActionResult> getResults() {
+        return results;
+    }
+
+    /**
+     * Returns the result for one item.
+     *
+     * @param item the item to look up
+     * @return the item's result, or {@code null} if the item was not part of the batch
+     */
+    public ActionResult get(T item) {
+        return results.get(item);
+    }
+
+    /**
+     * Returns the items that succeeded.
+     *
+     * @return the successful items, in the order they were given
+     */
+    public List<T> getSucceeded() {
+        return results.entrySet().stream()
+                .filter(entry -> entry.getValue().isSuccess())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Returns the items that failed, with the reason each one failed.
+     *
+     * @return an unmodifiable map from failed item to its exception, in the order the items were given
+     */
+    public Map<T, DesktopActionException> getFailed() {
+        Map<T, DesktopActionException> failed = new LinkedHashMap<>();
+        results.forEach((item, result) -> result.getError().ifPresent(error -> failed.put(item, error)));
+        return Collections.unmodifiableMap(failed);
+    }
+
+    /**
+     * Returns whether every item succeeded.
+     *
+     * @return {@code true} if no item failed
+     */
+    public boolean isAllSucceeded() {
+        return results.values().stream().allMatch(ActionResult::isSuccess);
+    }
+
+    /**
+     * Returns the number of items in the batch.
+     *
+     * @return the number of items
+     */
+    public int size() {
+        return results.size();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult[" + getSucceeded().size() + " succeeded, " + (size() - getSucceeded().size()) + " failed]";
+    }
+}
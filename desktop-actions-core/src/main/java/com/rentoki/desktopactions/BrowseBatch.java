@@ -0,0 +1,64 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link DesktopActions#browse(Collection)}.
+ *
+ * <p>Null entries fail up front; all other URIs are handed to the backend in a single call, which
+ * decides how many browser processes to start.
+ */
+final class BrowseBatch {
+
+    private BrowseBatch() {
+    }
+
+    static BatchResult<URI> run(Collection<URI> uris, DesktopBackend backend) {
+        List<URI> items = new ArrayList<>(new LinkedHashSet<>(uris));
+        Map<URI, ActionResult> results = new HashMap<>();
+
+        List<URI> valid = new ArrayList<>(items.size());
+        for (URI uri : items) {
+            if (uri == null) {
+                results.put(null, failure(null, new DesktopActionException(ErrorMessage.URL_IS_NULL.getMessage())));
+            } else {
+                valid.add(uri);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            if (backend == null) {
+                DesktopActionException unsupported = new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+                valid.forEach(uri -> results.put(uri, failure(uri, unsupported)));
+            } else {
+                try {
+                    results.putAll(backend.browse(valid).getResults());
+                } catch (RuntimeException e) {
+                    valid.forEach(uri -> results.put(uri, failure(uri, new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e))));
+                }
+            }
+        }
+
+        Map<URI, ActionResult> ordered = new LinkedHashMap<>();
+        for (URI uri : items) {
+            ActionResult result = results.get(uri);
+            ordered.put(uri, result != null
+                    ? result
+                    : failure(uri, new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage())));
+        }
+        return BatchResult.of(ordered);
+    }
+
+    private static ActionResult failure(URI uri, DesktopActionException error) {
+        return ActionResult.failure(DesktopAction.BROWSE, String.valueOf(uri), error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.rentoki.desktopactions;
+
+/**
+ * Enumerates the operations offered by {@link DesktopActions} and the platform modules.
+ *
+ * <p>Used to label the outcome of an operation in an {@link ActionResult}.
+ *
+ * @author Rentoki
+ */
+public enum DesktopAction {
+    OPEN,
+    BROWSE,
+    OPEN_FILE_LOCATION,
+    OPEN_FILE_DIRECTORY,
+    MOVE_TO_TRASH,
+    PURGE_TRASH,
+    CREATE_SHORTCUT,
+    LAUNCH_APPLICATION
+}
@@ -1,6 +1,11 @@
 package com.rentoki.desktopactions;
 
+import java.io.Serial;
+
 public class DesktopActionException extends Exception {
+    @Serial
+    private static final long serialVersionUID = 2161685661196593360L;
+
     public DesktopActionException() {
         super();
     }
@@ -1,12 +1,14 @@
 package com.rentoki.desktopactions;
 
-import mslinks.ShellLink;
+import com.rentoki.desktopactions.spi.DesktopBackend;
 
-import java.awt.*;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Utility class for performing common desktop actions such as opening URLs in browsers
@@ -21,6 +23,9 @@ import java.nio.file.Path;
  *
  * <p>All methods are static and throw {@link DesktopActionException} if the operation fails.
  *
+ * <p>The platform integration itself is delegated to the fastest available
+ * {@link DesktopBackend} for each action; see {@link DesktopBackends}.
+ *
  * @author Rentoki
  */
 public final class DesktopActions {
@@ -30,23 +35,85 @@ public final class DesktopActions {
      *
      * <p>This method starts a new process for the specified executable path.
      * The executable must be accessible and have proper execution permissions.
+     * Its output is discarded and its input is empty; use {@link #launch(LaunchSpec)} to pass
+     * arguments or to keep the output.
      *
      * @param executablePath the path to the executable to run (must not be null or empty)
+     * @return a handle to the started process
      * @throws DesktopActionException if the executable path is null/empty or the process cannot be started
      * @example <pre>
      * DesktopActions.open("C:/Program Files/MyApp/myapp.exe");
      * </pre>
      */
-    public static void open(String executablePath) throws DesktopActionException {
+    public static LaunchedProcess open(String executablePath) throws DesktopActionException {
         if (executablePath == null || executablePath.trim().isEmpty()) {
             throw new DesktopActionException(ErrorMessage.EXECUTABLE_PATH_IS_NULL.getMessage());
         }
 
+        return launch(LaunchSpec.builder(executablePath).build());
+    }
+
+    /**
+     * Starts a process as described by the spec, with its arguments, environment, working
+     * directory and stream redirections.
+     *
+     * <p>Unless the spec says otherwise, the output of the process is discarded, so a process
+     * that writes a lot never blocks on a full pipe. The process is tracked by
+     * {@link LaunchedProcesses} until it exits.
+     *
+     * @param spec the process to start (must not be null)
+     * @return a handle to the started process
+     * @throws DesktopActionException if the spec is null or the process cannot be started
+     * @example <pre>
+     * DesktopActions.launch(LaunchSpec.builder("/usr/bin/backup")
+     *         .arguments("--incremental", "/home")
+     *         .output(Redirect.appendTo(new File("/var/log/backup.log")))
+     *         .build());
+     * </pre>
+     * @see LaunchSpec
+     */
+    public static LaunchedProcess launch(LaunchSpec spec) throws DesktopActionException {
+        if (spec == null) {
+            throw new DesktopActionException(ErrorMessage.LAUNCH_SPEC_IS_NULL.getMessage());
+        }
+
+        Process process;
         try {
-            new ProcessBuilder(executablePath).start();
+            process = spec.start();
         } catch (IOException e) {
+            LaunchedProcesses.startFailed();
             throw new DesktopActionException(ErrorMessage.CANNOT_START_PROCESS.getMessage(), e);
         }
+        return LaunchedProcesses.track(process, spec);
+    }
+
+    /**
+     * Launches an installed application by the id of its {@code .desktop} entry, optionally
+     * passing it files or URIs to open.
+     *
+     * <p>This is the equivalent of {@code gtk-launch}: the entry's {@code Exec} command is expanded
+     * with the targets and started directly, in the entry's working directory and inside a terminal
+     * emulator if the entry asks for one. If the command takes only a single file or URL, one
+     * instance is started per target. The {@code .desktop} suffix of the id may be omitted.
+     *
+     * @param desktopEntryId the desktop file id of the application (must not be null or empty)
+     * @param targets        the files or URIs to open, in order (must not be null or contain null)
+     * @throws DesktopActionException if an argument is invalid, the entry is not installed, its
+     *                                {@code TryExec} program is missing, or the process cannot be started
+     * @example <pre>
+     * DesktopActions.launchApplication("org.gnome.gedit.desktop", List.of(Path.of("notes.txt").toUri()));
+     * </pre>
+     */
+    public static void launchApplication(String desktopEntryId, List<URI> targets) throws DesktopActionException {
+        if (desktopEntryId == null || desktopEntryId.trim().isEmpty()) {
+            throw new DesktopActionException(ErrorMessage.DESKTOP_ENTRY_ID_IS_NULL.getMessage());
+        }
+
+        if (targets == null || targets.stream().anyMatch(Objects::isNull)) {
+            throw new DesktopActionException(ErrorMessage.URIS_IS_NULL.getMessage());
+        }
+
+        requireBackend(DesktopAction.LAUNCH_APPLICATION).launchApplication(desktopEntryId, List.copyOf(targets));
     }
 
     /**
@@ -89,29 +156,14 @@ public final class DesktopActions {
      * </pre>
      */
     public static void browse(URI uri) throws DesktopActionException {
-        if (!isDesktopSupported()) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
-        }
-
-        Desktop desktop = Desktop.getDesktop();
-        if (!desktop.isSupported(Desktop.Action.BROWSE)) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
-        }
-
-        try {
-            desktop.browse(uri);
-        } catch (IOException e) {
-            throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e);
-        }
+        ActionCoalescer.run(DesktopAction.BROWSE, uri, () -> requireBackend(DesktopAction.BROWSE).browse(uri));
     }
 
     /**
      * Opens the system file explorer and highlights the specified file.
      *
-     * <p>This method converts the string path to a File object and delegates to {@link #openFileLocation(File)}.
-     *
-     * <p><b>Note:</b> This method currently uses Windows-specific commands (explorer.exe).
-     * Cross-platform support may be limited.
+     * <p>This method converts the string path to a File object and delegates to {@link #openFileLocation(File)},
+     * which routes the action to a {@link DesktopBackend}.
      *
      * @param filePath the path to the file to highlight (must not be null or empty)
      * @throws DesktopActionException if the file path is null/empty, the file does not exist,
@@ -129,14 +181,46 @@ public final class DesktopActions {
         openFileLocation(new File(filePath));
     }
 
+    /**
+     * Opens many URIs in the system's default web browser in one batch.
+     *
+     * <p>Where the browser accepts several URLs on one command line, all URIs are handed to a single
+     * process; otherwise they are opened individually, a few at a time. Unlike {@link #browse(URI)},
+     * this method does not stop at the first failure. The returned {@link BatchResult} reports
+     * success or failure for every URI. Duplicate URIs are only opened once.
+     *
+     * @param uris the URIs to open (must not be null; null entries fail individually)
+     * @return the outcome for every URI, in the order given
+     * @throws DesktopActionException if {@code uris} is null
+     * @example <pre>
+     * BatchResult&lt;URI&gt; result = DesktopActions.browse(List.of(
+     *         URI.create("https://www.example.com"),
+     *         URI.create("https://www.example.org")
+     * ));
+     * </pre>
+     * @see #browse(URI)
+     */
+    public static BatchResult<URI> browse(Collection<URI> uris) throws DesktopActionException {
+        if (uris == null) {
+            throw new DesktopActionException(ErrorMessage.URIS_IS_NULL.getMessage());
+        }
+
+        SpawnPriority previous = SpawnGovernor.enter(SpawnPriority.BULK);
+        try {
+            return BrowseBatch.run(uris, PlatformCapabilities.current().getBackend(DesktopAction.BROWSE).orElse(null));
+        } finally {
+            SpawnGovernor.restore(previous);
+        }
+    }
+
     /**
      * Opens the system file explorer and highlights the specified file.
      *
-     * <p>This method uses the Windows "explorer /select," command to open the file explorer
-     * with the specified file highlighted. The file must exist in the filesystem.
+     * <p>The file is revealed by the fastest available {@link DesktopBackend} that supports the
+     * action, for example with "explorer /select," on Windows or the FileManager1 D-Bus interface
+     * on Linux. The file must exist in the filesystem.
      *
-     * <p><b>Note:</b> This method currently uses Windows-specific commands (explorer.exe).
-     * Cross-platform support may be limited.
+     * <p><b>Note:</b> Backends that cannot highlight a file open its parent directory instead.
      *
      * @param file the file to highlight in the explorer (must not be null and must exist)
      * @throws DesktopActionException if the file is null, does not exist, or the operation fails
@@ -150,14 +234,38 @@ public final class DesktopActions {
             throw new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage());
         }
 
-        if (isWindows()) {
-            try {
-                new ProcessBuilder("explorer", "/select,", file.getAbsolutePath()).start();
-            } catch (IOException e) {
-                throw new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + file.getAbsolutePath(), e);
-            }
-        } else {
-            openFileDirectory(file.getParentFile());
+        ActionCoalescer.run(DesktopAction.OPEN_FILE_LOCATION, file,
+                () -> requireBackend(DesktopAction.OPEN_FILE_LOCATION).openFileLocation(file));
+    }
+
+    /**
+     * Reveals many files in the system file explorer, opening each directory only once.
+     *
+     * <p>Files are grouped by their parent directory, and every directory is revealed in a single
+     * window with all of its files selected where the backend supports it. Backends that can only
+     * highlight one file highlight the first file of each directory. The returned
+     * {@link BatchResult} reports success or failure for every path. Duplicate paths are only
+     * revealed once.
+     *
+     * @param paths the files to reveal (must not be null; null or missing entries fail individually)
+     * @return the outcome for every path, in the order given
+     * @throws DesktopActionException if {@code paths} is null
+     * @example <pre>
+     * BatchResult&lt;Path&gt; result = DesktopActions.openFileLocations(searchResults);
+     * result.getFailed().forEach((path, error) -&gt; System.err.println(path + ": " + error.getMessage()));
+     * </pre>
+     * @see #openFileLocation(File)
+     */
+    public static BatchResult<Path> openFileLocations(Collection<Path> paths) throws DesktopActionException {
+        if (paths == null) {
+            throw new DesktopActionException(ErrorMessage.PATHS_IS_NULL.getMessage());
+        }
+
+        SpawnPriority previous = SpawnGovernor.enter(SpawnPriority.BULK);
+        try {
+            return RevealBatch.run(paths, PlatformCapabilities.current().getBackend(DesktopAction.OPEN_FILE_LOCATION).orElse(null));
+        } finally {
+            SpawnGovernor.restore(previous);
         }
     }
 
@@ -206,20 +314,8 @@ public final class DesktopActions {
             throw new DesktopActionException(ErrorMessage.FILE_IS_NOT_DIRECTORY.getMessage());
         }
 
-        if (!isDesktopSupported()) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
-        }
-
-        Desktop desktop = Desktop.getDesktop();
-        if (!desktop.isSupported(Desktop.Action.OPEN)) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
-        }
-
-        try {
-            desktop.open(file);
-        } catch (IOException e) {
-            throw new DesktopActionException(ErrorMessage.OPEN_FILE_DIRECTORY_FAILED.getMessage() + file.getAbsolutePath(), e);
-        }
+        ActionCoalescer.run(DesktopAction.OPEN_FILE_DIRECTORY, file,
+                () -> requireBackend(DesktopAction.OPEN_FILE_DIRECTORY).openDirectory(file));
     }
 
     /**
@@ -246,8 +342,8 @@ public final class DesktopActions {
     /**
      * Moves the specified file to the system's trash/recycle bin.
      *
-     * <p>This method uses the Desktop API's MOVE_TO_TRASH action to safely move
-     * the file to the system's trash/recycle bin instead of permanently deleting it.
+     * <p>This method uses the platform's trash support (the Desktop API's MOVE_TO_TRASH action
+     * by default) to safely move the file to the system's trash/recycle bin instead of permanently deleting it.
      * The file can typically be restored from the trash if needed.
      *
      * <p>This method checks if the desktop and move to trash action are supported
@@ -266,16 +362,35 @@ public final class DesktopActions {
             throw new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage());
         }
 
-        if (!isDesktopSupported()) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
-        }
+        requireBackend(DesktopAction.MOVE_TO_TRASH).moveToTrash(file);
+    }
 
-        Desktop desktop = Desktop.getDesktop();
-        if (!desktop.isSupported(Desktop.Action.MOVE_TO_TRASH)) {
-            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    /**
+     * Moves many files to the system's trash/recycle bin in one batch.
+     *
+     * <p>Unlike {@link #moveToTrash(File)}, this method does not stop at the first failure. All paths
+     * are checked concurrently, grouped by the file system they live on, and each group is moved
+     * in bulk. The returned {@link BatchResult} reports success or failure for every path.
+     * Duplicate paths are only trashed once.
+     *
+     * @param paths the files to move to trash (must not be null; null or missing entries fail individually)
+     * @return the outcome for every path, in the order given
+     * @throws DesktopActionException if {@code paths} is null
+     * @example <pre>
+     * BatchResult&lt;Path&gt; result = DesktopActions.moveToTrash(List.of(
+     *         Path.of("build/out.log"),
+     *         Path.of("build/tmp")
+     * ));
+     * result.getFailed().forEach((path, error) -&gt; System.err.println(path + ": " + error.getMessage()));
+     * </pre>
+     * @see #moveToTrash(File)
+     */
+    public static BatchResult<Path> moveToTrash(Collection<Path> paths) throws DesktopActionException {
+        if (paths == null) {
+            throw new DesktopActionException(ErrorMessage.PATHS_IS_NULL.getMessage());
         }
 
-        desktop.moveToTrash(file);
+        return TrashBatch.run(paths, PlatformCapabilities.current().getBackend(DesktopAction.MOVE_TO_TRASH).orElse(null));
     }
 
     /**
@@ -365,27 +480,24 @@ public final class DesktopActions {
             throw new DesktopActionException(ErrorMessage.LINK_PATH_IS_NULL.getMessage());
         }
 
-        try {
-            ShellLink.createLink(targetPath, linkPath);
-        } catch (IOException e) {
-            throw new DesktopActionException("Unable to create desktop shortcut.", e);
-        }
+        requireBackend(DesktopAction.CREATE_SHORTCUT).createShortcut(targetPath, linkPath);
     }
 
     /**
-     * Checks if the Desktop API is supported on the current platform.
+     * Checks if desktop integration is supported on the current platform.
      *
-     * <p>This method is a wrapper around {@link Desktop#isDesktopSupported()} and
-     * returns whether the Desktop API is available on the current system.</p>
+     * <p>This method returns whether a backend is available that can open URLs or directories,
+     * as recorded in the cached {@link PlatformCapabilities} snapshot, so the platform is only
+     * probed once.</p>
      *
-     * <p>The Desktop API may not be supported in certain environments such as:
+     * <p>Desktop integration may not be supported in certain environments such as:
      * <ul>
      *   <li>Headless systems without graphical displays</li>
      *   <li>Server environments</li>
      *   <li>Some containerized or minimal runtime environments</li>
      * </ul>
      *
-     * @return {@code true} if the Desktop API is supported on the current platform,
+     * @return {@code true} if desktop integration is supported on the current platform,
      * {@code false} otherwise
      * @example <pre>
      * if (DesktopActions.isDesktopSupported()) {
@@ -396,13 +508,15 @@ public final class DesktopActions {
      *     System.out.println("Desktop operations not supported");
      * }
      * </pre>
-     * @see Desktop#isDesktopSupported()
+     * @see PlatformCapabilities#isDesktopSupported()
+     * @see PlatformCapabilities#refresh()
      */
     public static boolean isDesktopSupported() {
-        return Desktop.isDesktopSupported();
+        return PlatformCapabilities.current().isDesktopSupported();
     }
 
-    private static boolean isWindows() {
-        return System.getProperty("os.name").toLowerCase().contains("windows");
+    private static DesktopBackend requireBackend(DesktopAction action) throws DesktopActionException {
+        return PlatformCapabilities.current().getBackend(action)
+                .orElseThrow(() -> new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage()));
     }
 }
\ No newline at end of file
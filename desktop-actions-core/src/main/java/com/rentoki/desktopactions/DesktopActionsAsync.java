@@ -0,0 +1,295 @@
+package com.rentoki.desktopactions;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Non-blocking counterpart of {@link DesktopActions}.
+ *
+ * <p>Every method submits the equivalent {@link DesktopActions} call to an executor and returns
+ * immediately. The returned future completes with an {@link ActionResult} describing the outcome;
+ * a failed action completes the future <em>normally</em> with a failed result, so callers can
+ * inspect it with {@link ActionResult#isSuccess()} or rethrow it with {@link ActionResult#orThrow()}.
+ * The future only completes exceptionally if the executor rejects the task or the action throws
+ * an unchecked exception. {@link #launch(LaunchSpec)}, which produces a {@link LaunchedProcess}, and
+ * the batch methods, which produce a {@link BatchResult}, instead complete with that value, and
+ * exceptionally with a {@link DesktopActionException} if the action fails as a whole.
+ *
+ * <p>By default each action runs on its own virtual thread, so a slow desktop handler never ties up
+ * the calling thread or a platform thread pool. Use {@link #setExecutor(Executor)} to supply a
+ * different executor. Actions keep the {@linkplain SpawnGovernor#currentPriority() spawn priority}
+ * of the thread that submitted them.
+ *
+ * @author Rentoki
+ * @see DesktopActions
+ */
+public final class DesktopActionsAsync {
+    private static volatile Executor executor;
+
+    private DesktopActionsAsync() {
+    }
+
+    /**
+     * Sets the executor used to run all subsequently submitted actions.
+     *
+     * @param executor the executor to use, or {@code null} to restore the default virtual-thread executor
+     * @example <pre>
+     * DesktopActionsAsync.setExecutor(Executors.newFixedThreadPool(4));
+     * </pre>
+     */
+    public static void setExecutor(Executor executor) {
+        DesktopActionsAsync.executor = executor;
+    }
+
+    /**
+     * Returns the executor that actions are currently submitted to.
+     *
+     * @return the configured executor, or the default virtual-thread executor if none was set
+     */
+    public static Executor getExecutor() {
+        Executor configured = executor;
+        return configured != null ? configured : DefaultExecutor.INSTANCE;
+    }
+
+    /**
+     * Asynchronously starts the specified executable. Use {@link #launch(LaunchSpec)} to get a
+     * handle to the started process.
+     *
+     * @param executablePath the path to the executable to run
+     * @return a future completing with the outcome of {@link DesktopActions#open(String)}
+     * @example <pre>
+     * DesktopActionsAsync.open("C:/Program Files/MyApp/myapp.exe")
+     *         .thenAccept(result -> System.out.println(result));
+     * </pre>
+     */
+    public static CompletableFuture<ActionResult> open(String executablePath) {
+        return submit(DesktopAction.OPEN, executablePath, () -> DesktopActions.open(executablePath));
+    }
+
+    /**
+     * Asynchronously starts the process described by the spec.
+     *
+     * @param spec the process to start
+     * @return a future completing with the handle returned by {@link DesktopActions#launch(LaunchSpec)};
+     * it completes exceptionally with a {@link DesktopActionException} if the process cannot be started
+     * @example <pre>
+     * DesktopActionsAsync.launch(LaunchSpec.builder("/usr/bin/backup").build())
+     *         .thenCompose(LaunchedProcess::onExit)
+     *         .thenAccept(process -> System.out.println(process.exitValue()));
+     * </pre>
+     */
+    public static CompletableFuture<LaunchedProcess> launch(LaunchSpec spec) {
+        return supply(() -> DesktopActions.launch(spec));
+    }
+
+    /**
+     * Asynchronously launches an installed application by the id of its desktop entry.
+     *
+     * @param desktopEntryId the desktop file id of the application
+     * @param targets        the files or URIs to open with it
+     * @return a future completing with the outcome of {@link DesktopActions#launchApplication(String, List)}
+     */
+    public static CompletableFuture<ActionResult> launchApplication(String desktopEntryId, List<URI> targets) {
+        return submit(DesktopAction.LAUNCH_APPLICATION, desktopEntryId,
+                () -> DesktopActions.launchApplication(desktopEntryId, targets));
+    }
+
+    /**
+     * Asynchronously opens the specified URL in the default web browser.
+     *
+     * @param url the URL to open
+     * @return a future completing with the outcome of {@link DesktopActions#browse(String)}
+     * @example <pre>
+     * DesktopActionsAsync.browse("https://www.google.com");
+     * </pre>
+     */
+    public static CompletableFuture<ActionResult> browse(String url) {
+        return submit(DesktopAction.BROWSE, url, () -> DesktopActions.browse(url));
+    }
+
+    /**
+     * Asynchronously opens the specified URI in the default web browser.
+     *
+     * @param uri the URI to open
+     * @return a future completing with the outcome of {@link DesktopActions#browse(URI)}
+     */
+    public static CompletableFuture<ActionResult> browse(URI uri) {
+        return submit(DesktopAction.BROWSE, String.valueOf(uri), () -> DesktopActions.browse(uri));
+    }
+
+    /**
+     * Asynchronously opens many URIs in the default web browser in one batch.
+     *
+     * @param uris the URIs to open
+     * @return a future completing with the outcome of {@link DesktopActions#browse(Collection)};
+     * it completes exceptionally with a {@link DesktopActionException} if {@code uris} is null
+     */
+    public static CompletableFuture<BatchResult<URI>> browse(Collection<URI> uris) {
+        return supply(() -> DesktopActions.browse(uris));
+    }
+
+    /**
+     * Asynchronously opens the system file explorer and highlights the specified file.
+     *
+     * @param filePath the path to the file to highlight
+     * @return a future completing with the outcome of {@link DesktopActions#openFileLocation(String)}
+     */
+    public static CompletableFuture<ActionResult> openFileLocation(String filePath) {
+        return submit(DesktopAction.OPEN_FILE_LOCATION, filePath, () -> DesktopActions.openFileLocation(filePath));
+    }
+
+    /**
+     * Asynchronously opens the system file explorer and highlights the specified file.
+     *
+     * @param file the file to highlight
+     * @return a future completing with the outcome of {@link DesktopActions#openFileLocation(File)}
+     */
+    public static CompletableFuture<ActionResult> openFileLocation(File file) {
+        return submit(DesktopAction.OPEN_FILE_LOCATION, String.valueOf(file), () -> DesktopActions.openFileLocation(file));
+    }
+
+    /**
+     * Asynchronously reveals many files, opening each directory only once.
+     *
+     * @param paths the files to reveal
+     * @return a future completing with the outcome of {@link DesktopActions#openFileLocations(Collection)};
+     * it completes exceptionally with a {@link DesktopActionException} if {@code paths} is null
+     */
+    public static CompletableFuture<BatchResult<Path>> openFileLocations(Collection<Path> paths) {
+        return supply(() -> DesktopActions.openFileLocations(paths));
+    }
+
+    /**
+     * Asynchronously opens the specified directory in the system file explorer.
+     *
+     * @param filePath the path to the directory to open
+     * @return a future completing with the outcome of {@link DesktopActions#openFileDirectory(String)}
+     */
+    public static CompletableFuture<ActionResult> openFileDirectory(String filePath) {
+        return submit(DesktopAction.OPEN_FILE_DIRECTORY, filePath, () -> DesktopActions.openFileDirectory(filePath));
+    }
+
+    /**
+     * Asynchronously opens the specified directory in the system file explorer.
+     *
+     * @param file the directory to open
+     * @return a future completing with the outcome of {@link DesktopActions#openFileDirectory(File)}
+     */
+    public static CompletableFuture<ActionResult> openFileDirectory(File file) {
+        return submit(DesktopAction.OPEN_FILE_DIRECTORY, String.valueOf(file), () -> DesktopActions.openFileDirectory(file));
+    }
+
+    /**
+     * Asynchronously moves the specified file to the system's trash/recycle bin.
+     *
+     * @param filePath the path to the file to move to trash
+     * @return a future completing with the outcome of {@link DesktopActions#moveToTrash(String)}
+     */
+    public static CompletableFuture<ActionResult> moveToTrash(String filePath) {
+        return submit(DesktopAction.MOVE_TO_TRASH, filePath, () -> DesktopActions.moveToTrash(filePath));
+    }
+
+    /**
+     * Asynchronously moves the specified file to the system's trash/recycle bin.
+     *
+     * @param file the file to move to trash
+     * @return a future completing with the outcome of {@link DesktopActions#moveToTrash(File)}
+     */
+    public static CompletableFuture<ActionResult> moveToTrash(File file) {
+        return submit(DesktopAction.MOVE_TO_TRASH, String.valueOf(file), () -> DesktopActions.moveToTrash(file));
+    }
+
+    /**
+     * Asynchronously moves many files to the system's trash/recycle bin in one batch.
+     *
+     * @param paths the files to move to trash
+     * @return a future completing with the outcome of {@link DesktopActions#moveToTrash(Collection)};
+     * it completes exceptionally with a {@link DesktopActionException} if {@code paths} is null
+     */
+    public static CompletableFuture<BatchResult<Path>> moveToTrash(Collection<Path> paths) {
+        return supply(() -> DesktopActions.moveToTrash(paths));
+    }
+
+    /**
+     * Asynchronously creates a desktop shortcut for the specified target path.
+     *
+     * @param targetPath the path to the file or application for which to create a shortcut
+     * @return a future completing with the outcome of {@link DesktopActions#createShortcut(String)}
+     */
+    public static CompletableFuture<ActionResult> createShortcut(String targetPath) {
+        return submit(DesktopAction.CREATE_SHORTCUT, targetPath, () -> DesktopActions.createShortcut(targetPath));
+    }
+
+    /**
+     * Asynchronously creates a shortcut at the specified location for the given target path.
+     *
+     * @param targetPath the path to the file, application, or directory for which to create a shortcut
+     * @param linkPath   the path where the shortcut should be created
+     * @return a future completing with the outcome of {@link DesktopActions#createShortcut(String, String)}
+     */
+    public static CompletableFuture<ActionResult> createShortcut(String targetPath, String linkPath) {
+        return submit(DesktopAction.CREATE_SHORTCUT, targetPath, () -> DesktopActions.createShortcut(targetPath, linkPath));
+    }
+
+    private static CompletableFuture<ActionResult> submit(DesktopAction action, String target, BlockingAction task) {
+        try {
+            SpawnPriority priority = SpawnGovernor.currentPriority();
+            return CompletableFuture.supplyAsync(() -> run(action, target, priority, task), getExecutor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static <T> CompletableFuture<T> supply(ValueAction<T> task) {
+        try {
+            SpawnPriority priority = SpawnGovernor.currentPriority();
+            return CompletableFuture.supplyAsync(() -> {
+                SpawnPriority previous = SpawnGovernor.enter(priority);
+                try {
+                    return task.get();
+                } catch (DesktopActionException e) {
+                    throw new CompletionException(e);
+                } finally {
+                    SpawnGovernor.restore(previous);
+                }
+            }, getExecutor());
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static ActionResult run(DesktopAction action, String target, SpawnPriority priority, BlockingAction task) {
+        SpawnPriority previous = SpawnGovernor.enter(priority);
+        try {
+            task.run();
+            return ActionResult.success(action, target);
+        } catch (DesktopActionException e) {
+            return ActionResult.failure(action, target, e);
+        } finally {
+            SpawnGovernor.restore(previous);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ValueAction<T> {
+        T get() throws DesktopActionException;
+    }
+
+    @FunctionalInterface
+    private interface BlockingAction {
+        void run() throws DesktopActionException;
+    }
+
+    private static final class DefaultExecutor {
+        static final Executor INSTANCE = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("desktop-actions-", 0).factory());
+    }
+}
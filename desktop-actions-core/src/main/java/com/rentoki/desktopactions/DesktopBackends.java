@@ -0,0 +1,70 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * Registry of the {@link DesktopBackend} implementations used by {@link DesktopActions}.
+ *
+ * <p>Backends are discovered with {@link ServiceLoader} the first time an action needs one, and
+ * ranked by {@link DesktopBackend#latency()}. Backends with the same latency keep their discovery
+ * order.
+ *
+ * <p>{@link #use(DesktopBackend...)} replaces the discovered backends, for example with an
+ * in-memory backend for load testing; {@link #reset()} restores them.
+ *
+ * @author Rentoki
+ */
+public final class DesktopBackends {
+    private static final Comparator<DesktopBackend> BY_LATENCY = Comparator.comparing(DesktopBackend::latency);
+
+    private static volatile List<DesktopBackend> override;
+
+    private DesktopBackends() {
+    }
+
+    /**
+     * Returns the backends in use, fastest first.
+     *
+     * @return an unmodifiable, ranked list of backends
+     */
+    public static List<DesktopBackend> getBackends() {
+        List<DesktopBackend> backends = override;
+        return backends != null ? backends : Discovered.BACKENDS;
+    }
+
+    /**
+     * Replaces the discovered backends with the given ones.
+     *
+     * @param backends the backends to use instead of the discovered ones
+     * @example <pre>
+     * DesktopBackends.use(new InMemoryBackend());
+     * </pre>
+     */
+    public static void use(DesktopBackend... backends) {
+        override = rank(Arrays.asList(backends));
+        PlatformCapabilities.refresh();
+    }
+
+    /**
+     * Restores the backends discovered through {@link ServiceLoader}.
+     */
+    public static void reset() {
+        override = null;
+        PlatformCapabilities.refresh();
+    }
+
+    private static List<DesktopBackend> rank(List<DesktopBackend> backends) {
+        return backends.stream().sorted(BY_LATENCY).toList();
+    }
+
+    private static final class Discovered {
+        static final List<DesktopBackend> BACKENDS = rank(ServiceLoader.load(DesktopBackend.class).stream()
+                .map(ServiceLoader.Provider::get)
+                .toList());
+    }
+}
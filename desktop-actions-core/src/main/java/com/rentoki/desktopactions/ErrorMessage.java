@@ -13,7 +13,18 @@ public enum ErrorMessage {
     EXECUTABLE_PATH_IS_NULL("Executable path cannot be null"),
     CANNOT_START_PROCESS("Cannot start process."),
     TARGET_PATH_IS_NULL("Target path cannot be empty or null."),
-    LINK_PATH_IS_NULL("Link path cannot be empty or null.");
+    LINK_PATH_IS_NULL("Link path cannot be empty or null."),
+    CREATE_SHORTCUT_FAILED("Unable to create desktop shortcut."),
+    PATHS_IS_NULL("Paths cannot be null."),
+    URIS_IS_NULL("URIs cannot be null."),
+    MOVE_TO_TRASH_FAILED("Failed to move file to trash: "),
+    RESTORE_FAILED("Failed to restore file from trash: "),
+    PURGE_FAILED("Failed to purge file from trash: "),
+    TRASH_SIZE_FAILED("Failed to determine the size of trash: "),
+    DESKTOP_ENTRY_ID_IS_NULL("Desktop entry id cannot be empty or null."),
+    LAUNCH_APPLICATION_FAILED("Failed to launch application: "),
+    LAUNCH_SPEC_IS_NULL("Launch spec cannot be null."),
+    ACTION_INTERRUPTED("Interrupted while waiting for an identical action.");
 
     private final String message;
 
@@ -0,0 +1,298 @@
+package com.rentoki.desktopactions;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Describes a process to start: its command line, environment, working directory and where its
+ * standard streams go.
+ *
+ * <p>By default the output and error streams of the process are discarded and its input is read
+ * from the null device. A process that writes to a pipe nobody reads blocks once the pipe buffer
+ * (about 64 KB on Linux) is full, and every pipe holds a file descriptor in this JVM, so
+ * {@link Redirect#PIPE} should only be chosen by callers that read the streams.
+ *
+ * <p>Instances are immutable and can be launched any number of times.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * LaunchSpec spec = LaunchSpec.builder("/usr/bin/backup")
+ *         .arguments("--incremental", "/home")
+ *         .environment("LANG", "C")
+ *         .workingDirectory(Path.of("/var/backups"))
+ *         .output(Redirect.appendTo(new File("/var/log/backup.log")))
+ *         .build();
+ * DesktopActions.launch(spec);
+ * </pre>
+ */
+public final class LaunchSpec {
+    private static final File NULL_DEVICE = new File(
+            System.getProperty("os.name", "").toLowerCase(Locale.ROOT).startsWith("windows") ? "NUL" : "/dev/null");
+
+    private final List<String> command;
+    private final Map<String, String> environment;
+    private final Path workingDirectory;
+    private final Redirect input;
+    private final Redirect output;
+    private final Redirect error;
+
+    private LaunchSpec(Builder builder) {
+        this.command = List.copyOf(builder.command);
+        this.environment = Collections.unmodifiableMap(new LinkedHashMap<>(builder.environment));
+        this.workingDirectory = builder.workingDirectory;
+        this.input = builder.input;
+        this.output = builder.output;
+        this.error = builder.error;
+    }
+
+    /**
+     * Returns a builder for a process that runs the given executable.
+     *
+     * @param executable the path or name of the program to run (must not be null or empty)
+     * @return a new builder
+     */
+    public static Builder builder(String executable) {
+        return new Builder(List.of(requireExecutable(executable)));
+    }
+
+    /**
+     * Returns a builder for a process that runs the given command line.
+     *
+     * @param command the program to run followed by its arguments (must not be empty)
+     * @return a new builder
+     */
+    public static Builder builder(List<String> command) {
+        if (command == null || command.isEmpty()) {
+            throw new IllegalArgumentException("command must not be null or empty");
+        }
+        requireExecutable(command.get(0));
+        return new Builder(command);
+    }
+
+    /**
+     * Creates a process builder configured with this spec. Every call returns a new builder.
+     *
+     * @return a process builder ready to {@linkplain ProcessBuilder#start() start}
+     */
+    public ProcessBuilder toProcessBuilder() {
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (workingDirectory != null) {
+            builder.directory(workingDirectory.toFile());
+        }
+        if (!environment.isEmpty()) {
+            Map<String, String> env = builder.environment();
+            environment.forEach((name, value) -> {
+                if (value == null) {
+                    env.remove(name);
+                } else {
+                    env.put(name, value);
+                }
+            });
+        }
+        builder.redirectInput(input);
+        builder.redirectOutput(output);
+        builder.redirectError(error);
+        return builder;
+    }
+
+    /**
+     * Starts the process, through the spawner helper if it is {@linkplain ProcessSpawner enabled}.
+     *
+     * @return the started process
+     * @throws IOException if the process cannot be started
+     */
+    public Process start() throws IOException {
+        return ProcessSpawner.start(this);
+    }
+
+    /**
+     * Returns the program followed by its arguments.
+     *
+     * @return the command line
+     */
+    public List<String> getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the variables set in, or, where the value is {@code null}, removed from the
+     * environment inherited from this JVM.
+     *
+     * @return the environment changes
+     */
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    public Optional<Path> getWorkingDirectory() {
+        return Optional.ofNullable(workingDirectory);
+    }
+
+    public Redirect getInput() {
+        return input;
+    }
+
+    public Redirect getOutput() {
+        return output;
+    }
+
+    public Redirect getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", command);
+    }
+
+    private static String requireExecutable(String executable) {
+        if (executable == null || executable.trim().isEmpty()) {
+            throw new IllegalArgumentException("executable must not be null or empty");
+        }
+        return executable;
+    }
+
+    /**
+     * Configures a {@link LaunchSpec}.
+     */
+    public static final class Builder {
+        private final List<String> command;
+        private final Map<String, String> environment = new LinkedHashMap<>();
+        private Path workingDirectory;
+        private Redirect input = Redirect.from(NULL_DEVICE);
+        private Redirect output = Redirect.DISCARD;
+        private Redirect error = Redirect.DISCARD;
+
+        private Builder(List<String> command) {
+            this.command = new ArrayList<>(command);
+        }
+
+        /**
+         * Appends an argument to the command line.
+         *
+         * @param argument the argument to append
+         * @return this builder
+         */
+        public Builder argument(String argument) {
+            if (argument == null) {
+                throw new IllegalArgumentException("argument must not be null");
+            }
+            command.add(argument);
+            return this;
+        }
+
+        /**
+         * Appends arguments to the command line.
+         *
+         * @param arguments the arguments to append, in order
+         * @return this builder
+         */
+        public Builder arguments(String... arguments) {
+            return arguments(List.of(arguments));
+        }
+
+        /**
+         * Appends arguments to the command line.
+         *
+         * @param arguments the arguments to append, in order
+         * @return this builder
+         */
+        public Builder arguments(Collection<String> arguments) {
+            for (String argument : arguments) {
+                argument(argument);
+            }
+            return this;
+        }
+
+        /**
+         * Sets an environment variable of the process, or removes it if the value is {@code null}.
+         * The process otherwise inherits the environment of this JVM.
+         *
+         * @param name  the variable name
+         * @param value the value, or {@code null} to remove the variable
+         * @return this builder
+         */
+        public Builder environment(String name, String value) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("name must not be null or empty");
+            }
+            environment.put(name, value);
+            return this;
+        }
+
+        /**
+         * Sets the working directory of the process. Defaults to the working directory of this JVM.
+         *
+         * @param directory the working directory, or {@code null} for the default
+         * @return this builder
+         */
+        public Builder workingDirectory(Path directory) {
+            this.workingDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Sets where the process reads its standard input from. Defaults to the null device.
+         *
+         * @param input {@link Redirect#INHERIT}, {@link Redirect#PIPE} or a file to read from
+         * @return this builder
+         */
+        public Builder input(Redirect input) {
+            if (input == null || input.type() == Redirect.Type.WRITE || input.type() == Redirect.Type.APPEND) {
+                throw new IllegalArgumentException("input must be a redirect to read from");
+            }
+            this.input = input;
+            return this;
+        }
+
+        /**
+         * Sets where the standard output of the process goes. Defaults to {@link Redirect#DISCARD}.
+         *
+         * @param output {@link Redirect#DISCARD}, {@link Redirect#INHERIT}, {@link Redirect#PIPE}
+         *               or a file to write or append to
+         * @return this builder
+         */
+        public Builder output(Redirect output) {
+            this.output = requireWritable(output, "output");
+            return this;
+        }
+
+        /**
+         * Sets where the standard error of the process goes. Defaults to {@link Redirect#DISCARD}.
+         *
+         * @param error {@link Redirect#DISCARD}, {@link Redirect#INHERIT}, {@link Redirect#PIPE}
+         *              or a file to write or append to
+         * @return this builder
+         */
+        public Builder error(Redirect error) {
+            this.error = requireWritable(error, "error");
+            return this;
+        }
+
+        /**
+         * Builds the spec.
+         *
+         * @return the configured spec
+         */
+        public LaunchSpec build() {
+            return new LaunchSpec(this);
+        }
+
+        private static Redirect requireWritable(Redirect redirect, String name) {
+            if (redirect == null || redirect.type() == Redirect.Type.READ) {
+                throw new IllegalArgumentException(name + " must be a redirect to write to");
+            }
+            return redirect;
+        }
+    }
+}
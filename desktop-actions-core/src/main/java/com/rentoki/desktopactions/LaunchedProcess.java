@@ -0,0 +1,139 @@
+package com.rentoki.desktopactions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A handle to a process started by {@link DesktopActions#launch(LaunchSpec)}.
+ *
+ * <p>The process is tracked by {@link LaunchedProcesses} until it exits. Exits are observed through
+ * {@link Process#onExit()}, so no thread of this library waits on a running process.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * LaunchedProcess helper = DesktopActions.launch(LaunchSpec.builder("thumbnailer").argument(file).build());
+ * helper.onExit()
+ *         .orTimeout(30, TimeUnit.SECONDS)
+ *         .whenComplete((exited, error) -&gt; {
+ *             if (error != null) {
+ *                 helper.destroyForcibly();
+ *             }
+ *         });
+ * </pre>
+ */
+public final class LaunchedProcess {
+    private final Process process;
+    private final List<String> command;
+    private final Instant startTime;
+    private final CompletableFuture<LaunchedProcess> exit;
+
+    LaunchedProcess(Process process, List<String> command, Instant startTime) {
+        this.process = process;
+        this.command = command;
+        this.startTime = startTime;
+        this.exit = process.onExit().thenApply(exited -> this);
+    }
+
+    /**
+     * Returns the native process id.
+     *
+     * @return the process id
+     */
+    public long pid() {
+        return process.pid();
+    }
+
+    /**
+     * Returns the program followed by its arguments.
+     *
+     * @return the command line
+     */
+    public List<String> getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns when the process was started.
+     *
+     * @return the start time
+     */
+    public Instant getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns whether the process is still running.
+     *
+     * @return {@code true} if the process has not exited
+     */
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Returns the exit value of the process, or an empty optional while it is running.
+     *
+     * @return the exit value if the process has exited
+     */
+    public OptionalInt exitValue() {
+        try {
+            return OptionalInt.of(process.exitValue());
+        } catch (IllegalThreadStateException e) {
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * Returns a future that completes with this handle once the process has exited. Completing or
+     * cancelling the returned future does not affect the process or other callers.
+     *
+     * @return a new future for the exit of the process
+     */
+    public CompletableFuture<LaunchedProcess> onExit() {
+        return exit.copy();
+    }
+
+    /**
+     * Waits up to the timeout for the process to exit.
+     *
+     * @param timeout the maximum time to wait
+     * @return {@code true} if the process has exited
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean waitFor(Duration timeout) throws InterruptedException {
+        return process.waitFor(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Asks the process to terminate.
+     */
+    public void destroy() {
+        process.destroy();
+    }
+
+    /**
+     * Terminates the process forcibly.
+     */
+    public void destroyForcibly() {
+        process.destroyForcibly();
+    }
+
+    /**
+     * Returns the underlying process, for example to read its streams when they were redirected
+     * to {@link ProcessBuilder.Redirect#PIPE}.
+     *
+     * @return the process
+     */
+    public Process getProcess() {
+        return process;
+    }
+
+    @Override
+    public String toString() {
+        return "pid " + process.pid() + ": " + String.join(" ", command);
+    }
+}
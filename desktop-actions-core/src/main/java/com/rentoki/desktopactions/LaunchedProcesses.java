@@ -0,0 +1,104 @@
+package com.rentoki.desktopactions;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of the processes started by {@link DesktopActions#launch(LaunchSpec)} that are still
+ * running, with counters over all launches.
+ *
+ * <p>A process is registered when it starts and removed as soon as its {@link Process#onExit()}
+ * future completes. The counters are {@link LongAdder}s, so launching from many threads at once
+ * does not contend on them.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * System.out.printf("%d running, %d exited, %d failed%n",
+ *         LaunchedProcesses.getRunningCount(),
+ *         LaunchedProcesses.getExitedCount(),
+ *         LaunchedProcesses.getFailedCount());
+ * </pre>
+ */
+public final class LaunchedProcesses {
+    private static final Set<LaunchedProcess> RUNNING = ConcurrentHashMap.newKeySet();
+    private static final LongAdder STARTED = new LongAdder();
+    private static final LongAdder EXITED = new LongAdder();
+    private static final LongAdder FAILED = new LongAdder();
+
+    private LaunchedProcesses() {
+    }
+
+    /**
+     * Returns the launched processes that have not exited yet.
+     *
+     * @return a snapshot of the running processes
+     */
+    public static List<LaunchedProcess> running() {
+        return List.copyOf(RUNNING);
+    }
+
+    /**
+     * Returns the number of launched processes that have not exited yet.
+     *
+     * @return the number of running processes
+     */
+    public static int getRunningCount() {
+        return RUNNING.size();
+    }
+
+    /**
+     * Returns the number of processes started since this class was loaded.
+     *
+     * @return the number of started processes
+     */
+    public static long getStartedCount() {
+        return STARTED.sum();
+    }
+
+    /**
+     * Returns the number of started processes that have exited, whatever their exit value.
+     *
+     * @return the number of exited processes
+     */
+    public static long getExitedCount() {
+        return EXITED.sum();
+    }
+
+    /**
+     * Returns the number of launches that failed: processes that could not be started, and
+     * processes that exited with a non-zero exit value.
+     *
+     * @return the number of failed launches
+     */
+    public static long getFailedCount() {
+        return FAILED.sum();
+    }
+
+    /**
+     * Registers a started process and tracks its exit.
+     */
+    static LaunchedProcess track(Process process, LaunchSpec spec) {
+        LaunchedProcess launched = new LaunchedProcess(process, spec.getCommand(), Instant.now());
+        STARTED.increment();
+        RUNNING.add(launched);
+        // Added before the callback is attached, so a process that has already exited is still removed.
+        launched.onExit().whenComplete((exited, error) -> {
+            RUNNING.remove(launched);
+            EXITED.increment();
+            if (error != null || launched.exitValue().orElse(0) != 0) {
+                FAILED.increment();
+            }
+        });
+        return launched;
+    }
+
+    /**
+     * Counts a process that could not be started.
+     */
+    static void startFailed() {
+        FAILED.increment();
+    }
+}
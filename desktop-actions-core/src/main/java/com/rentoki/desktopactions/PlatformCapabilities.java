@@ -0,0 +1,181 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable snapshot of what the current platform supports.
+ *
+ * <p>The snapshot records the operating system and, for every {@link DesktopAction}, which
+ * {@link DesktopBackend} handles it. Routes are resolved lazily, the first time an action is
+ * performed, and then read lock-free by every later call. Backends are asked whether they are
+ * {@linkplain DesktopBackend#isAvailable() available} at most once per snapshot, so a slow
+ * backend is only probed if no faster backend supports the action.
+ *
+ * <p>Desktop support rarely changes during the lifetime of a JVM. If it does (for example
+ * after a display becomes available), call {@link #refresh()} to have the next call probe
+ * the platform again.
+ *
+ * @author Rentoki
+ */
+public final class PlatformCapabilities {
+    private static volatile PlatformCapabilities current;
+
+    private final String osName;
+    private final boolean windows;
+    private final boolean linux;
+    private final boolean mac;
+    private final List<DesktopBackend> backends;
+    private final Map<DesktopBackend, Boolean> availability = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Optional<DesktopBackend>> routes =
+            new AtomicReferenceArray<>(DesktopAction.values().length);
+
+    private PlatformCapabilities(String osName, List<DesktopBackend> backends) {
+        String os = osName.toLowerCase(Locale.ROOT);
+        this.osName = osName;
+        this.windows = os.contains("windows");
+        this.linux = os.contains("linux");
+        this.mac = os.startsWith("mac");
+        this.backends = backends;
+    }
+
+    /**
+     * Returns the current capability snapshot, creating it if no snapshot exists yet.
+     *
+     * @return the current snapshot (never null)
+     * @example <pre>
+     * if (PlatformCapabilities.current().isSupported(DesktopAction.BROWSE)) {
+     *     DesktopActions.browse("https://www.example.com");
+     * }
+     * </pre>
+     */
+    public static PlatformCapabilities current() {
+        PlatformCapabilities snapshot = current;
+        if (snapshot == null) {
+            synchronized (PlatformCapabilities.class) {
+                snapshot = current;
+                if (snapshot == null) {
+                    snapshot = new PlatformCapabilities(System.getProperty("os.name", ""), DesktopBackends.getBackends());
+                    current = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Discards the current snapshot so that the next call to {@link #current()} probes the platform again.
+     *
+     * <p>Backends of the discarded snapshot are {@linkplain DesktopBackend#refresh() refreshed} as well.
+     */
+    public static void refresh() {
+        PlatformCapabilities discarded;
+        synchronized (PlatformCapabilities.class) {
+            discarded = current;
+            current = null;
+        }
+
+        if (discarded != null) {
+            discarded.backends.forEach(DesktopBackend::refresh);
+        }
+    }
+
+    /**
+     * Returns the value of the {@code os.name} system property at the time of probing.
+     *
+     * @return the operating system name
+     */
+    public String getOsName() {
+        return osName;
+    }
+
+    /**
+     * Returns whether the current operating system is Windows.
+     *
+     * @return {@code true} on Windows, {@code false} otherwise
+     */
+    public boolean isWindows() {
+        return windows;
+    }
+
+    /**
+     * Returns whether the current operating system is Linux.
+     *
+     * @return {@code true} on Linux, {@code false} otherwise
+     */
+    public boolean isLinux() {
+        return linux;
+    }
+
+    /**
+     * Returns whether the current operating system is macOS.
+     *
+     * @return {@code true} on macOS, {@code false} otherwise
+     */
+    public boolean isMac() {
+        return mac;
+    }
+
+    /**
+     * Returns whether a backend is available that can open URLs or directories.
+     *
+     * @return {@code true} if desktop integration is available, {@code false} otherwise
+     */
+    public boolean isDesktopSupported() {
+        return isSupported(DesktopAction.BROWSE) || isSupported(DesktopAction.OPEN_FILE_DIRECTORY);
+    }
+
+    /**
+     * Returns whether any available backend supports the given action.
+     *
+     * @param action the action to check
+     * @return {@code true} if the action can be performed
+     */
+    public boolean isSupported(DesktopAction action) {
+        return getBackend(action).isPresent();
+    }
+
+    /**
+     * Returns the backend that handles the given action.
+     *
+     * @param action the action to look up
+     * @return the fastest available backend supporting the action, or an empty optional if there is none
+     */
+    public Optional<DesktopBackend> getBackend(DesktopAction action) {
+        Optional<DesktopBackend> route = routes.get(action.ordinal());
+        if (route == null) {
+            route = resolve(action);
+            routes.compareAndSet(action.ordinal(), null, route);
+            route = routes.get(action.ordinal());
+        }
+        return route;
+    }
+
+    /**
+     * Returns all backends known to this snapshot, fastest first, whether available or not.
+     *
+     * @return an unmodifiable, ranked list of backends
+     */
+    public List<DesktopBackend> getBackends() {
+        return backends;
+    }
+
+    private Optional<DesktopBackend> resolve(DesktopAction action) {
+        for (DesktopBackend backend : backends) {
+            if (isAvailable(backend) && backend.supports(action)) {
+                return Optional.of(backend);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private boolean isAvailable(DesktopBackend backend) {
+        return availability.computeIfAbsent(backend, DesktopBackend::isAvailable);
+    }
+}
@@ -0,0 +1,152 @@
+package com.rentoki.desktopactions;
+
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.time.Duration;
+
+/**
+ * Chooses how the processes of {@link DesktopActions} and its backends are started.
+ *
+ * <p>By default every process is started by this JVM with {@link ProcessBuilder}. Forking a JVM
+ * costs time in proportion to its mappings, which adds up for services with large heaps that
+ * launch many processes. With the spawner helper enabled, a small helper JVM is started once and
+ * processes are started by it over a Unix domain socket, so this JVM no longer forks per launch.
+ *
+ * <p>Processes are still started in-process when the helper cannot be used: when a
+ * {@link LaunchSpec} asks for a {@link Redirect#PIPE}, which would connect the process to the
+ * helper, or inherits standard input, which the helper does not have, and when the helper cannot
+ * be started or has gone away. Launches made while the helper is starting do not wait for it. After
+ * the helper fails to start, it is not tried again for {@link #RETRY_DELAY}.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * ProcessSpawner.setHelperEnabled(true);
+ * DesktopActions.open("/usr/bin/thumbnailer");  // started by the helper
+ * </pre>
+ */
+public final class ProcessSpawner {
+    /**
+     * How long to start processes in-process after the helper failed to start.
+     */
+    public static final Duration RETRY_DELAY = Duration.ofMinutes(1);
+
+    private static volatile boolean helperEnabled;
+    private static SpawnerClient client;
+    private static boolean starting;
+    private static boolean failed;
+    private static long retryAt;
+
+    private ProcessSpawner() {
+    }
+
+    /**
+     * Enables or disables the spawner helper. Disabling it stops a running helper; processes it
+     * has started keep running.
+     *
+     * @param enabled {@code true} to start processes through the helper
+     */
+    public static void setHelperEnabled(boolean enabled) {
+        helperEnabled = enabled;
+        if (!enabled) {
+            synchronized (ProcessSpawner.class) {
+                closeClient();
+                failed = false;
+            }
+        }
+    }
+
+    /**
+     * Returns whether processes are started through the spawner helper when possible.
+     *
+     * @return {@code true} if the helper is enabled
+     */
+    public static boolean isHelperEnabled() {
+        return helperEnabled;
+    }
+
+    /**
+     * Returns whether the spawner helper is currently running and connected.
+     *
+     * @return {@code true} if the helper is running
+     */
+    public static synchronized boolean isHelperRunning() {
+        return client != null && client.isOpen();
+    }
+
+    /**
+     * Starts the process described by the spec, through the helper when it is enabled and usable,
+     * once the {@link SpawnGovernor} has a slot for it. The helper is started before the slot is
+     * taken, so its startup time does not count as launch latency.
+     */
+    static Process start(LaunchSpec spec) throws IOException {
+        SpawnerClient helper = helperEnabled && SpawnProtocol.isSupported(spec) ? helper() : null;
+        long acquired = SpawnGovernor.acquire();
+        try {
+            return launch(spec, helper);
+        } finally {
+            SpawnGovernor.release(acquired);
+        }
+    }
+
+    private static Process launch(LaunchSpec spec, SpawnerClient helper) throws IOException {
+        if (helper != null) {
+            try {
+                return helper.spawn(spec);
+            } catch (SpawnerClient.UnavailableException e) {
+                // Nothing was started; fall back to starting the process here.
+            }
+        }
+        return spec.toProcessBuilder().start();
+    }
+
+    /**
+     * Returns the running helper, starting it if needed. Launches made while another thread is
+     * starting the helper do not wait for it and are started in-process.
+     */
+    private static SpawnerClient helper() {
+        synchronized (ProcessSpawner.class) {
+            if (client != null && client.isOpen()) {
+                return client;
+            }
+            closeClient();
+            if (starting || failed && System.nanoTime() - retryAt < 0) {
+                return null;
+            }
+            starting = true;
+        }
+
+        SpawnerClient started = null;
+        try {
+            started = SpawnerClient.start();
+        } catch (IOException e) {
+            // Retried after RETRY_DELAY; until then processes are started in-process.
+        }
+
+        synchronized (ProcessSpawner.class) {
+            starting = false;
+            if (started == null) {
+                failed = true;
+                retryAt = System.nanoTime() + RETRY_DELAY.toNanos();
+                return null;
+            }
+            failed = false;
+            client = started;
+            if (!helperEnabled) {
+                // Disabled while the helper was starting.
+                closeClient();
+            }
+            return client;
+        }
+    }
+
+    private static void closeClient() {
+        if (client != null) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // The helper exits on its own once the connection is gone.
+            }
+            client = null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rentoki.desktopactions;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A process started by the {@link SpawnerHelper} rather than by this JVM.
+ *
+ * <p>Its exit value is reported by the helper. Its streams are never pipes, so the stream methods
+ * return empty streams, as for a redirected {@link java.lang.ProcessBuilder} process. If the helper
+ * goes away before the process exits, the exit is observed through its {@link ProcessHandle} and
+ * the exit value is {@code -1}.
+ */
+final class RemoteProcess extends Process {
+    static final int UNKNOWN_EXIT_VALUE = -1;
+
+    private final long pid;
+    private final CompletableFuture<Integer> exit = new CompletableFuture<>();
+
+    RemoteProcess(long pid) {
+        this.pid = pid;
+    }
+
+    void exited(int exitValue) {
+        exit.complete(exitValue);
+    }
+
+    /**
+     * Falls back to watching the process itself once the helper can no longer report its exit.
+     */
+    void orphaned() {
+        ProcessHandle.of(pid)
+                .map(ProcessHandle::onExit)
+                .orElseGet(() -> CompletableFuture.completedFuture(null))
+                .thenRun(() -> exited(UNKNOWN_EXIT_VALUE));
+    }
+
+    @Override
+    public long pid() {
+        return pid;
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return OutputStream.nullOutputStream();
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public InputStream getErrorStream() {
+        return InputStream.nullInputStream();
+    }
+
+    @Override
+    public int waitFor() throws InterruptedException {
+        try {
+            return exit.get();
+        } catch (ExecutionException e) {
+            return UNKNOWN_EXIT_VALUE;
+        }
+    }
+
+    @Override
+    public boolean waitFor(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            exit.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public int exitValue() {
+        if (!exit.isDone()) {
+            throw new IllegalThreadStateException("process hasn't exited");
+        }
+        return exit.join();
+    }
+
+    @Override
+    public boolean isAlive() {
+        return !exit.isDone();
+    }
+
+    @Override
+    public CompletableFuture<Process> onExit() {
+        return exit.thenApply(exitValue -> this);
+    }
+
+    @Override
+    public ProcessHandle toHandle() {
+        return ProcessHandle.of(pid).orElseThrow(() -> new IllegalStateException("process " + pid + " has exited"));
+    }
+
+    @Override
+    public boolean supportsNormalTermination() {
+        return ProcessHandle.of(pid).map(ProcessHandle::supportsNormalTermination).orElse(true);
+    }
+
+    @Override
+    public void destroy() {
+        ProcessHandle.of(pid).ifPresent(ProcessHandle::destroy);
+    }
+
+    @Override
+    public Process destroyForcibly() {
+        ProcessHandle.of(pid).ifPresent(ProcessHandle::destroyForcibly);
+        return this;
+    }
+}
@@ -0,0 +1,74 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link DesktopActions#openFileLocations(Collection)}.
+ *
+ * <p>Paths are grouped by their parent directory, and each directory is revealed once with all of
+ * its files, in the order the directories first appear.
+ */
+final class RevealBatch {
+
+    private RevealBatch() {
+    }
+
+    static BatchResult<Path> run(Collection<Path> paths, DesktopBackend backend) {
+        List<Path> items = new ArrayList<>(new LinkedHashSet<>(paths));
+        Map<Path, ActionResult> results = new HashMap<>();
+
+        Map<Path, List<Path>> groups = new LinkedHashMap<>();
+        for (Path path : items) {
+            if (path == null || !Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+                results.put(path, failure(path, new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage())));
+            } else {
+                groups.computeIfAbsent(parentOf(path), parent -> new ArrayList<>()).add(path);
+            }
+        }
+
+        for (List<Path> group : groups.values()) {
+            if (backend == null) {
+                DesktopActionException unsupported = new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+                group.forEach(path -> results.put(path, failure(path, unsupported)));
+                continue;
+            }
+
+            try {
+                results.putAll(backend.openFileLocations(group).getResults());
+            } catch (RuntimeException e) {
+                group.forEach(path -> results.put(path, failure(path, failed(path, e))));
+            }
+        }
+
+        Map<Path, ActionResult> ordered = new LinkedHashMap<>();
+        for (Path path : items) {
+            ActionResult result = results.get(path);
+            ordered.put(path, result != null ? result : failure(path, failed(path, null)));
+        }
+        return BatchResult.of(ordered);
+    }
+
+    private static Path parentOf(Path path) {
+        Path parent = path.toAbsolutePath().normalize().getParent();
+        return parent != null ? parent : path.toAbsolutePath().getRoot();
+    }
+
+    private static DesktopActionException failed(Path path, Throwable cause) {
+        return new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + path, cause);
+    }
+
+    private static ActionResult failure(Path path, DesktopActionException error) {
+        return ActionResult.failure(DesktopAction.OPEN_FILE_LOCATION, String.valueOf(path), error);
+    }
+}
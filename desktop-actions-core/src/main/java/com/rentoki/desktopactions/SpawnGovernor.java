@@ -0,0 +1,248 @@
+package com.rentoki.desktopactions;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits how many processes are being started at once by {@link DesktopActions} and its backends.
+ *
+ * <p>Every process launch, whichever action it belongs to, holds a slot while it is being started.
+ * The number of slots adapts to how long launches take (AIMD): every launch that starts within the
+ * {@linkplain #setLatencyTarget(Duration) latency target} adds about one slot per full round of
+ * slots, and a launch that is slower than the target halves the slots, at most once per latency
+ * target. A loop that opens thousands of URLs therefore settles at the rate the machine
+ * can fork at, instead of saturating it.
+ *
+ * <p>Launches wait in one of two lanes. Launches are {@link SpawnPriority#INTERACTIVE} unless they
+ * run inside {@link #run(SpawnPriority, Task)} with {@link SpawnPriority#BULK}; the batch actions
+ * {@link DesktopActions#browse(java.util.Collection)} and
+ * {@link DesktopActions#openFileLocations(java.util.Collection)} are always bulk. A free slot goes
+ * to a waiting interactive launch before any bulk launch, so a user's click is not queued behind a
+ * batch job.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * SpawnGovernor.run(SpawnPriority.BULK, () -&gt; {
+ *     for (URI report : reports) {
+ *         DesktopActions.browse(report);
+ *     }
+ * });
+ * </pre>
+ */
+public final class SpawnGovernor {
+    /**
+     * The default latency target.
+     */
+    public static final Duration DEFAULT_LATENCY_TARGET = Duration.ofMillis(100);
+
+    private static final ThreadLocal<SpawnPriority> PRIORITY = ThreadLocal.withInitial(() -> SpawnPriority.INTERACTIVE);
+
+    private static final ReentrantLock LOCK = new ReentrantLock();
+    private static final Condition INTERACTIVE_TURN = LOCK.newCondition();
+    private static final Condition BULK_TURN = LOCK.newCondition();
+
+    private static int minLimit = 1;
+    private static int maxLimit = 4 * Runtime.getRuntime().availableProcessors();
+    private static double limit = Runtime.getRuntime().availableProcessors();
+    private static long latencyTargetNanos = DEFAULT_LATENCY_TARGET.toNanos();
+    private static long lastDecrease = System.nanoTime();
+    private static int inFlight;
+    private static int interactiveWaiting;
+    private static int bulkWaiting;
+
+    private SpawnGovernor() {
+    }
+
+    /**
+     * Runs a task whose process launches wait in the given lane. Launches on other threads,
+     * including tasks the task submits to executors, are not affected, except for actions of
+     * {@link DesktopActionsAsync} submitted by the task, which keep its priority.
+     *
+     * @param priority the lane for the launches of the task
+     * @param task     the task to run
+     * @param <E>      the exception the task may throw
+     * @throws E if the task throws it
+     */
+    public static <E extends Exception> void run(SpawnPriority priority, Task<E> task) throws E {
+        SpawnPriority previous = enter(priority);
+        try {
+            task.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Returns the lane that launches on the current thread wait in.
+     *
+     * @return the current priority
+     */
+    public static SpawnPriority currentPriority() {
+        return PRIORITY.get();
+    }
+
+    /**
+     * Sets the bounds of the number of launches that may be in progress at once. The current
+     * limit is moved into the new bounds.
+     *
+     * @param min the lowest limit, at least 1
+     * @param max the highest limit, at least {@code min}
+     */
+    public static void setLimits(int min, int max) {
+        if (min < 1 || max < min) {
+            throw new IllegalArgumentException("limits must satisfy 1 <= min <= max");
+        }
+        LOCK.lock();
+        try {
+            minLimit = min;
+            maxLimit = max;
+            limit = Math.max(min, Math.min(max, limit));
+            wakeWaiters();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Sets how long starting a process may take before the limit is decreased.
+     *
+     * @param target the latency target, must be positive
+     */
+    public static void setLatencyTarget(Duration target) {
+        if (target == null || target.isNegative() || target.isZero()) {
+            throw new IllegalArgumentException("latency target must be positive");
+        }
+        LOCK.lock();
+        try {
+            latencyTargetNanos = target.toNanos();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of launches currently allowed to be in progress at once.
+     *
+     * @return the current limit
+     */
+    public static int getLimit() {
+        LOCK.lock();
+        try {
+            return (int) limit;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of launches in progress.
+     *
+     * @return the number of processes being started
+     */
+    public static int getInFlight() {
+        LOCK.lock();
+        try {
+            return inFlight;
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    static SpawnPriority enter(SpawnPriority priority) {
+        SpawnPriority previous = PRIORITY.get();
+        PRIORITY.set(priority == null ? SpawnPriority.INTERACTIVE : priority);
+        return previous;
+    }
+
+    static void restore(SpawnPriority previous) {
+        PRIORITY.set(previous);
+    }
+
+    /**
+     * Waits for a slot in the lane of the current thread.
+     *
+     * @return the time the slot was taken, to be passed to {@link #release(long)}
+     */
+    static long acquire() throws IOException {
+        boolean interactive = PRIORITY.get() == SpawnPriority.INTERACTIVE;
+        LOCK.lock();
+        try {
+            if (interactive) {
+                interactiveWaiting++;
+                try {
+                    while (inFlight >= (int) limit) {
+                        INTERACTIVE_TURN.await();
+                    }
+                } finally {
+                    interactiveWaiting--;
+                }
+            } else {
+                bulkWaiting++;
+                try {
+                    while (inFlight >= (int) limit || interactiveWaiting > 0) {
+                        BULK_TURN.await();
+                    }
+                } finally {
+                    bulkWaiting--;
+                }
+            }
+            inFlight++;
+            // Bulk launches held back only by the interactive ones may go now.
+            wakeWaiters();
+            return System.nanoTime();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            wakeWaiters();
+            throw new InterruptedIOException("Interrupted while waiting to start a process");
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    /**
+     * Frees the slot taken at {@code acquired} and adapts the limit to how the launch went.
+     */
+    static void release(long acquired) {
+        long now = System.nanoTime();
+        LOCK.lock();
+        try {
+            inFlight--;
+            if (now - acquired > latencyTargetNanos) {
+                if (now - lastDecrease > latencyTargetNanos) {
+                    limit = Math.max(minLimit, limit / 2);
+                    lastDecrease = now;
+                }
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            wakeWaiters();
+        } finally {
+            LOCK.unlock();
+        }
+    }
+
+    private static void wakeWaiters() {
+        int free = (int) limit - inFlight;
+        for (int i = 0; i < free && i < interactiveWaiting; i++) {
+            INTERACTIVE_TURN.signal();
+        }
+        if (interactiveWaiting == 0) {
+            for (int i = 0; i < free && i < bulkWaiting; i++) {
+                BULK_TURN.signal();
+            }
+        }
+    }
+
+    /**
+     * A task run by {@link #run(SpawnPriority, Task)}.
+     *
+     * @param <E> the exception the task may throw
+     */
+    @FunctionalInterface
+    public interface Task<E extends Exception> {
+        void run() throws E;
+    }
+}
@@ -0,0 +1,13 @@
+package com.rentoki.desktopactions;
+
+/**
+ * The lane a process launch waits in when the {@link SpawnGovernor} is at its limit.
+ *
+ * <p>Waiting {@link #INTERACTIVE} launches always go ahead of waiting {@link #BULK} launches.
+ *
+ * @author Rentoki
+ */
+public enum SpawnPriority {
+    INTERACTIVE,
+    BULK
+}
@@ -0,0 +1,181 @@
+package com.rentoki.desktopactions;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The messages exchanged between {@link SpawnerClient} and {@link SpawnerHelper}.
+ *
+ * <p>A launch request is an id followed by the command, the environment changes, the optional
+ * working directory and the three redirects of a {@link LaunchSpec}. The helper answers every
+ * request with {@link #STARTED} and the pid, or {@link #FAILED} and a message, and later sends
+ * {@link #EXITED} with the exit value of every process it started. Strings are length-prefixed
+ * UTF-8, so arguments are not limited to the 64 KB of {@link DataOutputStream#writeUTF(String)}.
+ */
+final class SpawnProtocol {
+    static final byte STARTED = 1;
+    static final byte FAILED = 2;
+    static final byte EXITED = 3;
+
+    private SpawnProtocol() {
+    }
+
+    /**
+     * Returns whether a spec can be launched by the helper. Pipes would connect the process to the
+     * helper rather than to this JVM, so specs with a {@link Redirect#PIPE} are started in-process.
+     * So are specs that inherit standard input, since the helper reads from the null device.
+     */
+    static boolean isSupported(LaunchSpec spec) {
+        return spec.getInput() != Redirect.PIPE
+                && spec.getInput() != Redirect.INHERIT
+                && spec.getOutput() != Redirect.PIPE
+                && spec.getError() != Redirect.PIPE;
+    }
+
+    /**
+     * Returns an input stream reading from the channel. Unlike {@link java.nio.channels.Channels}
+     * streams, reading does not hold the blocking lock of the channel, so replies can be written
+     * while another thread waits for a request.
+     */
+    static DataInputStream input(SocketChannel channel) {
+        return new DataInputStream(new BufferedInputStream(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                byte[] b = new byte[1];
+                return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return channel.read(ByteBuffer.wrap(b, off, len));
+            }
+        }));
+    }
+
+    /**
+     * Returns an output stream writing to the channel; see {@link #input(SocketChannel)}.
+     */
+    static DataOutputStream output(SocketChannel channel) {
+        return new DataOutputStream(new BufferedOutputStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                ByteBuffer buffer = ByteBuffer.wrap(b, off, len);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }));
+    }
+
+    static void writeRequest(DataOutputStream out, int id, LaunchSpec spec) throws IOException {
+        out.writeInt(id);
+        out.writeInt(spec.getCommand().size());
+        for (String argument : spec.getCommand()) {
+            writeString(out, argument);
+        }
+        out.writeInt(spec.getEnvironment().size());
+        for (Map.Entry<String, String> variable : spec.getEnvironment().entrySet()) {
+            writeString(out, variable.getKey());
+            out.writeBoolean(variable.getValue() != null);
+            if (variable.getValue() != null) {
+                writeString(out, variable.getValue());
+            }
+        }
+        out.writeBoolean(spec.getWorkingDirectory().isPresent());
+        if (spec.getWorkingDirectory().isPresent()) {
+            writeString(out, spec.getWorkingDirectory().get().toString());
+        }
+        writeRedirect(out, spec.getInput());
+        writeRedirect(out, spec.getOutput());
+        writeRedirect(out, spec.getError());
+    }
+
+    /**
+     * Reads a launch request written by {@link #writeRequest} into a process builder.
+     */
+    static ProcessBuilder readRequest(DataInputStream in) throws IOException {
+        int arguments = in.readInt();
+        List<String> command = new ArrayList<>(arguments);
+        for (int i = 0; i < arguments; i++) {
+            command.add(readString(in));
+        }
+        int variables = in.readInt();
+        Map<String, String> environment = new LinkedHashMap<>();
+        for (int i = 0; i < variables; i++) {
+            String name = readString(in);
+            environment.put(name, in.readBoolean() ? readString(in) : null);
+        }
+        File directory = in.readBoolean() ? new File(readString(in)) : null;
+        Redirect input = readRedirect(in);
+        Redirect output = readRedirect(in);
+        Redirect error = readRedirect(in);
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        if (directory != null) {
+            builder.directory(directory);
+        }
+        Map<String, String> env = builder.environment();
+        environment.forEach((name, value) -> {
+            if (value == null) {
+                env.remove(name);
+            } else {
+                env.put(name, value);
+            }
+        });
+        return builder.redirectInput(input).redirectOutput(output).redirectError(error);
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative string length " + length);
+        }
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private static void writeRedirect(DataOutputStream out, Redirect redirect) throws IOException {
+        out.writeByte(redirect.type().ordinal());
+        if (redirect.file() != null) {
+            writeString(out, redirect.file().getPath());
+        }
+    }
+
+    private static Redirect readRedirect(DataInputStream in) throws IOException {
+        int type = in.readByte();
+        if (type == Redirect.Type.INHERIT.ordinal()) {
+            return Redirect.INHERIT;
+        } else if (type == Redirect.Type.READ.ordinal()) {
+            return Redirect.from(new File(readString(in)));
+        } else if (type == Redirect.Type.WRITE.ordinal()) {
+            return Redirect.to(new File(readString(in)));
+        } else if (type == Redirect.Type.APPEND.ordinal()) {
+            return Redirect.appendTo(new File(readString(in)));
+        }
+        throw new IOException("Unsupported redirect type " + type);
+    }
+}
@@ -0,0 +1,245 @@
+package com.rentoki.desktopactions;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serial;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.StandardProtocolFamily;
+import java.net.URISyntaxException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.CodeSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection to a {@link SpawnerHelper} started by this JVM.
+ *
+ * <p>The helper runs with a small heap, so starting a process there does not fork the mappings of
+ * this JVM. A virtual thread reads the replies of the helper and hands each to the launch waiting
+ * for it, so launches from many threads can be in flight at once.
+ */
+final class SpawnerClient implements Closeable {
+    static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration LAUNCH_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final List<String> HELPER_OPTIONS = List.of(
+            "-Xmx16m", "-Xss256k", "-XX:+UseSerialGC", "-XX:TieredStopAtLevel=1", "-Xshare:auto");
+
+    private final Process helper;
+    private final SocketChannel channel;
+    private final DataOutputStream out;
+    private final AtomicInteger ids = new AtomicInteger();
+    private final Map<Integer, CompletableFuture<RemoteProcess>> starting = new ConcurrentHashMap<>();
+    private final Map<Integer, RemoteProcess> running = new ConcurrentHashMap<>();
+    private volatile boolean open = true;
+
+    private SpawnerClient(Process helper, SocketChannel channel) {
+        this.helper = helper;
+        this.channel = channel;
+        this.out = SpawnProtocol.output(channel);
+    }
+
+    /**
+     * Starts a helper JVM and connects to it.
+     *
+     * @throws IOException if the helper cannot be started or does not listen in time
+     */
+    static SpawnerClient start() throws IOException {
+        Path directory = Files.createTempDirectory("desktop-actions-spawner");
+        Path socket = directory.resolve("spawner.sock");
+        Process helper = LaunchSpec.builder(helperCommand(socket))
+                .output(Redirect.INHERIT)
+                .error(Redirect.INHERIT)
+                .build()
+                .toProcessBuilder()
+                .start();
+        try {
+            SocketChannel channel = connect(helper, socket);
+            SpawnerClient client = new SpawnerClient(helper, channel);
+            Thread.ofVirtual().name("desktop-actions-spawner").start(client::readLoop);
+            return client;
+        } catch (IOException | RuntimeException e) {
+            helper.destroyForcibly();
+            throw e;
+        } finally {
+            Files.deleteIfExists(socket);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static List<String> helperCommand(Path socket) throws IOException {
+        String java = ProcessHandle.current().info().command()
+                .orElseThrow(() -> new IOException("Cannot determine the java executable"));
+        CodeSource source = SpawnerHelper.class.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null) {
+            throw new IOException("Cannot determine the location of " + SpawnerHelper.class.getName());
+        }
+
+        String classPath;
+        try {
+            classPath = Path.of(source.getLocation().toURI()).toString();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Cannot use " + source.getLocation() + " as class path", e);
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(HELPER_OPTIONS);
+        command.add("-cp");
+        command.add(classPath);
+        command.add(SpawnerHelper.class.getName());
+        command.add(socket.toString());
+        return command;
+    }
+
+    private static SocketChannel connect(Process helper, Path socket) throws IOException {
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (true) {
+            SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+            try {
+                channel.connect(UnixDomainSocketAddress.of(socket));
+                return channel;
+            } catch (IOException e) {
+                channel.close();
+                if (!helper.isAlive()) {
+                    throw new IOException("Spawner helper exited with " + helper.exitValue(), e);
+                }
+                if (System.nanoTime() > deadline) {
+                    throw new IOException("Spawner helper did not listen within " + STARTUP_TIMEOUT, e);
+                }
+            }
+
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while starting the spawner helper");
+            }
+        }
+    }
+
+    /**
+     * Asks the helper to start the process described by the spec.
+     *
+     * @throws UnavailableException if the helper cannot be reached, in which case the process was
+     *                              not started and may be started in-process instead
+     * @throws IOException          if the helper could not start the process
+     */
+    Process spawn(LaunchSpec spec) throws IOException {
+        int id = ids.incrementAndGet();
+        CompletableFuture<RemoteProcess> started = new CompletableFuture<>();
+        starting.put(id, started);
+        if (!open) {
+            starting.remove(id);
+            throw new UnavailableException("Spawner helper connection closed");
+        }
+
+        try {
+            synchronized (out) {
+                SpawnProtocol.writeRequest(out, id, spec);
+                out.flush();
+            }
+        } catch (IOException e) {
+            starting.remove(id);
+            close();
+            throw new UnavailableException("Cannot reach the spawner helper", e);
+        }
+
+        try {
+            return started.get(LAUNCH_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("Spawner helper did not start " + spec + " within " + LAUNCH_TIMEOUT, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while starting " + spec);
+        } finally {
+            starting.remove(id);
+        }
+    }
+
+    boolean isOpen() {
+        return open && helper.isAlive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        channel.close();
+        failPending();
+    }
+
+    private void readLoop() {
+        try (DataInputStream in = SpawnProtocol.input(channel)) {
+            while (true) {
+                byte kind = in.readByte();
+                int id = in.readInt();
+                if (kind == SpawnProtocol.STARTED) {
+                    RemoteProcess process = new RemoteProcess(in.readLong());
+                    running.put(id, process);
+                    CompletableFuture<RemoteProcess> started = starting.remove(id);
+                    if (started != null) {
+                        started.complete(process);
+                    }
+                } else if (kind == SpawnProtocol.FAILED) {
+                    String message = SpawnProtocol.readString(in);
+                    CompletableFuture<RemoteProcess> started = starting.remove(id);
+                    if (started != null) {
+                        started.completeExceptionally(new IOException(message));
+                    }
+                } else if (kind == SpawnProtocol.EXITED) {
+                    int exitValue = in.readInt();
+                    RemoteProcess process = running.remove(id);
+                    if (process != null) {
+                        process.exited(exitValue);
+                    }
+                } else {
+                    throw new IOException("Unknown spawner message " + kind);
+                }
+            }
+        } catch (IOException e) {
+            open = false;
+            failPending();
+        }
+    }
+
+    private void failPending() {
+        // The helper may have started these before it went away, so they must not be retried in-process.
+        IOException closed = new IOException("Spawner helper connection closed while starting a process");
+        starting.values().forEach(started -> started.completeExceptionally(closed));
+        starting.clear();
+        running.values().forEach(RemoteProcess::orphaned);
+        running.clear();
+    }
+
+    /**
+     * Signals that the helper cannot be reached, as opposed to the helper failing to start a process.
+     */
+    static final class UnavailableException extends IOException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        UnavailableException(String message) {
+            super(message);
+        }
+
+        UnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.rentoki.desktopactions;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Entry point of the small JVM that starts processes on behalf of {@link SpawnerClient}.
+ *
+ * <p>The helper listens on the Unix domain socket given as its only argument, accepts a single
+ * connection and removes the socket. It then starts the requested processes until the connection
+ * closes, which happens at the latest when the JVM that started it exits. Processes the helper
+ * started keep running after it exits.
+ */
+final class SpawnerHelper {
+    private SpawnerHelper() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path socket = Path.of(args[0]);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            try (SocketChannel channel = server.accept()) {
+                Files.deleteIfExists(socket);
+                serve(SpawnProtocol.input(channel), SpawnProtocol.output(channel));
+            }
+        }
+    }
+
+    private static void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            int id;
+            try {
+                id = in.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+
+            ProcessBuilder builder = SpawnProtocol.readRequest(in);
+            Process process;
+            try {
+                process = builder.start();
+            } catch (IOException | RuntimeException e) {
+                synchronized (out) {
+                    out.writeByte(SpawnProtocol.FAILED);
+                    out.writeInt(id);
+                    SpawnProtocol.writeString(out, String.valueOf(e.getMessage()));
+                    out.flush();
+                }
+                continue;
+            }
+
+            synchronized (out) {
+                out.writeByte(SpawnProtocol.STARTED);
+                out.writeInt(id);
+                out.writeLong(process.pid());
+                out.flush();
+            }
+            process.onExit().thenAccept(exited -> {
+                try {
+                    synchronized (out) {
+                        out.writeByte(SpawnProtocol.EXITED);
+                        out.writeInt(id);
+                        out.writeInt(exited.exitValue());
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    // The client has gone; nobody is left to tell.
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Implementation of {@link DesktopActions#moveToTrash(Collection)}.
+ *
+ * <p>All paths are checked concurrently, one virtual thread per path, and grouped by the file
+ * store of the directory they are in, which is where a move to the trash renames them from. A
+ * symlink is grouped by where the link lives, not by its target. Each group is then handed to the
+ * backend in a single call, with groups on different file stores running concurrently. A path
+ * whose file store cannot be determined is handed to the backend on its own.
+ */
+final class TrashBatch {
+
+    private TrashBatch() {
+    }
+
+    static BatchResult<Path> run(Collection<Path> paths, DesktopBackend backend) {
+        List<Path> items = new ArrayList<>(new LinkedHashSet<>(paths));
+        Map<Path, ActionResult> results = new HashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Preflight>> checks = new ArrayList<>(items.size());
+            for (Path path : items) {
+                checks.add(executor.submit(() -> preflight(path)));
+            }
+
+            Map<Object, List<Path>> groups = new LinkedHashMap<>();
+            for (int i = 0; i < checks.size(); i++) {
+                Preflight check = await(checks.get(i), items.get(i));
+                if (check.error() != null) {
+                    results.put(check.path(), failure(check.path(), check.error()));
+                } else {
+                    // Paths are unique here, so a path without a known store gets a group of its own.
+                    Object group = check.store() != null ? check.store() : check.path();
+                    groups.computeIfAbsent(group, key -> new ArrayList<>()).add(check.path());
+                }
+            }
+
+            Map<List<Path>, Future<BatchResult<Path>>> moves = new LinkedHashMap<>();
+            for (List<Path> group : groups.values()) {
+                if (backend == null) {
+                    DesktopActionException unsupported = new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+                    group.forEach(path -> results.put(path, failure(path, unsupported)));
+                } else {
+                    moves.put(group, executor.submit(() -> backend.moveToTrash(group)));
+                }
+            }
+
+            moves.forEach((group, move) -> results.putAll(await(move, group)));
+        }
+
+        Map<Path, ActionResult> ordered = new LinkedHashMap<>();
+        for (Path path : items) {
+            ActionResult result = results.get(path);
+            ordered.put(path, result != null ? result : failure(path, failed(path, null)));
+        }
+        return BatchResult.of(ordered);
+    }
+
+    private static Preflight preflight(Path path) {
+        if (path == null) {
+            return new Preflight(null, null, new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage()));
+        }
+
+        try {
+            Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            return new Preflight(path, null, new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage(), e));
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        try {
+            return new Preflight(path, Files.getFileStore(parent != null ? parent : path), null);
+        } catch (IOException e) {
+            return new Preflight(path, null, null);
+        }
+    }
+
+    private static Preflight await(Future<Preflight> check, Path path) {
+        try {
+            return check.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Preflight(path, null, failed(path, e));
+        } catch (ExecutionException e) {
+            return new Preflight(path, null, failed(path, e.getCause()));
+        }
+    }
+
+    private static Map<Path, ActionResult> await(Future<BatchResult<Path>> move, List<Path> group) {
+        try {
+            return move.get().getResults();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failAll(group, e);
+        } catch (ExecutionException e) {
+            return failAll(group, e.getCause());
+        }
+    }
+
+    private static Map<Path, ActionResult> failAll(List<Path> group, Throwable cause) {
+        Map<Path, ActionResult> failures = new HashMap<>();
+        group.forEach(path -> failures.put(path, failure(path, failed(path, cause))));
+        return failures;
+    }
+
+    private static DesktopActionException failed(Path path, Throwable cause) {
+        return new DesktopActionException(ErrorMessage.MOVE_TO_TRASH_FAILED.getMessage() + path, cause);
+    }
+
+    private static ActionResult failure(Path path, DesktopActionException error) {
+        return ActionResult.failure(DesktopAction.MOVE_TO_TRASH, String.valueOf(path), error);
+    }
+
+    private record Preflight(Path path, FileStore store, DesktopActionException error) {
+    }
+}
@@ -0,0 +1,250 @@
+package com.rentoki.desktopactions.spi;
+
+import com.rentoki.desktopactions.ActionResult;
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Service provider interface for the platform integration behind
+ * {@link com.rentoki.desktopactions.DesktopActions}.
+ *
+ * <p>Backends are discovered with {@link java.util.ServiceLoader} and ranked by their
+ * {@link #latency()}. For every {@link DesktopAction}, the first backend that is
+ * {@linkplain #isAvailable() available} and {@linkplain #supports(DesktopAction) supports}
+ * the action handles it. Argument validation happens before a backend is called, so
+ * implementations only receive non-null, existing files.
+ *
+ * <p>Implementations must have a public no-argument constructor that does no work. Probing
+ * belongs in {@link #isAvailable()}, which is called lazily and at most once per capability
+ * snapshot.
+ *
+ * @author Rentoki
+ * @see com.rentoki.desktopactions.DesktopBackends
+ */
+public interface DesktopBackend {
+
+    /**
+     * Expected latency class of a backend, fastest first.
+     */
+    enum Latency {
+        /**
+         * Runs in-process or talks to a desktop service over native IPC such as D-Bus.
+         */
+        NATIVE,
+        /**
+         * Spawns the resolved handler process directly.
+         */
+        EXEC,
+        /**
+         * Goes through the AWT toolkit, which may spawn helper processes of its own.
+         */
+        TOOLKIT
+    }
+
+    /**
+     * Returns a short, human-readable name of this backend.
+     *
+     * @return the backend name
+     */
+    String name();
+
+    /**
+     * Returns the expected latency class of this backend, used to rank it against other backends.
+     *
+     * @return the latency class
+     */
+    Latency latency();
+
+    /**
+     * Returns whether this backend can be used in the current environment.
+     *
+     * @return {@code true} if this backend is usable
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns whether this backend implements the given action. Only called when the backend is available.
+     *
+     * @param action the action to check
+     * @return {@code true} if the action is supported
+     */
+    boolean supports(DesktopAction action);
+
+    /**
+     * Discards any state this backend has probed, so that it is probed again on next use.
+     */
+    default void refresh() {
+    }
+
+    /**
+     * Opens the URI in the default web browser.
+     *
+     * @param uri the URI to open
+     * @throws DesktopActionException if the URI cannot be opened
+     */
+    default void browse(URI uri) throws DesktopActionException {
+        throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    }
+
+    /**
+     * Opens several URIs in the default web browser.
+     *
+     * <p>The default implementation calls {@link #browse(URI)} for each URI, with at most four
+     * launches in flight at a time. Backends that can hand many URIs to one browser process should
+     * override it. Implementations report a failure per URI instead of throwing.
+     *
+     * @param uris the URIs to open, without duplicates
+     * @return the result of every URI
+     */
+    default BatchResult<URI> browse(List<URI> uris) {
+        ActionResult[] outcomes = new ActionResult[uris.size()];
+        Semaphore launches = new Semaphore(4);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < uris.size(); i++) {
+                int index = i;
+                executor.execute(() -> outcomes[index] = browseOne(uris.get(index), launches));
+            }
+        }
+
+        Map<URI, ActionResult> results = new LinkedHashMap<>();
+        for (int i = 0; i < uris.size(); i++) {
+            results.put(uris.get(i), outcomes[i]);
+        }
+        return BatchResult.of(results);
+    }
+
+    private ActionResult browseOne(URI uri, Semaphore launches) {
+        try {
+            launches.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ActionResult.failure(DesktopAction.BROWSE, uri.toString(),
+                    new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e));
+        }
+
+        try {
+            browse(uri);
+            return ActionResult.success(DesktopAction.BROWSE, uri.toString());
+        } catch (DesktopActionException e) {
+            return ActionResult.failure(DesktopAction.BROWSE, uri.toString(), e);
+        } finally {
+            launches.release();
+        }
+    }
+
+    /**
+     * Opens the directory in the system file explorer.
+     *
+     * @param directory the existing directory to open
+     * @throws DesktopActionException if the directory cannot be opened
+     */
+    default void openDirectory(File directory) throws DesktopActionException {
+        throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    }
+
+    /**
+     * Opens the system file explorer at the location of the file.
+     *
+     * <p>The default implementation opens the parent directory without highlighting the file.
+     *
+     * @param file the existing file to reveal
+     * @throws DesktopActionException if the location cannot be opened
+     */
+    default void openFileLocation(File file) throws DesktopActionException {
+        openDirectory(file.getAbsoluteFile().getParentFile());
+    }
+
+    /**
+     * Reveals several files that share one parent directory, in a single file manager window.
+     *
+     * <p>The default implementation reveals the directory once through {@link #openFileLocation(File)}
+     * with the first file, and reports that outcome for every path. Backends that can select many
+     * items at once should override it. Implementations report a failure per path instead of throwing.
+     *
+     * @param paths existing files that all live in the same directory
+     * @return the result of every path
+     */
+    default BatchResult<Path> openFileLocations(List<Path> paths) {
+        DesktopActionException error = null;
+        try {
+            openFileLocation(paths.get(0).toFile());
+        } catch (DesktopActionException e) {
+            error = e;
+        }
+
+        Map<Path, ActionResult> results = new LinkedHashMap<>();
+        for (Path path : paths) {
+            results.put(path, error == null
+                    ? ActionResult.success(DesktopAction.OPEN_FILE_LOCATION, path.toString())
+                    : ActionResult.failure(DesktopAction.OPEN_FILE_LOCATION, path.toString(), error));
+        }
+        return BatchResult.of(results);
+    }
+
+    /**
+     * Moves the file to the trash/recycle bin.
+     *
+     * @param file the existing file to move to trash
+     * @throws DesktopActionException if the file cannot be moved to trash
+     */
+    default void moveToTrash(File file) throws DesktopActionException {
+        throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    }
+
+    /**
+     * Moves several files that live on the same file system to the trash/recycle bin.
+     *
+     * <p>The default implementation calls {@link #moveToTrash(File)} for each path. Backends that
+     * can trash files in bulk should override it. Implementations report a failure per path
+     * instead of throwing.
+     *
+     * @param paths existing files that all live on the same file system
+     * @return the result of every path
+     */
+    default BatchResult<Path> moveToTrash(List<Path> paths) {
+        Map<Path, ActionResult> results = new LinkedHashMap<>();
+        for (Path path : paths) {
+            try {
+                moveToTrash(path.toFile());
+                results.put(path, ActionResult.success(DesktopAction.MOVE_TO_TRASH, path.toString()));
+            } catch (DesktopActionException e) {
+                results.put(path, ActionResult.failure(DesktopAction.MOVE_TO_TRASH, path.toString(), e));
+            }
+        }
+        return BatchResult.of(results);
+    }
+
+    /**
+     * Creates a shortcut to the target at the given link path.
+     *
+     * @param targetPath the file, application or directory the shortcut points to
+     * @param linkPath   the path of the shortcut to create
+     * @throws DesktopActionException if the shortcut cannot be created
+     */
+    default void createShortcut(String targetPath, String linkPath) throws DesktopActionException {
+        throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    }
+
+    /**
+     * Starts the application described by a desktop entry, passing it the targets.
+     *
+     * @param desktopEntryId the id of the desktop entry, such as {@code org.gnome.gedit.desktop}
+     * @param targets        the files or URIs to open with the application, possibly empty
+     * @throws DesktopActionException if the entry is not installed or the application cannot be started
+     */
+    default void launchApplication(String desktopEntryId, List<URI> targets) throws DesktopActionException {
+        throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage());
+    }
+}
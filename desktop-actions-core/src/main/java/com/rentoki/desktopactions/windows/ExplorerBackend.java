@@ -0,0 +1,49 @@
+package com.rentoki.desktopactions.windows;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.LaunchSpec;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link DesktopBackend} that reveals files with the Windows "explorer /select," command.
+ *
+ * @author Rentoki
+ */
+public final class ExplorerBackend implements DesktopBackend {
+
+    @Override
+    public String name() {
+        return "explorer";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.EXEC;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return PlatformCapabilities.current().isWindows();
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return action == DesktopAction.OPEN_FILE_LOCATION;
+    }
+
+    @Override
+    public void openFileLocation(File file) throws DesktopActionException {
+        try {
+            LaunchSpec.builder(List.of("explorer", "/select,", file.getAbsolutePath())).build().start();
+        } catch (IOException e) {
+            throw new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + file.getAbsolutePath(), e);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+module DesktopActions {
+    exports com.rentoki.desktopactions;
+    exports com.rentoki.desktopactions.spi;
+
+    uses com.rentoki.desktopactions.spi.DesktopBackend;
+
+    provides com.rentoki.desktopactions.spi.DesktopBackend with
+            com.rentoki.desktopactions.windows.ExplorerBackend;
+}
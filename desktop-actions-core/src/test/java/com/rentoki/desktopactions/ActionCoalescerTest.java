@@ -0,0 +1,171 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ActionCoalescerTest {
+    @TempDir
+    Path tempDir;
+
+    private CountingBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new CountingBackend();
+        DesktopBackends.use(backend);
+        ActionCoalescer.setEnabled(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ActionCoalescer.setEnabled(false);
+        ActionCoalescer.setWindow(ActionCoalescer.DEFAULT_WINDOW);
+        DesktopBackends.reset();
+    }
+
+    @Test
+    void browse_WithConcurrentDuplicates_ShouldRunOnce() throws Exception {
+        backend.gate = new CountDownLatch(1);
+        URI uri = URI.create("https://www.example.com/a/../index.html");
+
+        List<CompletableFuture<ActionResult>> results = new ArrayList<>();
+        results.add(DesktopActionsAsync.browse(uri));
+        results.add(DesktopActionsAsync.browse(URI.create("HTTPS://WWW.EXAMPLE.COM/index.html")));
+        results.add(DesktopActionsAsync.browse(uri));
+        assertTrue(backend.entered.await(10, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        backend.gate.countDown();
+
+        for (CompletableFuture<ActionResult> result : results) {
+            assertTrue(result.get(10, TimeUnit.SECONDS).isSuccess());
+        }
+        assertEquals(1, backend.browses.get());
+    }
+
+    @Test
+    void browse_WithinWindow_ShouldSuppressRepeat() throws Exception {
+        ActionCoalescer.setWindow(Duration.ofMinutes(1));
+        URI uri = URI.create("https://www.example.com");
+
+        DesktopActions.browse(uri);
+        DesktopActions.browse(uri);
+
+        assertEquals(1, backend.browses.get());
+    }
+
+    @Test
+    void browse_AfterWindow_ShouldRunAgain() throws Exception {
+        ActionCoalescer.setWindow(Duration.ofMillis(20));
+        URI uri = URI.create("https://www.example.com");
+
+        DesktopActions.browse(uri);
+        Thread.sleep(200);
+        DesktopActions.browse(uri);
+
+        assertEquals(2, backend.browses.get());
+    }
+
+    @Test
+    void browse_AfterFailure_ShouldRunAgain() throws Exception {
+        ActionCoalescer.setWindow(Duration.ofMinutes(1));
+        URI uri = URI.create("https://www.example.com");
+        backend.failing = true;
+
+        assertThrows(DesktopActionException.class, () -> DesktopActions.browse(uri));
+        backend.failing = false;
+        DesktopActions.browse(uri);
+
+        assertEquals(2, backend.browses.get());
+    }
+
+    @Test
+    void openFileDirectory_WithEquivalentPaths_ShouldBeCoalesced() throws Exception {
+        ActionCoalescer.setWindow(Duration.ofMinutes(1));
+
+        DesktopActions.openFileDirectory(tempDir.toFile());
+        DesktopActions.openFileDirectory(new File(tempDir.toFile(), "."));
+
+        assertEquals(1, backend.directories.get());
+    }
+
+    @Test
+    void browse_WhenDisabled_ShouldNotCoalesce() throws Exception {
+        ActionCoalescer.setEnabled(false);
+        URI uri = URI.create("https://www.example.com");
+
+        DesktopActions.browse(uri);
+        DesktopActions.browse(uri);
+
+        assertEquals(2, backend.browses.get());
+    }
+
+    @Test
+    void setWindow_WithNegativeDuration_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ActionCoalescer.setWindow(Duration.ofMillis(-1)));
+    }
+
+    private static final class CountingBackend implements DesktopBackend {
+        final AtomicInteger browses = new AtomicInteger();
+        final AtomicInteger directories = new AtomicInteger();
+        final CountDownLatch entered = new CountDownLatch(1);
+        volatile CountDownLatch gate;
+        volatile boolean failing;
+
+        @Override
+        public String name() {
+            return "counting";
+        }
+
+        @Override
+        public Latency latency() {
+            return Latency.NATIVE;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(DesktopAction action) {
+            return action == DesktopAction.BROWSE || action == DesktopAction.OPEN_FILE_DIRECTORY;
+        }
+
+        @Override
+        public void browse(URI uri) throws DesktopActionException {
+            browses.incrementAndGet();
+            entered.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage());
+            }
+        }
+
+        @Override
+        public void openDirectory(File directory) {
+            directories.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BrowseBatchTest {
+
+    @AfterEach
+    void tearDown() {
+        DesktopBackends.reset();
+    }
+
+    @Test
+    void browse_WithDefaultBatchImplementation_ShouldOpenEveryUriWithBoundedParallelism() throws Exception {
+        SingleUriBackend backend = new SingleUriBackend();
+        DesktopBackends.use(backend);
+        List<URI> uris = uris(20);
+
+        BatchResult<URI> result = DesktopActions.browse(uris);
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(uris, result.getSucceeded());
+        assertEquals(Set.copyOf(uris), Set.copyOf(backend.opened));
+        assertTrue(backend.maxInFlight.get() <= 4, "At most four launches in flight");
+    }
+
+    @Test
+    void browse_WhenSomeUrisFail_ShouldContinueWithTheRest() throws Exception {
+        SingleUriBackend backend = new SingleUriBackend();
+        DesktopBackends.use(backend);
+        List<URI> uris = uris(3);
+        backend.failing.add(uris.get(1));
+
+        BatchResult<URI> result = DesktopActions.browse(uris);
+
+        assertEquals(List.of(uris.get(0), uris.get(2)), result.getSucceeded());
+        assertEquals(Set.of(uris.get(1)), result.getFailed().keySet());
+    }
+
+    @Test
+    void browse_WithBulkBackend_ShouldHandAllUrisOverInOneCall() throws Exception {
+        BulkBackend backend = new BulkBackend();
+        DesktopBackends.use(backend);
+        List<URI> uris = uris(3);
+
+        BatchResult<URI> result = DesktopActions.browse(Arrays.asList(uris.get(0), null, uris.get(1), uris.get(0), uris.get(2)));
+
+        assertEquals(List.of(uris), backend.batches);
+        assertEquals(Arrays.asList(uris.get(0), null, uris.get(1), uris.get(2)), new ArrayList<>(result.getResults().keySet()));
+        assertEquals(ErrorMessage.URL_IS_NULL.getMessage(), result.getFailed().get(null).getMessage());
+    }
+
+    @Test
+    void browse_WithoutBackend_ShouldFailEveryItem() throws Exception {
+        DesktopBackends.use();
+
+        BatchResult<URI> result = DesktopActions.browse(uris(2));
+
+        assertEquals(2, result.getFailed().size());
+        result.getFailed().values().forEach(error ->
+                assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), error.getMessage()));
+    }
+
+    @Test
+    void browse_WithNullCollection_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.browse((Collection<URI>) null)
+        );
+        assertEquals(ErrorMessage.URIS_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    private static List<URI> uris(int count) {
+        List<URI> uris = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            uris.add(URI.create("https://example.com/" + i));
+        }
+        return uris;
+    }
+
+    private static class SingleUriBackend implements DesktopBackend {
+        final List<URI> opened = Collections.synchronizedList(new ArrayList<>());
+        final Set<URI> failing = ConcurrentHashMap.newKeySet();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        @Override
+        public String name() {
+            return "single";
+        }
+
+        @Override
+        public Latency latency() {
+            return Latency.NATIVE;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(DesktopAction action) {
+            return action == DesktopAction.BROWSE;
+        }
+
+        @Override
+        public void browse(URI uri) throws DesktopActionException {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(10);
+                if (failing.contains(uri)) {
+                    throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage());
+                }
+                opened.add(uri);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    private static final class BulkBackend extends SingleUriBackend {
+        private final List<List<URI>> batches = new ArrayList<>();
+
+        @Override
+        public BatchResult<URI> browse(List<URI> uris) {
+            batches.add(List.copyOf(uris));
+            return super.browse(uris);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.rentoki.desktopactions;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LaunchSpecTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void build_WithDefaults_ShouldDiscardOutputAndReadNullDevice() {
+        LaunchSpec spec = LaunchSpec.builder("app").build();
+
+        assertEquals(List.of("app"), spec.getCommand());
+        assertEquals(Redirect.DISCARD, spec.getOutput());
+        assertEquals(Redirect.DISCARD, spec.getError());
+        assertEquals(Redirect.Type.READ, spec.getInput().type());
+        assertTrue(spec.getWorkingDirectory().isEmpty());
+        assertTrue(spec.getEnvironment().isEmpty());
+    }
+
+    @Test
+    void toProcessBuilder_ShouldApplyEverySetting() {
+        File log = tempDir.resolve("app.log").toFile();
+        LaunchSpec spec = LaunchSpec.builder("app")
+                .argument("--verbose")
+                .arguments("a", "b")
+                .environment("APP_MODE", "test")
+                .environment("PATH", null)
+                .workingDirectory(tempDir)
+                .output(Redirect.appendTo(log))
+                .error(Redirect.INHERIT)
+                .build();
+
+        ProcessBuilder builder = spec.toProcessBuilder();
+
+        assertEquals(List.of("app", "--verbose", "a", "b"), builder.command());
+        assertEquals("test", builder.environment().get("APP_MODE"));
+        assertFalse(builder.environment().containsKey("PATH"));
+        assertEquals(tempDir.toFile(), builder.directory());
+        assertEquals(Redirect.appendTo(log), builder.redirectOutput());
+        assertEquals(Redirect.INHERIT, builder.redirectError());
+        assertEquals(spec.getInput(), builder.redirectInput());
+    }
+
+    @Test
+    void builder_WithEmptyExecutable_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> LaunchSpec.builder(" "));
+        assertThrows(IllegalArgumentException.class, () -> LaunchSpec.builder(List.of()));
+    }
+
+    @Test
+    void builder_WithRedirectInWrongDirection_ShouldThrowIllegalArgumentException() {
+        File file = tempDir.resolve("file").toFile();
+
+        assertThrows(IllegalArgumentException.class, () -> LaunchSpec.builder("app").input(Redirect.to(file)));
+        assertThrows(IllegalArgumentException.class, () -> LaunchSpec.builder("app").output(Redirect.from(file)));
+        assertThrows(IllegalArgumentException.class, () -> LaunchSpec.builder("app").error(null));
+    }
+
+    @Test
+    void start_WithChattyProcess_ShouldNotBlockOnFullPipe() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+
+        Process process = LaunchSpec.builder(List.of("/bin/sh", "-c", "head -c 1000000 /dev/zero; cat"))
+                .build()
+                .toProcessBuilder()
+                .start();
+
+        assertTrue(process.waitFor(10, TimeUnit.SECONDS), "process blocked on its output");
+        assertEquals(0, process.exitValue());
+    }
+}
@@ -0,0 +1,70 @@
+package com.rentoki.desktopactions;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LaunchedProcessesTest {
+    @Test
+    void open_ShouldTrackProcessUntilItExits() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        long exited = LaunchedProcesses.getExitedCount();
+
+        LaunchedProcess process = DesktopActions.launch(LaunchSpec.builder(List.of("/bin/sh", "-c", "read line")).build());
+
+        assertTrue(process.isAlive());
+        assertTrue(LaunchedProcesses.running().contains(process));
+        assertTrue(process.exitValue().isEmpty());
+
+        process.destroy();
+        process.onExit().get(10, TimeUnit.SECONDS);
+
+        assertFalse(process.isAlive());
+        assertTrue(process.exitValue().isPresent());
+        assertFalse(LaunchedProcesses.running().contains(process));
+        assertTrue(LaunchedProcesses.getExitedCount() > exited);
+    }
+
+    @Test
+    void open_WithNonZeroExit_ShouldCountAsFailed() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        long failed = LaunchedProcesses.getFailedCount();
+
+        LaunchedProcess process = DesktopActions.launch(LaunchSpec.builder(List.of("/bin/sh", "-c", "exit 3")).build());
+        process.onExit().get(10, TimeUnit.SECONDS);
+
+        assertEquals(3, process.exitValue().getAsInt());
+        // The registry's own exit callback may run just after ours.
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (LaunchedProcesses.getFailedCount() == failed && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(LaunchedProcesses.getFailedCount() > failed);
+    }
+
+    @Test
+    void open_WithMissingExecutable_ShouldCountAsFailed() {
+        long failed = LaunchedProcesses.getFailedCount();
+
+        assertThrows(DesktopActionException.class,
+                () -> DesktopActions.launch(LaunchSpec.builder("/nonexistent/desktop-actions-test").build()));
+
+        assertTrue(LaunchedProcesses.getFailedCount() > failed);
+    }
+
+    @Test
+    void onExit_WhenCancelled_ShouldNotAffectOtherCallers() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+
+        LaunchedProcess process = DesktopActions.launch(LaunchSpec.builder(List.of("/bin/sh", "-c", "exit 0")).build());
+        process.onExit().cancel(false);
+
+        assertSame(process, process.onExit().get(10, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,192 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveToTrashBatchTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        DesktopBackends.reset();
+    }
+
+    @Test
+    void moveToTrash_WithExistingFiles_ShouldTrashAllInOneBulkCall() throws Exception {
+        RecordingBackend backend = new RecordingBackend();
+        DesktopBackends.use(backend);
+        List<Path> paths = createFiles(50);
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(paths);
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(paths, result.getSucceeded());
+        assertEquals(1, backend.batches.size());
+        assertEquals(Set.copyOf(paths), Set.copyOf(backend.batches.get(0)));
+    }
+
+    @Test
+    void moveToTrash_WithMissingAndNullEntries_ShouldReportPerItemFailures() throws Exception {
+        DesktopBackends.use(new RecordingBackend());
+        Path existing = Files.createFile(tempDir.resolve("existing.txt"));
+        Path missing = tempDir.resolve("missing.txt");
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(Arrays.asList(missing, existing, null));
+
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList(missing, existing, null), new ArrayList<>(result.getResults().keySet()));
+        assertEquals(List.of(existing), result.getSucceeded());
+        assertEquals(ErrorMessage.FILE_IS_NULL.getMessage(), result.getFailed().get(missing).getMessage());
+        assertEquals(ErrorMessage.FILE_IS_NULL.getMessage(), result.getFailed().get(null).getMessage());
+    }
+
+    @Test
+    void moveToTrash_WhenBackendFailsSomeItems_ShouldContinueWithTheRest() throws Exception {
+        RecordingBackend backend = new RecordingBackend();
+        DesktopBackends.use(backend);
+        List<Path> paths = createFiles(3);
+        backend.failing.add(paths.get(1));
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(paths);
+
+        assertFalse(result.isAllSucceeded());
+        assertEquals(List.of(paths.get(0), paths.get(2)), result.getSucceeded());
+        assertEquals(Set.of(paths.get(1)), result.getFailed().keySet());
+    }
+
+    @Test
+    void moveToTrash_WithDanglingSymlink_ShouldGroupItWithItsDirectory() throws Exception {
+        RecordingBackend backend = new RecordingBackend();
+        DesktopBackends.use(backend);
+        Path file = Files.createFile(tempDir.resolve("file.txt"));
+        Path link = Files.createSymbolicLink(tempDir.resolve("link"), tempDir.resolve("missing.txt"));
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(List.of(file, link));
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(List.of(List.of(file, link)), backend.batches);
+    }
+
+    @Test
+    void moveToTrash_WithDuplicatePaths_ShouldTrashOnce() throws Exception {
+        RecordingBackend backend = new RecordingBackend();
+        DesktopBackends.use(backend);
+        Path file = Files.createFile(tempDir.resolve("file.txt"));
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(List.of(file, file));
+
+        assertEquals(1, result.size());
+        assertEquals(List.of(file), backend.batches.get(0));
+    }
+
+    @Test
+    void moveToTrash_WithoutBackend_ShouldFailEveryItem() throws Exception {
+        DesktopBackends.use();
+        List<Path> paths = createFiles(2);
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(paths);
+
+        assertEquals(2, result.getFailed().size());
+        result.getFailed().values().forEach(error ->
+                assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), error.getMessage()));
+    }
+
+    @Test
+    void moveToTrash_WithNullCollection_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.moveToTrash((java.util.Collection<Path>) null)
+        );
+        assertEquals(ErrorMessage.PATHS_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void moveToTrash_WithDefaultBatchImplementation_ShouldCallSingleFileMethod() throws Exception {
+        List<File> trashed = Collections.synchronizedList(new ArrayList<>());
+        DesktopBackends.use(new SingleFileBackend(trashed));
+        List<Path> paths = createFiles(3);
+
+        BatchResult<Path> result = DesktopActions.moveToTrash(paths);
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(paths.stream().map(Path::toFile).toList(), trashed);
+    }
+
+    private List<Path> createFiles(int count) throws Exception {
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            paths.add(Files.createFile(tempDir.resolve("file-" + i + ".txt")));
+        }
+        return paths;
+    }
+
+    private static class SingleFileBackend implements DesktopBackend {
+        private final List<File> trashed;
+
+        SingleFileBackend(List<File> trashed) {
+            this.trashed = trashed;
+        }
+
+        @Override
+        public String name() {
+            return "single";
+        }
+
+        @Override
+        public Latency latency() {
+            return Latency.NATIVE;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(DesktopAction action) {
+            return action == DesktopAction.MOVE_TO_TRASH;
+        }
+
+        @Override
+        public void moveToTrash(File file) throws DesktopActionException {
+            trashed.add(file);
+        }
+    }
+
+    private static final class RecordingBackend extends SingleFileBackend {
+        private final List<List<Path>> batches = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Path> failing = ConcurrentHashMap.newKeySet();
+
+        RecordingBackend() {
+            super(Collections.synchronizedList(new ArrayList<>()));
+        }
+
+        @Override
+        public void moveToTrash(File file) throws DesktopActionException {
+            if (failing.contains(file.toPath())) {
+                throw new DesktopActionException(ErrorMessage.MOVE_TO_TRASH_FAILED.getMessage() + file);
+            }
+        }
+
+        @Override
+        public BatchResult<Path> moveToTrash(List<Path> paths) {
+            batches.add(List.copyOf(paths));
+            return super.moveToTrash(paths);
+        }
+    }
+}
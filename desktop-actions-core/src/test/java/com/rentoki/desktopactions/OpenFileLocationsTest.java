@@ -0,0 +1,150 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenFileLocationsTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        DesktopBackends.reset();
+    }
+
+    @Test
+    void openFileLocations_WithFilesInTwoDirectories_ShouldRevealEachDirectoryOnce() throws Exception {
+        RevealingBackend backend = new RevealingBackend();
+        DesktopBackends.use(backend);
+        Path first = Files.createDirectories(tempDir.resolve("first"));
+        Path second = Files.createDirectories(tempDir.resolve("second"));
+        List<Path> paths = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            paths.add(Files.createFile(first.resolve("a-" + i)));
+            paths.add(Files.createFile(second.resolve("b-" + i)));
+        }
+
+        BatchResult<Path> result = DesktopActions.openFileLocations(paths);
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(paths, new ArrayList<>(result.getResults().keySet()));
+        assertEquals(2, backend.reveals.size());
+        assertEquals(paths.stream().filter(path -> path.startsWith(first)).toList(), backend.reveals.get(0));
+        assertEquals(paths.stream().filter(path -> path.startsWith(second)).toList(), backend.reveals.get(1));
+    }
+
+    @Test
+    void openFileLocations_WithMissingAndNullEntries_ShouldReportPerItemFailures() throws Exception {
+        DesktopBackends.use(new RevealingBackend());
+        Path existing = Files.createFile(tempDir.resolve("existing.txt"));
+        Path missing = tempDir.resolve("missing.txt");
+
+        BatchResult<Path> result = DesktopActions.openFileLocations(Arrays.asList(missing, existing, null));
+
+        assertEquals(List.of(existing), result.getSucceeded());
+        assertEquals(ErrorMessage.FILE_IS_NULL.getMessage(), result.getFailed().get(missing).getMessage());
+        assertEquals(ErrorMessage.FILE_IS_NULL.getMessage(), result.getFailed().get(null).getMessage());
+    }
+
+    @Test
+    void openFileLocations_WithDefaultBatchImplementation_ShouldRevealFirstFileOncePerDirectory() throws Exception {
+        SingleFileBackend backend = new SingleFileBackend();
+        DesktopBackends.use(backend);
+        Path a = Files.createFile(tempDir.resolve("a.txt"));
+        Path b = Files.createFile(tempDir.resolve("b.txt"));
+
+        BatchResult<Path> result = DesktopActions.openFileLocations(List.of(a, b, a));
+
+        assertEquals(2, result.size());
+        assertTrue(result.isAllSucceeded());
+        assertEquals(List.of(a.toFile()), backend.revealed);
+    }
+
+    @Test
+    void openFileLocations_WhenBackendFails_ShouldFailEveryFileOfThatDirectory() throws Exception {
+        SingleFileBackend backend = new SingleFileBackend();
+        backend.failing = true;
+        DesktopBackends.use(backend);
+        Path a = Files.createFile(tempDir.resolve("a.txt"));
+        Path b = Files.createFile(tempDir.resolve("b.txt"));
+
+        BatchResult<Path> result = DesktopActions.openFileLocations(List.of(a, b));
+
+        assertEquals(List.of(a, b), new ArrayList<>(result.getFailed().keySet()));
+    }
+
+    @Test
+    void openFileLocations_WithoutBackend_ShouldFailEveryItem() throws Exception {
+        DesktopBackends.use();
+        Path file = Files.createFile(tempDir.resolve("file.txt"));
+
+        BatchResult<Path> result = DesktopActions.openFileLocations(List.of(file));
+
+        assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), result.getFailed().get(file).getMessage());
+    }
+
+    @Test
+    void openFileLocations_WithNullCollection_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.openFileLocations((Collection<Path>) null)
+        );
+        assertEquals(ErrorMessage.PATHS_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    private static class SingleFileBackend implements DesktopBackend {
+        final List<File> revealed = Collections.synchronizedList(new ArrayList<>());
+        boolean failing;
+
+        @Override
+        public String name() {
+            return "single";
+        }
+
+        @Override
+        public Latency latency() {
+            return Latency.NATIVE;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        public boolean supports(DesktopAction action) {
+            return action == DesktopAction.OPEN_FILE_LOCATION;
+        }
+
+        @Override
+        public void openFileLocation(File file) throws DesktopActionException {
+            if (failing) {
+                throw new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + file);
+            }
+            revealed.add(file);
+        }
+    }
+
+    private static final class RevealingBackend extends SingleFileBackend {
+        private final List<List<Path>> reveals = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public BatchResult<Path> openFileLocations(List<Path> paths) {
+            reveals.add(List.copyOf(paths));
+            return super.openFileLocations(paths);
+        }
+    }
+}
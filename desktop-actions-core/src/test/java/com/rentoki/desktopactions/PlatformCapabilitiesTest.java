@@ -0,0 +1,152 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PlatformCapabilitiesTest {
+
+    @AfterEach
+    void tearDown() {
+        DesktopBackends.reset();
+    }
+
+    @Test
+    void getBackend_ShouldPreferLowerLatencyBackend() {
+        FakeBackend toolkit = new FakeBackend(DesktopBackend.Latency.TOOLKIT, true, DesktopAction.BROWSE);
+        FakeBackend exec = new FakeBackend(DesktopBackend.Latency.EXEC, true, DesktopAction.BROWSE);
+        DesktopBackends.use(toolkit, exec);
+
+        assertSame(exec, PlatformCapabilities.current().getBackend(DesktopAction.BROWSE).orElseThrow());
+        assertEquals(List.of(exec, toolkit), PlatformCapabilities.current().getBackends());
+    }
+
+    @Test
+    void getBackend_ShouldSkipUnavailableBackends() {
+        FakeBackend unavailable = new FakeBackend(DesktopBackend.Latency.NATIVE, false, DesktopAction.BROWSE);
+        FakeBackend available = new FakeBackend(DesktopBackend.Latency.TOOLKIT, true, DesktopAction.BROWSE);
+        DesktopBackends.use(unavailable, available);
+
+        assertSame(available, PlatformCapabilities.current().getBackend(DesktopAction.BROWSE).orElseThrow());
+    }
+
+    @Test
+    void getBackend_WhenNoBackendSupportsAction_ShouldBeEmpty() {
+        DesktopBackends.use(new FakeBackend(DesktopBackend.Latency.NATIVE, true, DesktopAction.CREATE_SHORTCUT));
+
+        assertTrue(PlatformCapabilities.current().getBackend(DesktopAction.BROWSE).isEmpty());
+        assertFalse(PlatformCapabilities.current().isDesktopSupported());
+    }
+
+    @Test
+    void getBackend_ShouldProbeAvailabilityOncePerSnapshot() {
+        FakeBackend backend = new FakeBackend(DesktopBackend.Latency.EXEC, true,
+                DesktopAction.BROWSE, DesktopAction.OPEN_FILE_DIRECTORY);
+        DesktopBackends.use(backend);
+
+        for (int i = 0; i < 100; i++) {
+            PlatformCapabilities.current().getBackend(DesktopAction.BROWSE);
+            PlatformCapabilities.current().getBackend(DesktopAction.OPEN_FILE_DIRECTORY);
+        }
+
+        assertEquals(1, backend.availabilityProbes.get());
+    }
+
+    @Test
+    void getBackend_ShouldNotProbeSlowerBackendWhenFasterOneSupportsAction() {
+        FakeBackend fast = new FakeBackend(DesktopBackend.Latency.EXEC, true, DesktopAction.BROWSE);
+        FakeBackend slow = new FakeBackend(DesktopBackend.Latency.TOOLKIT, true, DesktopAction.BROWSE);
+        DesktopBackends.use(fast, slow);
+
+        PlatformCapabilities.current().getBackend(DesktopAction.BROWSE);
+
+        assertEquals(0, slow.availabilityProbes.get());
+    }
+
+    @Test
+    void refresh_ShouldProbeAgainAndRefreshBackends() {
+        FakeBackend backend = new FakeBackend(DesktopBackend.Latency.EXEC, true, DesktopAction.BROWSE);
+        DesktopBackends.use(backend);
+        PlatformCapabilities before = PlatformCapabilities.current();
+        before.getBackend(DesktopAction.BROWSE);
+
+        PlatformCapabilities.refresh();
+        PlatformCapabilities after = PlatformCapabilities.current();
+        after.getBackend(DesktopAction.BROWSE);
+
+        assertNotSame(before, after);
+        assertEquals(1, backend.refreshes.get());
+        assertEquals(2, backend.availabilityProbes.get());
+    }
+
+    @Test
+    void browse_WithInMemoryBackend_ShouldDelegateToBackend() throws Exception {
+        FakeBackend backend = new FakeBackend(DesktopBackend.Latency.NATIVE, true, DesktopAction.BROWSE);
+        DesktopBackends.use(backend);
+
+        DesktopActions.browse("https://www.example.com");
+
+        assertEquals(List.of(URI.create("https://www.example.com")), backend.browsed);
+    }
+
+    @Test
+    void isWindows_ShouldMatchOsNameProperty() {
+        assertEquals(System.getProperty("os.name").toLowerCase().contains("windows"),
+                PlatformCapabilities.current().isWindows());
+    }
+
+    private static final class FakeBackend implements DesktopBackend {
+        private final Latency latency;
+        private final boolean available;
+        private final Set<DesktopAction> actions;
+        private final AtomicInteger availabilityProbes = new AtomicInteger();
+        private final AtomicInteger refreshes = new AtomicInteger();
+        private final List<URI> browsed = new ArrayList<>();
+
+        FakeBackend(Latency latency, boolean available, DesktopAction first, DesktopAction... rest) {
+            this.latency = latency;
+            this.available = available;
+            this.actions = EnumSet.of(first, rest);
+        }
+
+        @Override
+        public String name() {
+            return "fake-" + latency;
+        }
+
+        @Override
+        public Latency latency() {
+            return latency;
+        }
+
+        @Override
+        public boolean isAvailable() {
+            availabilityProbes.incrementAndGet();
+            return available;
+        }
+
+        @Override
+        public boolean supports(DesktopAction action) {
+            return actions.contains(action);
+        }
+
+        @Override
+        public void refresh() {
+            refreshes.incrementAndGet();
+        }
+
+        @Override
+        public void browse(URI uri) {
+            browsed.add(uri);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.rentoki.desktopactions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ProcessSpawnerTest {
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void disableHelper() {
+        ProcessSpawner.setHelperEnabled(false);
+    }
+
+    @Test
+    void start_WithHelperEnabled_ShouldStartProcessOutsideThisJvm() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        ProcessSpawner.setHelperEnabled(true);
+        Path output = tempDir.resolve("out.txt");
+
+        Process process = LaunchSpec.builder(List.of("/bin/sh", "-c", "echo \"$GREETING\" $PWD; sleep 1; exit 7"))
+                .environment("GREETING", "hello")
+                .workingDirectory(tempDir)
+                .output(Redirect.to(output.toFile()))
+                .build()
+                .start();
+
+        assertTrue(ProcessSpawner.isHelperRunning());
+        assertNotEquals(ProcessHandle.current().pid(),
+                process.toHandle().parent().map(ProcessHandle::pid).orElse(ProcessHandle.current().pid()));
+        assertSame(process, process.onExit().get(10, TimeUnit.SECONDS));
+        assertEquals(7, process.exitValue());
+        assertEquals("hello " + tempDir.toRealPath(), Files.readString(output).trim());
+    }
+
+    @Test
+    void start_WithHelperEnabledAndMissingExecutable_ShouldThrowIOException() {
+        ProcessSpawner.setHelperEnabled(true);
+
+        assertThrows(IOException.class, () -> LaunchSpec.builder("/nonexistent/desktop-actions-test").build().start());
+    }
+
+    @Test
+    void start_WithPipe_ShouldStartProcessInThisJvm() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        ProcessSpawner.setHelperEnabled(true);
+
+        Process process = LaunchSpec.builder(List.of("/bin/sh", "-c", "echo piped"))
+                .output(Redirect.PIPE)
+                .build()
+                .start();
+
+        assertFalse(process instanceof RemoteProcess);
+        assertEquals("piped", new String(process.getInputStream().readAllBytes()).trim());
+    }
+
+    @Test
+    void start_WithInheritedInput_ShouldStartProcessInThisJvm() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        ProcessSpawner.setHelperEnabled(true);
+
+        Process process = LaunchSpec.builder(List.of("/bin/sh", "-c", "exit 0"))
+                .input(Redirect.INHERIT)
+                .build()
+                .start();
+
+        assertFalse(process instanceof RemoteProcess);
+        assertTrue(process.waitFor(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void setHelperEnabled_WithFalse_ShouldStopHelper() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/sh")));
+        ProcessSpawner.setHelperEnabled(true);
+        LaunchSpec.builder(List.of("/bin/sh", "-c", "exit 0")).build().start();
+
+        ProcessSpawner.setHelperEnabled(false);
+
+        assertFalse(ProcessSpawner.isHelperEnabled());
+        assertFalse(ProcessSpawner.isHelperRunning());
+    }
+}
@@ -0,0 +1,98 @@
+package com.rentoki.desktopactions;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpawnGovernorTest {
+    @AfterEach
+    void restoreDefaults() {
+        SpawnGovernor.setLimits(1, 4 * Runtime.getRuntime().availableProcessors());
+        SpawnGovernor.setLatencyTarget(SpawnGovernor.DEFAULT_LATENCY_TARGET);
+    }
+
+    @Test
+    void acquire_WhenAtLimit_ShouldServeInteractiveBeforeBulk() throws Exception {
+        SpawnGovernor.setLimits(1, 1);
+        SpawnGovernor.setLatencyTarget(Duration.ofMinutes(1));
+        List<SpawnPriority> order = new CopyOnWriteArrayList<>();
+        long held = SpawnGovernor.acquire();
+
+        Thread bulk = startWaiter(SpawnPriority.BULK, order);
+        Thread interactive = startWaiter(SpawnPriority.INTERACTIVE, order);
+        SpawnGovernor.release(held);
+
+        bulk.join(TimeUnit.SECONDS.toMillis(10));
+        interactive.join(TimeUnit.SECONDS.toMillis(10));
+        assertEquals(List.of(SpawnPriority.INTERACTIVE, SpawnPriority.BULK), order);
+        assertEquals(0, SpawnGovernor.getInFlight());
+    }
+
+    @Test
+    void release_WithSlowLaunch_ShouldHalveLimit() throws Exception {
+        SpawnGovernor.setLimits(8, 8);
+        SpawnGovernor.setLimits(1, 8);
+        SpawnGovernor.setLatencyTarget(Duration.ofMillis(1));
+
+        long acquired = SpawnGovernor.acquire();
+        Thread.sleep(20);
+        SpawnGovernor.release(acquired);
+
+        assertEquals(4, SpawnGovernor.getLimit());
+    }
+
+    @Test
+    void release_WithFastLaunches_ShouldIncreaseLimitAdditively() throws Exception {
+        SpawnGovernor.setLimits(2, 2);
+        SpawnGovernor.setLimits(2, 64);
+        SpawnGovernor.setLatencyTarget(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 6; i++) {
+            SpawnGovernor.release(SpawnGovernor.acquire());
+        }
+
+        assertEquals(4, SpawnGovernor.getLimit());
+    }
+
+    @Test
+    void run_ShouldRestorePreviousPriority() {
+        assertEquals(SpawnPriority.INTERACTIVE, SpawnGovernor.currentPriority());
+
+        SpawnGovernor.run(SpawnPriority.BULK, () -> assertEquals(SpawnPriority.BULK, SpawnGovernor.currentPriority()));
+
+        assertEquals(SpawnPriority.INTERACTIVE, SpawnGovernor.currentPriority());
+    }
+
+    @Test
+    void setLimits_WithInvalidBounds_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> SpawnGovernor.setLimits(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> SpawnGovernor.setLimits(4, 2));
+    }
+
+    private static Thread startWaiter(SpawnPriority priority, List<SpawnPriority> order) throws InterruptedException {
+        Thread thread = new Thread(() -> {
+            try {
+                SpawnGovernor.run(priority, () -> {
+                    long acquired = SpawnGovernor.acquire();
+                    order.add(priority);
+                    SpawnGovernor.release(acquired);
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1);
+        }
+        return thread;
+    }
+}
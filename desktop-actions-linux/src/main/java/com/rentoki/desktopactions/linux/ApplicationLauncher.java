@@ -0,0 +1,120 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.LaunchSpec;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Starts the application of a desktop entry the way {@code gtk-launch} does, without spawning it.
+ *
+ * <p>The entry's {@code Exec} command is expanded with the targets by {@link ExecLine}. An entry
+ * whose {@code TryExec} program is not installed is refused, {@code Path} becomes the working
+ * directory and {@code Terminal=true} wraps the command in a terminal emulator. A command that
+ * takes a single file or URL is started once per target.
+ */
+final class ApplicationLauncher {
+
+    /**
+     * Terminal emulators tried in order when {@code $TERMINAL} is not set, with the arguments that
+     * precede the command to run.
+     */
+    private static final List<List<String>> TERMINALS = List.of(
+            List.of("xdg-terminal-exec"),
+            List.of("x-terminal-emulator", "-e"),
+            List.of("gnome-terminal", "--"),
+            List.of("konsole", "-e"),
+            List.of("xfce4-terminal", "-x"),
+            List.of("xterm", "-e"));
+
+    private final Map<String, String> env;
+
+    ApplicationLauncher(Map<String, String> env) {
+        this.env = env;
+    }
+
+    /**
+     * Starts the application with the targets.
+     *
+     * @throws IOException              if the application is not installed or cannot be started
+     * @throws IllegalArgumentException if the entry's {@code Exec} value is malformed
+     */
+    void launch(DesktopEntry entry, List<URI> targets) throws IOException {
+        String tryExec = entry.getTryExec();
+        if (tryExec != null && !tryExec.isEmpty() && findExecutable(tryExec).isEmpty()) {
+            throw new IOException("TryExec program " + tryExec + " of " + entry.getId() + " is not installed");
+        }
+
+        List<String> tokens = entry.getExecTokens();
+        Path directory = entry.getWorkingDirectory() == null || entry.getWorkingDirectory().isEmpty()
+                ? null
+                : Path.of(entry.getWorkingDirectory());
+
+        if (targets.size() <= 1 || targets.stream().allMatch(target -> ExecLine.acceptsMany(tokens, target))) {
+            start(entry, ExecLine.expand(tokens, targets, entry), directory);
+            return;
+        }
+        for (URI target : targets) {
+            start(entry, ExecLine.expand(tokens, List.of(target), entry), directory);
+        }
+    }
+
+    private void start(DesktopEntry entry, List<String> command, Path directory) throws IOException {
+        if (command.isEmpty()) {
+            throw new IOException("Empty Exec line in " + entry.getPath());
+        }
+
+        LaunchSpec.builder(entry.isTerminal() ? inTerminal(command) : command)
+                .workingDirectory(directory)
+                .build()
+                .start();
+    }
+
+    private List<String> inTerminal(List<String> command) throws IOException {
+        List<String> wrapped = new ArrayList<>();
+        String terminal = env.get("TERMINAL");
+        if (terminal != null && !terminal.isEmpty()) {
+            wrapped.add(terminal);
+            wrapped.add("-e");
+        } else {
+            TERMINALS.stream()
+                    .filter(candidate -> findExecutable(candidate.get(0)).isPresent())
+                    .findFirst()
+                    .ifPresent(wrapped::addAll);
+            if (wrapped.isEmpty()) {
+                throw new IOException("No terminal emulator found");
+            }
+        }
+        wrapped.addAll(command);
+        return wrapped;
+    }
+
+    /**
+     * Finds a program by absolute path or on {@code $PATH}.
+     */
+    private Optional<Path> findExecutable(String program) {
+        if (program.indexOf('/') >= 0) {
+            Path path = Path.of(program);
+            return path.isAbsolute() && Files.isExecutable(path) ? Optional.of(path) : Optional.empty();
+        }
+
+        String searchPath = env.getOrDefault("PATH", "");
+        for (String directory : searchPath.split(File.pathSeparator)) {
+            if (directory.isEmpty()) {
+                continue;
+            }
+            Path candidate = Path.of(directory, program);
+            if (Files.isRegularFile(candidate) && Files.isExecutable(candidate)) {
+                return Optional.of(candidate);
+            }
+        }
+        return Optional.empty();
+    }
+}
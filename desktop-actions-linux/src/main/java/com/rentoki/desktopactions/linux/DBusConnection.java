@@ -0,0 +1,322 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serial;
+import java.net.StandardProtocolFamily;
+import java.net.URLDecoder;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A connection to a D-Bus message bus over a Unix domain socket, speaking the wire protocol
+ * directly instead of spawning {@code dbus-send} or {@code gdbus}.
+ *
+ * <p>The connection authenticates with SASL {@code EXTERNAL}, registers with {@code Hello} and is
+ * then kept open. A virtual thread reads incoming messages and hands each reply to the call waiting
+ * for it, so calls from many threads can be in flight at once. Connections to the same bus are
+ * shared through {@link #shared(Path)} and reopened transparently after the bus goes away.
+ */
+final class DBusConnection implements Closeable {
+    static final String BUS_NAME = "org.freedesktop.DBus";
+    static final String BUS_PATH = "/org/freedesktop/DBus";
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Map<Path, DBusConnection> SHARED = new ConcurrentHashMap<>();
+
+    private final SocketChannel channel;
+    private final AtomicInteger serials = new AtomicInteger(1);
+    private final Map<Integer, CompletableFuture<DBusMessage>> pending = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile boolean open = true;
+    private String uniqueName;
+
+    private DBusConnection(SocketChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a new connection to the bus listening on the given socket.
+     */
+    static DBusConnection open(Path socket, int uid) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+            authenticate(channel, uid);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+
+        DBusConnection connection = new DBusConnection(channel);
+        Thread.ofVirtual().name("desktop-actions-dbus").start(connection::readLoop);
+        try {
+            DBusMessage hello = connection.call(DBusMessage.methodCall(BUS_NAME, BUS_PATH, BUS_NAME, "Hello", ""), DEFAULT_TIMEOUT);
+            connection.uniqueName = hello.getBodyString();
+        } catch (IOException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /**
+     * Returns the open shared connection to the bus at the given socket, connecting if needed.
+     */
+    static DBusConnection shared(Path socket) throws IOException {
+        DBusConnection connection = SHARED.get(socket);
+        if (connection != null && connection.isOpen()) {
+            return connection;
+        }
+
+        synchronized (SHARED) {
+            connection = SHARED.get(socket);
+            if (connection == null || !connection.isOpen()) {
+                connection = open(socket, FreedesktopTrash.currentUid());
+                SHARED.put(socket, connection);
+            }
+            return connection;
+        }
+    }
+
+    /**
+     * Returns the shared connection to the session bus described by the environment.
+     *
+     * @throws IOException if there is no session bus or it cannot be reached
+     */
+    static DBusConnection session(Map<String, String> env) throws IOException {
+        Optional<Path> bus = sessionBus(env);
+        if (bus.isEmpty()) {
+            throw new IOException("No D-Bus session bus");
+        }
+        return shared(bus.get());
+    }
+
+    /**
+     * Returns the socket of the session bus, from {@code DBUS_SESSION_BUS_ADDRESS} or else
+     * {@code $XDG_RUNTIME_DIR/bus}. Only {@code unix:path=} addresses are supported, since the JDK
+     * cannot connect to abstract sockets.
+     */
+    static Optional<Path> sessionBus(Map<String, String> env) {
+        String address = env.get("DBUS_SESSION_BUS_ADDRESS");
+        if (address != null) {
+            for (String candidate : address.split(";")) {
+                Optional<Path> path = unixPath(candidate);
+                if (path.isPresent()) {
+                    return path;
+                }
+            }
+        }
+
+        String runtimeDir = env.get("XDG_RUNTIME_DIR");
+        if (runtimeDir != null && !runtimeDir.isEmpty()) {
+            Path bus = Path.of(runtimeDir, "bus");
+            if (Files.exists(bus)) {
+                return Optional.of(bus);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<Path> unixPath(String address) {
+        if (!address.startsWith("unix:")) {
+            return Optional.empty();
+        }
+        for (String pair : address.substring(5).split(",")) {
+            if (pair.startsWith("path=")) {
+                return Optional.of(Path.of(unescapeAddress(pair.substring(5))));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String unescapeAddress(String value) {
+        return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Calls a method and waits for its reply.
+     *
+     * @throws DBusException if the reply is an error
+     * @throws IOException   if the call cannot be sent or no reply arrives in time
+     */
+    DBusMessage call(DBusMessage message, Duration timeout) throws IOException {
+        int serial = serials.getAndIncrement();
+        CompletableFuture<DBusMessage> reply = new CompletableFuture<>();
+        pending.put(serial, reply);
+        if (!open) {
+            pending.remove(serial);
+            throw new IOException("D-Bus connection closed");
+        }
+
+        try {
+            write(message.encode(serial));
+            DBusMessage response = reply.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (response.getType() == DBusMessage.ERROR) {
+                throw new DBusException(response.getErrorName(), response.getBodyString());
+            }
+            return response;
+        } catch (TimeoutException e) {
+            throw new IOException("No reply to " + message.getMember() + " within " + timeout, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException io ? io : new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + message.getMember());
+        } finally {
+            pending.remove(serial);
+        }
+    }
+
+    /**
+     * Sends a method call without waiting for, or asking for, a reply.
+     */
+    void send(DBusMessage message) throws IOException {
+        write(message.withoutReply().encode(serials.getAndIncrement()));
+    }
+
+    /**
+     * Returns whether a bus name currently has an owner or can be started on demand by the bus.
+     */
+    boolean hasName(String name) throws IOException {
+        DBusMessage owner = call(DBusMessage.methodCall(BUS_NAME, BUS_PATH, BUS_NAME, "NameHasOwner", "s", name), DEFAULT_TIMEOUT);
+        if (Boolean.TRUE.equals(owner.getBody().get(0))) {
+            return true;
+        }
+
+        DBusMessage activatable = call(DBusMessage.methodCall(BUS_NAME, BUS_PATH, BUS_NAME, "ListActivatableNames", ""), DEFAULT_TIMEOUT);
+        return ((List<?>) activatable.getBody().get(0)).contains(name);
+    }
+
+    String getUniqueName() {
+        return uniqueName;
+    }
+
+    boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        open = false;
+        channel.close();
+        failPending(new IOException("D-Bus connection closed"));
+    }
+
+    private void write(byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        synchronized (writeLock) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (IOException e) {
+                // The bus went away; the read loop may not have noticed yet.
+                close();
+                throw e;
+            }
+        }
+    }
+
+    private void readLoop() {
+        try {
+            while (open) {
+                DBusMessage message = DBusMessage.read(channel);
+                byte type = message.getType();
+                if (type == DBusMessage.METHOD_RETURN || type == DBusMessage.ERROR) {
+                    CompletableFuture<DBusMessage> reply = pending.get(message.getReplySerial());
+                    if (reply != null) {
+                        reply.complete(message);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            open = false;
+            failPending(e instanceof IOException io ? io : new IOException(e));
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // Already failing; nothing more to report.
+            }
+        }
+    }
+
+    private void failPending(IOException cause) {
+        pending.values().forEach(reply -> reply.completeExceptionally(cause));
+    }
+
+    /**
+     * Runs the SASL {@code EXTERNAL} handshake: the bus checks our uid from the socket credentials.
+     */
+    private static void authenticate(SocketChannel channel, int uid) throws IOException {
+        String hexUid = HexFormat.of().formatHex(Integer.toString(uid).getBytes(StandardCharsets.US_ASCII));
+        writeAscii(channel, "\0AUTH EXTERNAL " + hexUid + "\r\n");
+
+        String response = readLine(channel);
+        if (!response.startsWith("OK ")) {
+            throw new IOException("D-Bus authentication failed: " + response);
+        }
+        writeAscii(channel, "BEGIN\r\n");
+    }
+
+    private static void writeAscii(SocketChannel channel, String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static String readLine(SocketChannel channel) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer single = ByteBuffer.allocate(1);
+        while (line.size() < 4096) {
+            single.clear();
+            if (channel.read(single) < 0) {
+                throw new IOException("D-Bus connection closed during authentication");
+            }
+            byte b = single.get(0);
+            if (b == '\n') {
+                String text = line.toString(StandardCharsets.US_ASCII);
+                return text.endsWith("\r") ? text.substring(0, text.length() - 1) : text;
+            }
+            line.write(b);
+        }
+        throw new IOException("D-Bus authentication line too long");
+    }
+
+    /**
+     * An error reply from the bus or from the called service.
+     */
+    static final class DBusException extends IOException {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        DBusException(String name, String message) {
+            super(name + (message != null ? ": " + message : ""));
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+}
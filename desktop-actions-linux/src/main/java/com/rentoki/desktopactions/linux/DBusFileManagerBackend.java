@@ -0,0 +1,116 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.ActionResult;
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DesktopBackend} that reveals files through the {@code org.freedesktop.FileManager1}
+ * D-Bus interface implemented by Nautilus, Dolphin, Nemo, Thunar and others.
+ *
+ * <p>Calls go over a persistent session-bus connection, so revealing a file selects it in the file
+ * manager without starting any process. All files of a directory are selected with one call.
+ *
+ * @author Rentoki
+ */
+public final class DBusFileManagerBackend implements DesktopBackend {
+    static final String FILE_MANAGER_NAME = "org.freedesktop.FileManager1";
+    static final String FILE_MANAGER_PATH = "/org/freedesktop/FileManager1";
+
+    private final Map<String, String> env;
+
+    public DBusFileManagerBackend() {
+        this(System.getenv());
+    }
+
+    DBusFileManagerBackend(Map<String, String> env) {
+        this.env = env;
+    }
+
+    @Override
+    public String name() {
+        return "dbus-filemanager";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.NATIVE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        if (!PlatformCapabilities.current().isLinux()) {
+            return false;
+        }
+
+        try {
+            return DBusConnection.session(env).hasName(FILE_MANAGER_NAME);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return action == DesktopAction.OPEN_FILE_LOCATION || action == DesktopAction.OPEN_FILE_DIRECTORY;
+    }
+
+    @Override
+    public void openFileLocation(File file) throws DesktopActionException {
+        try {
+            show("ShowItems", List.of(file.toPath()));
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + file.getAbsolutePath(), e);
+        }
+    }
+
+    @Override
+    public BatchResult<Path> openFileLocations(List<Path> paths) {
+        DesktopActionException error = null;
+        try {
+            show("ShowItems", paths);
+        } catch (IOException | RuntimeException e) {
+            error = new DesktopActionException(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage()
+                    + paths.get(0).toAbsolutePath().getParent(), e);
+        }
+
+        Map<Path, ActionResult> results = new LinkedHashMap<>();
+        for (Path path : paths) {
+            results.put(path, error == null
+                    ? ActionResult.success(DesktopAction.OPEN_FILE_LOCATION, path.toString())
+                    : ActionResult.failure(DesktopAction.OPEN_FILE_LOCATION, path.toString(), error));
+        }
+        return BatchResult.of(results);
+    }
+
+    @Override
+    public void openDirectory(File directory) throws DesktopActionException {
+        try {
+            show("ShowFolders", List.of(directory.toPath()));
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.OPEN_FILE_DIRECTORY_FAILED.getMessage() + directory.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Calls {@code ShowItems} or {@code ShowFolders} with the {@code file://} URIs of the paths.
+     */
+    void show(String method, List<Path> paths) throws IOException {
+        List<String> uris = paths.stream()
+                .map(path -> path.toAbsolutePath().toUri().toString())
+                .toList();
+        DBusConnection.session(env).call(DBusMessage.methodCall(FILE_MANAGER_NAME, FILE_MANAGER_PATH, FILE_MANAGER_NAME, method,
+                "ass", uris, ""), DBusConnection.DEFAULT_TIMEOUT);
+    }
+}
@@ -0,0 +1,265 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message of the D-Bus wire protocol: a method call, method return, error or signal.
+ */
+final class DBusMessage {
+    static final byte METHOD_CALL = 1;
+    static final byte METHOD_RETURN = 2;
+    static final byte ERROR = 3;
+    static final byte SIGNAL = 4;
+
+    static final byte NO_REPLY_EXPECTED = 0x1;
+
+    private static final byte FIELD_PATH = 1;
+    private static final byte FIELD_INTERFACE = 2;
+    private static final byte FIELD_MEMBER = 3;
+    private static final byte FIELD_ERROR_NAME = 4;
+    private static final byte FIELD_REPLY_SERIAL = 5;
+    private static final byte FIELD_DESTINATION = 6;
+    private static final byte FIELD_SENDER = 7;
+    private static final byte FIELD_SIGNATURE = 8;
+
+    /**
+     * Messages larger than this are rejected, as the specification allows at most 128 MiB.
+     */
+    private static final int MAX_LENGTH = 128 * 1024 * 1024;
+
+    private final byte type;
+    private final byte flags;
+    private final int serial;
+    private final String path;
+    private final String interfaceName;
+    private final String member;
+    private final String errorName;
+    private final int replySerial;
+    private final String destination;
+    private final String sender;
+    private final String signature;
+    private final List<Object> body;
+
+    private DBusMessage(byte type, byte flags, int serial, String path, String interfaceName, String member,
+                        String errorName, int replySerial, String destination, String sender,
+                        String signature, List<Object> body) {
+        this.type = type;
+        this.flags = flags;
+        this.serial = serial;
+        this.path = path;
+        this.interfaceName = interfaceName;
+        this.member = member;
+        this.errorName = errorName;
+        this.replySerial = replySerial;
+        this.destination = destination;
+        this.sender = sender;
+        this.signature = signature;
+        this.body = body;
+    }
+
+    static DBusMessage methodCall(String destination, String path, String interfaceName, String member,
+                                  String signature, Object... body) {
+        return new DBusMessage(METHOD_CALL, (byte) 0, 0, path, interfaceName, member, null, 0,
+                destination, null, signature, List.of(body));
+    }
+
+    static DBusMessage methodReturn(DBusMessage call, String signature, Object... body) {
+        return new DBusMessage(METHOD_RETURN, NO_REPLY_EXPECTED, 0, null, null, null, null, call.serial,
+                call.sender, null, signature, List.of(body));
+    }
+
+    static DBusMessage error(DBusMessage call, String errorName, String message) {
+        return new DBusMessage(ERROR, NO_REPLY_EXPECTED, 0, null, null, null, errorName, call.serial,
+                call.sender, null, "s", List.of(message));
+    }
+
+    /**
+     * Returns a copy of this message that does not ask for a reply.
+     */
+    DBusMessage withoutReply() {
+        return new DBusMessage(type, (byte) (flags | NO_REPLY_EXPECTED), serial, path, interfaceName, member,
+                errorName, replySerial, destination, sender, signature, body);
+    }
+
+    /**
+     * Returns a copy of this message with the sender set, as the bus daemon does when routing it.
+     */
+    DBusMessage withSender(String sender) {
+        return new DBusMessage(type, flags, serial, path, interfaceName, member, errorName, replySerial,
+                destination, sender, signature, body);
+    }
+
+    /**
+     * Encodes this message in little-endian byte order with the given serial.
+     */
+    byte[] encode(int serial) {
+        byte[] encodedBody = signature.isEmpty()
+                ? new byte[0]
+                : new DBusWriter().write(signature, body).toByteArray();
+
+        List<Object> fields = new ArrayList<>();
+        addField(fields, FIELD_PATH, "o", path);
+        addField(fields, FIELD_INTERFACE, "s", interfaceName);
+        addField(fields, FIELD_MEMBER, "s", member);
+        addField(fields, FIELD_ERROR_NAME, "s", errorName);
+        addField(fields, FIELD_REPLY_SERIAL, "u", replySerial != 0 ? replySerial : null);
+        addField(fields, FIELD_DESTINATION, "s", destination);
+        addField(fields, FIELD_SENDER, "s", sender);
+        addField(fields, FIELD_SIGNATURE, "g", signature.isEmpty() ? null : signature);
+
+        DBusWriter header = new DBusWriter();
+        header.writeByte('l');
+        header.writeByte(type);
+        header.writeByte(flags);
+        header.writeByte(1);
+        header.writeUInt32(encodedBody.length);
+        header.writeUInt32(serial);
+        header.write("a(yv)", List.of(fields));
+        header.align(8);
+
+        byte[] message = new byte[header.position() + encodedBody.length];
+        System.arraycopy(header.toByteArray(), 0, message, 0, header.position());
+        System.arraycopy(encodedBody, 0, message, header.position(), encodedBody.length);
+        return message;
+    }
+
+    private static void addField(List<Object> fields, byte code, String signature, Object value) {
+        if (value != null) {
+            fields.add(List.of(code, new DBusTypes.Variant(signature, value)));
+        }
+    }
+
+    /**
+     * Reads one complete message from a blocking channel.
+     *
+     * @throws EOFException if the channel is closed before a message starts
+     */
+    static DBusMessage read(ReadableByteChannel channel) throws IOException {
+        ByteBuffer fixed = readFully(channel, 16);
+        ByteOrder order = switch (fixed.get(0)) {
+            case 'l' -> ByteOrder.LITTLE_ENDIAN;
+            case 'B' -> ByteOrder.BIG_ENDIAN;
+            default -> throw new IOException("Invalid D-Bus endianness flag " + fixed.get(0));
+        };
+        fixed.order(order);
+
+        int bodyLength = fixed.getInt(4);
+        int fieldsLength = fixed.getInt(12);
+        int headerLength = 16 + fieldsLength;
+        int padding = (8 - headerLength % 8) % 8;
+        if (bodyLength < 0 || fieldsLength < 0 || (long) headerLength + padding + bodyLength > MAX_LENGTH) {
+            throw new IOException("D-Bus message too large");
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(headerLength + padding).order(order);
+        header.put(fixed.rewind());
+        header.put(readFully(channel, fieldsLength + padding));
+        ByteBuffer body = readFully(channel, bodyLength).order(order);
+
+        DBusReader headerReader = new DBusReader(header.rewind());
+        headerReader.position(12);
+        @SuppressWarnings("unchecked")
+        List<List<Object>> fields = (List<List<Object>>) headerReader.read("a(yv)").get(0);
+
+        String path = null, interfaceName = null, member = null, errorName = null;
+        String destination = null, sender = null, signature = "";
+        int replySerial = 0;
+        for (List<Object> field : fields) {
+            Object value = ((DBusTypes.Variant) field.get(1)).value();
+            switch ((Byte) field.get(0)) {
+                case FIELD_PATH -> path = (String) value;
+                case FIELD_INTERFACE -> interfaceName = (String) value;
+                case FIELD_MEMBER -> member = (String) value;
+                case FIELD_ERROR_NAME -> errorName = (String) value;
+                case FIELD_REPLY_SERIAL -> replySerial = (Integer) value;
+                case FIELD_DESTINATION -> destination = (String) value;
+                case FIELD_SENDER -> sender = (String) value;
+                case FIELD_SIGNATURE -> signature = (String) value;
+                default -> {
+                    // Unknown header fields must be ignored.
+                }
+            }
+        }
+
+        List<Object> values = signature.isEmpty() ? List.of() : new DBusReader(body).read(signature);
+        return new DBusMessage(fixed.get(1), fixed.get(2), fixed.getInt(8), path, interfaceName, member,
+                errorName, replySerial, destination, sender, signature, values);
+    }
+
+    private static ByteBuffer readFully(ReadableByteChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("D-Bus connection closed");
+            }
+        }
+        return buffer.flip();
+    }
+
+    byte getType() {
+        return type;
+    }
+
+    boolean isReplyExpected() {
+        return (flags & NO_REPLY_EXPECTED) == 0;
+    }
+
+    int getSerial() {
+        return serial;
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    String getInterface() {
+        return interfaceName;
+    }
+
+    String getMember() {
+        return member;
+    }
+
+    String getErrorName() {
+        return errorName;
+    }
+
+    int getReplySerial() {
+        return replySerial;
+    }
+
+    String getDestination() {
+        return destination;
+    }
+
+    String getSender() {
+        return sender;
+    }
+
+    String getSignature() {
+        return signature;
+    }
+
+    List<Object> getBody() {
+        return body;
+    }
+
+    /**
+     * Returns the first body value of an error or reply as a string, or null if there is none.
+     */
+    String getBodyString() {
+        return !body.isEmpty() && body.get(0) instanceof String text ? text : null;
+    }
+
+    @Override
+    public String toString() {
+        return "DBusMessage[type=" + type + ", serial=" + serial + ", member=" + member
+                + ", error=" + errorName + ", body=" + body + "]";
+    }
+}
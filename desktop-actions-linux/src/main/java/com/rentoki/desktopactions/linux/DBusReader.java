@@ -0,0 +1,112 @@
+package com.rentoki.desktopactions.linux;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unmarshals values from the D-Bus wire format. The byte order of the buffer must match the
+ * endianness flag of the message.
+ */
+final class DBusReader {
+    private final ByteBuffer buffer;
+
+    DBusReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads values of the given signature, one value per complete type.
+     */
+    List<Object> read(String signature) {
+        List<Object> values = new ArrayList<>();
+        for (String type : DBusTypes.split(signature)) {
+            values.add(readValue(type));
+        }
+        return values;
+    }
+
+    void position(int position) {
+        buffer.position(position);
+    }
+
+    private Object readValue(String type) {
+        return switch (type.charAt(0)) {
+            case 'y' -> buffer.get();
+            case 'b' -> readUInt32() != 0;
+            case 'n', 'q' -> {
+                align(2);
+                yield buffer.getShort();
+            }
+            case 'i', 'u' -> readUInt32();
+            case 'x', 't' -> {
+                align(8);
+                yield buffer.getLong();
+            }
+            case 'd' -> {
+                align(8);
+                yield buffer.getDouble();
+            }
+            case 's', 'o' -> readString(readUInt32());
+            case 'g' -> readString(buffer.get() & 0xFF);
+            case 'v' -> {
+                String signature = (String) readValue("g");
+                yield new DBusTypes.Variant(signature, readValue(signature));
+            }
+            case 'a' -> readArray(type.substring(1));
+            case '(' -> {
+                align(8);
+                List<Object> fields = new ArrayList<>();
+                for (String field : DBusTypes.split(type.substring(1, type.length() - 1))) {
+                    fields.add(readValue(field));
+                }
+                yield fields;
+            }
+            default -> throw new IllegalArgumentException("Unsupported D-Bus type " + type);
+        };
+    }
+
+    private Object readArray(String elementType) {
+        int length = readUInt32();
+        align(DBusTypes.alignment(elementType.charAt(0)));
+        int end = buffer.position() + length;
+
+        if (elementType.charAt(0) == '{') {
+            List<String> entry = DBusTypes.split(elementType.substring(1, elementType.length() - 1));
+            Map<Object, Object> map = new LinkedHashMap<>();
+            while (buffer.position() < end) {
+                align(8);
+                map.put(readValue(entry.get(0)), readValue(entry.get(1)));
+            }
+            return map;
+        }
+
+        List<Object> list = new ArrayList<>();
+        while (buffer.position() < end) {
+            list.add(readValue(elementType));
+        }
+        return list;
+    }
+
+    private int readUInt32() {
+        align(4);
+        return buffer.getInt();
+    }
+
+    private String readString(int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        buffer.get();
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void align(int alignment) {
+        int misalignment = buffer.position() % alignment;
+        if (misalignment != 0) {
+            buffer.position(buffer.position() + alignment - misalignment);
+        }
+    }
+}
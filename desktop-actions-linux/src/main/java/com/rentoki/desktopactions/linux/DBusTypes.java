@@ -0,0 +1,75 @@
+package com.rentoki.desktopactions.linux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for D-Bus type signatures.
+ *
+ * <p>Values are mapped to Java as follows: {@code y} to {@link Byte}, {@code b} to {@link Boolean},
+ * {@code n}/{@code q} to {@link Short}, {@code i}/{@code u} to {@link Integer}, {@code x}/{@code t}
+ * to {@link Long}, {@code d} to {@link Double}, {@code s}/{@code o}/{@code g} to {@link String},
+ * arrays to {@link List}, dictionaries to {@link java.util.Map}, structs to {@link List} and
+ * variants to {@link Variant}.
+ */
+final class DBusTypes {
+
+    private DBusTypes() {
+    }
+
+    /**
+     * Splits a signature into its complete types, for example {@code "sa{sv}"} into {@code "s"} and {@code "a{sv}"}.
+     */
+    static List<String> split(String signature) {
+        List<String> types = new ArrayList<>();
+        for (int i = 0; i < signature.length(); ) {
+            int end = end(signature, i);
+            types.add(signature.substring(i, end));
+            i = end;
+        }
+        return types;
+    }
+
+    /**
+     * Returns the index just after the complete type that starts at {@code start}.
+     */
+    static int end(String signature, int start) {
+        if (start >= signature.length()) {
+            throw new IllegalArgumentException("Incomplete D-Bus signature " + signature);
+        }
+        char c = signature.charAt(start);
+        return switch (c) {
+            case 'a' -> end(signature, start + 1);
+            case '(', '{' -> {
+                char close = c == '(' ? ')' : '}';
+                int i = start + 1;
+                while (i >= signature.length() || signature.charAt(i) != close) {
+                    i = end(signature, i);
+                }
+                yield i + 1;
+            }
+            default -> start + 1;
+        };
+    }
+
+    /**
+     * Returns the alignment in bytes of values of the given type.
+     */
+    static int alignment(char type) {
+        return switch (type) {
+            case 'y', 'g', 'v' -> 1;
+            case 'n', 'q' -> 2;
+            case 'x', 't', 'd', '(', '{' -> 8;
+            default -> 4;
+        };
+    }
+
+    /**
+     * A value together with its type signature.
+     *
+     * @param signature the signature of the value
+     * @param value     the value
+     */
+    record Variant(String signature, Object value) {
+    }
+}
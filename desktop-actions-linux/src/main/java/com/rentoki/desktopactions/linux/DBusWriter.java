@@ -0,0 +1,144 @@
+package com.rentoki.desktopactions.linux;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Marshals values into the little-endian D-Bus wire format.
+ */
+final class DBusWriter {
+    private byte[] buffer = new byte[256];
+    private int position;
+
+    /**
+     * Writes values of the given signature, one value per complete type.
+     */
+    DBusWriter write(String signature, List<?> values) {
+        List<String> types = DBusTypes.split(signature);
+        if (types.size() != values.size()) {
+            throw new IllegalArgumentException("Signature " + signature + " does not match " + values.size() + " values");
+        }
+        for (int i = 0; i < types.size(); i++) {
+            writeValue(types.get(i), values.get(i));
+        }
+        return this;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    int position() {
+        return position;
+    }
+
+    void align(int alignment) {
+        while (position % alignment != 0) {
+            writeByte(0);
+        }
+    }
+
+    void writeByte(int value) {
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeUInt32(int value) {
+        align(4);
+        ensure(4);
+        ByteBuffer.wrap(buffer, position, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(value);
+        position += 4;
+    }
+
+    private void writeValue(String type, Object value) {
+        switch (type.charAt(0)) {
+            case 'y' -> writeByte(((Number) value).byteValue());
+            case 'b' -> writeUInt32((Boolean) value ? 1 : 0);
+            case 'n', 'q' -> {
+                align(2);
+                ensure(2);
+                ByteBuffer.wrap(buffer, position, 2).order(ByteOrder.LITTLE_ENDIAN).putShort(((Number) value).shortValue());
+                position += 2;
+            }
+            case 'i', 'u' -> writeUInt32(((Number) value).intValue());
+            case 'x', 't' -> writeInt64(((Number) value).longValue());
+            case 'd' -> writeInt64(Double.doubleToLongBits(((Number) value).doubleValue()));
+            case 's', 'o' -> writeString((String) value);
+            case 'g' -> writeSignature((String) value);
+            case 'v' -> {
+                DBusTypes.Variant variant = (DBusTypes.Variant) value;
+                writeSignature(variant.signature());
+                writeValue(variant.signature(), variant.value());
+            }
+            case 'a' -> writeArray(type.substring(1), value);
+            case '(' -> {
+                align(8);
+                List<String> fields = DBusTypes.split(type.substring(1, type.length() - 1));
+                List<?> values = (List<?>) value;
+                for (int i = 0; i < fields.size(); i++) {
+                    writeValue(fields.get(i), values.get(i));
+                }
+            }
+            default -> throw new IllegalArgumentException("Unsupported D-Bus type " + type);
+        }
+    }
+
+    private void writeArray(String elementType, Object value) {
+        writeUInt32(0);
+        int lengthPosition = position - 4;
+        align(DBusTypes.alignment(elementType.charAt(0)));
+        int start = position;
+
+        if (elementType.charAt(0) == '{') {
+            List<String> entry = DBusTypes.split(elementType.substring(1, elementType.length() - 1));
+            for (Map.Entry<?, ?> item : ((Map<?, ?>) value).entrySet()) {
+                align(8);
+                writeValue(entry.get(0), item.getKey());
+                writeValue(entry.get(1), item.getValue());
+            }
+        } else {
+            for (Object item : (List<?>) value) {
+                writeValue(elementType, item);
+            }
+        }
+
+        ByteBuffer.wrap(buffer, lengthPosition, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(position - start);
+    }
+
+    private void writeInt64(long value) {
+        align(8);
+        ensure(8);
+        ByteBuffer.wrap(buffer, position, 8).order(ByteOrder.LITTLE_ENDIAN).putLong(value);
+        position += 8;
+    }
+
+    private void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUInt32(bytes.length);
+        writeBytes(bytes);
+        writeByte(0);
+    }
+
+    private void writeSignature(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        writeByte(bytes.length);
+        writeBytes(bytes);
+        writeByte(0);
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void ensure(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+        }
+    }
+}
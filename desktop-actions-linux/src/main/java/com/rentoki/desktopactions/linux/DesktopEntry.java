@@ -0,0 +1,148 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An application described by a {@code .desktop} file of the Desktop Entry Specification.
+ */
+final class DesktopEntry {
+    private static final String GROUP = "Desktop Entry";
+
+    private final String id;
+    private final Path path;
+    private final String name;
+    private final String exec;
+    private final String tryExec;
+    private final String workingDirectory;
+    private final String icon;
+    private final boolean terminal;
+    private final boolean hidden;
+    private final List<String> mimeTypes;
+    private volatile List<String> execTokens;
+
+    DesktopEntry(String id, Path path, String name, String exec, String tryExec, String workingDirectory,
+                 String icon, boolean terminal, boolean hidden, List<String> mimeTypes) {
+        this.id = id;
+        this.path = path;
+        this.name = name;
+        this.exec = exec;
+        this.tryExec = tryExec;
+        this.workingDirectory = workingDirectory;
+        this.icon = icon;
+        this.terminal = terminal;
+        this.hidden = hidden;
+        this.mimeTypes = mimeTypes;
+    }
+
+    static DesktopEntry parse(String id, Path file) throws IOException {
+        KeyFile keyFile = KeyFile.parse(file);
+        return new DesktopEntry(
+                id,
+                file,
+                keyFile.getString(GROUP, "Name"),
+                keyFile.getString(GROUP, "Exec"),
+                keyFile.getString(GROUP, "TryExec"),
+                keyFile.getString(GROUP, "Path"),
+                keyFile.getString(GROUP, "Icon"),
+                keyFile.getBoolean(GROUP, "Terminal"),
+                keyFile.getBoolean(GROUP, "Hidden"),
+                keyFile.getList(GROUP, "MimeType"));
+    }
+
+    /**
+     * Finds the installed desktop entry with the given id.
+     *
+     * <p>Following the specification, the id {@code foo-bar.desktop} may also be installed as
+     * {@code foo/bar.desktop}. Directories are searched in order and the first match wins.
+     * Hidden entries count as not installed.
+     */
+    static Optional<DesktopEntry> find(String id, List<Path> applicationDirs) {
+        for (Path dir : applicationDirs) {
+            for (Path candidate : candidates(dir, id)) {
+                if (!Files.isRegularFile(candidate)) {
+                    continue;
+                }
+
+                try {
+                    DesktopEntry entry = parse(id, candidate);
+                    return entry.isHidden() || entry.getExec() == null ? Optional.empty() : Optional.of(entry);
+                } catch (IOException e) {
+                    return Optional.empty();
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<Path> candidates(Path dir, String id) {
+        List<Path> candidates = new ArrayList<>();
+        candidates.add(dir.resolve(id));
+        for (int dash = id.indexOf('-'); dash > 0; dash = id.indexOf('-', dash + 1)) {
+            Path subdir = dir.resolve(id.substring(0, dash));
+            if (Files.isDirectory(subdir)) {
+                candidates.addAll(candidates(subdir, id.substring(dash + 1)));
+            }
+        }
+        return candidates;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getExec() {
+        return exec;
+    }
+
+    /**
+     * Returns the {@code Exec} value split into arguments that still contain their field codes.
+     * The value is only tokenized on first use, so launching a shared entry again skips parsing.
+     *
+     * @throws IllegalArgumentException if a quoted argument is not terminated
+     */
+    List<String> getExecTokens() {
+        List<String> tokens = execTokens;
+        if (tokens == null) {
+            tokens = List.copyOf(ExecLine.tokenize(exec));
+            execTokens = tokens;
+        }
+        return tokens;
+    }
+
+    String getTryExec() {
+        return tryExec;
+    }
+
+    String getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    String getIcon() {
+        return icon;
+    }
+
+    boolean isTerminal() {
+        return terminal;
+    }
+
+    boolean isHidden() {
+        return hidden;
+    }
+
+    List<String> getMimeTypes() {
+        return mimeTypes;
+    }
+}
@@ -0,0 +1,222 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * A binary snapshot of a {@link DesktopEntryIndex}, so that a new JVM can load the index without
+ * parsing any desktop files.
+ *
+ * <p>The snapshot stores the modification time of every application directory and subdirectory it
+ * was built from. Installing, removing or replacing a desktop file changes the time of its
+ * directory, so a snapshot whose directory times all still match is current. Files edited in place
+ * do not change it; such edits are picked up by the index's watcher while it runs, or once the
+ * directory changes. The file is memory-mapped for reading and replaced atomically when written.
+ */
+final class DesktopEntryCache {
+    static final String FILE_NAME = "desktop-entries.bin";
+
+    private static final int MAGIC = 0x44414531;
+    private static final int VERSION = 1;
+    private static final long MISSING = -1;
+
+    /**
+     * Directory times younger than this are not trusted, as a change within the same clock tick
+     * would go unnoticed.
+     */
+    private static final Duration CLOCK_GRANULARITY = Duration.ofSeconds(2);
+
+    private DesktopEntryCache() {
+    }
+
+    /**
+     * Returns the default location of the snapshot below {@code $XDG_CACHE_HOME}.
+     */
+    static Path location(XdgDirectories dirs) {
+        return dirs.getCacheHome().resolve("desktop-actions").resolve(FILE_NAME);
+    }
+
+    /**
+     * Returns the modification time in milliseconds of every root and every directory below it,
+     * or {@link #MISSING} for a root that does not exist.
+     */
+    static Map<Path, Long> directoryTimes(List<Path> roots) {
+        Map<Path, Long> times = new LinkedHashMap<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                times.put(root, MISSING);
+                continue;
+            }
+
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(Files::isDirectory).forEach(directory -> times.put(directory, modified(directory)));
+            } catch (IOException | RuntimeException e) {
+                times.put(root, MISSING);
+            }
+        }
+        return times;
+    }
+
+    private static long modified(Path directory) {
+        try {
+            return Files.readAttributes(directory, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS)
+                    .lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * Reads the snapshot if it exists and was built from directories with exactly the given times.
+     */
+    static Optional<Map<String, DesktopEntry>> read(Path file, Map<Path, Long> times) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return Optional.empty();
+            }
+
+            int directories = buffer.getInt();
+            if (directories != times.size()) {
+                return Optional.empty();
+            }
+            for (int i = 0; i < directories; i++) {
+                Path directory = Path.of(readString(buffer));
+                if (!Long.valueOf(buffer.getLong()).equals(times.get(directory))) {
+                    return Optional.empty();
+                }
+            }
+
+            int count = readCount(buffer);
+            Map<String, DesktopEntry> entries = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                String id = readString(buffer);
+                Path path = Path.of(readString(buffer));
+                String name = readString(buffer);
+                String exec = readString(buffer);
+                String tryExec = readString(buffer);
+                String workingDirectory = readString(buffer);
+                String icon = readString(buffer);
+                boolean terminal = buffer.get() != 0;
+                int mimeTypeCount = readCount(buffer);
+                List<String> mimeTypes = new ArrayList<>(mimeTypeCount);
+                for (int j = 0; j < mimeTypeCount; j++) {
+                    mimeTypes.add(readString(buffer));
+                }
+                entries.put(id, new DesktopEntry(id, path, name, exec, tryExec, workingDirectory, icon,
+                        terminal, false, List.copyOf(mimeTypes)));
+            }
+            return Optional.of(entries);
+        } catch (IOException | RuntimeException e) {
+            // A truncated or corrupt snapshot is rebuilt like a stale one.
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes the snapshot of entries built from directories with the given times. Nothing is written
+     * if a directory changed too recently to be validated later.
+     *
+     * @return whether the snapshot was written
+     */
+    static boolean write(Path file, Map<Path, Long> times, Map<String, DesktopEntry> entries) throws IOException {
+        long now = System.currentTimeMillis();
+        for (long modified : times.values()) {
+            if (modified != MISSING && now - modified < CLOCK_GRANULARITY.toMillis()) {
+                return false;
+            }
+        }
+
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), FILE_NAME, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(times.size());
+                for (Map.Entry<Path, Long> time : times.entrySet()) {
+                    writeString(out, time.getKey().toString());
+                    out.writeLong(time.getValue());
+                }
+
+                out.writeInt(entries.size());
+                for (DesktopEntry entry : entries.values()) {
+                    writeString(out, entry.getId());
+                    writeString(out, entry.getPath().toString());
+                    writeString(out, entry.getName());
+                    writeString(out, entry.getExec());
+                    writeString(out, entry.getTryExec());
+                    writeString(out, entry.getWorkingDirectory());
+                    writeString(out, entry.getIcon());
+                    out.writeByte(entry.isTerminal() ? 1 : 0);
+                    out.writeInt(entry.getMimeTypes().size());
+                    for (String mimeType : entry.getMimeTypes()) {
+                        writeString(out, mimeType);
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads an element count, rejecting counts that cannot fit in the rest of the buffer.
+     */
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new BufferUnderflowException();
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
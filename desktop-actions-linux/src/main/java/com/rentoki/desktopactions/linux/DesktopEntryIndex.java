@@ -0,0 +1,267 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the installed desktop entries, keyed by desktop file id and by the MIME types
+ * (including {@code x-scheme-handler/*} types) they declare.
+ *
+ * <p>All {@code .desktop} files of the application directories are parsed in parallel when the
+ * index is loaded. Lookups then read an immutable snapshot without locking or file I/O. If the
+ * index watches its directories, a changed file is parsed again on its own and swapped into a new
+ * snapshot; only a dropped event or a new subdirectory causes a full reload.
+ *
+ * <p>As in {@link DesktopEntry#find(String, List)}, an entry in an earlier directory hides entries
+ * with the same id in later ones, and hidden entries or entries without {@code Exec} count as
+ * not installed.
+ */
+final class DesktopEntryIndex implements Closeable {
+    private static final String SUFFIX = ".desktop";
+
+    private final List<Path> roots;
+    private final Path cacheFile;
+    private final Runnable listener;
+    private volatile DirectoryWatcher watcher;
+    private volatile Snapshot snapshot;
+
+    private DesktopEntryIndex(List<Path> roots, Path cacheFile, Runnable listener, boolean watch) {
+        this.roots = roots;
+        this.cacheFile = cacheFile;
+        this.listener = listener;
+        this.snapshot = Snapshot.of(loadOrScan());
+        this.watcher = watch ? watch() : null;
+    }
+
+    /**
+     * Loads the index of the given application directories without watching them.
+     */
+    static DesktopEntryIndex load(List<Path> roots) {
+        return new DesktopEntryIndex(roots, null, () -> { }, false);
+    }
+
+    /**
+     * Loads the index and keeps it up to date. The listener runs after every change to any file in
+     * the application directories, including files that are not desktop entries.
+     */
+    static DesktopEntryIndex watch(List<Path> roots, Runnable listener) {
+        return new DesktopEntryIndex(roots, null, listener, true);
+    }
+
+    /**
+     * Like {@link #watch(List, Runnable)}, but loads the index from a {@link DesktopEntryCache}
+     * snapshot when it is current, and writes a new snapshot after every full scan.
+     */
+    static DesktopEntryIndex watch(List<Path> roots, Path cacheFile, Runnable listener) {
+        return new DesktopEntryIndex(roots, cacheFile, listener, true);
+    }
+
+    /**
+     * Returns the installed entry with the given desktop file id.
+     */
+    Optional<DesktopEntry> find(String id) {
+        return Optional.ofNullable(snapshot.byId.get(id));
+    }
+
+    /**
+     * Returns the entries that declare the MIME type, ordered by id.
+     */
+    List<DesktopEntry> handlersFor(String mimeType) {
+        return snapshot.byMimeType.getOrDefault(mimeType, List.of());
+    }
+
+    /**
+     * Returns the entries that declare {@code x-scheme-handler/<scheme>}, ordered by id.
+     */
+    List<DesktopEntry> handlersForScheme(String scheme) {
+        return handlersFor(LinuxDesktopBackend.SCHEME_HANDLER_PREFIX + scheme);
+    }
+
+    /**
+     * Returns all installed entries.
+     */
+    Collection<DesktopEntry> entries() {
+        return snapshot.byId.values();
+    }
+
+    /**
+     * Returns whether the index is kept up to date. Once its watcher has stopped, it no longer is.
+     */
+    boolean isWatching() {
+        DirectoryWatcher current = watcher;
+        if (current != null && !current.isRunning()) {
+            watcher = null;
+            return false;
+        }
+        return current != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        DirectoryWatcher current = watcher;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private DirectoryWatcher watch() {
+        try {
+            List<Path> directories = new ArrayList<>();
+            for (Path root : roots) {
+                directories.addAll(subdirectories(root));
+            }
+            return DirectoryWatcher.start(directories, this::changed);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void changed(Path file) {
+        if (file == null || Files.isDirectory(file)) {
+            DirectoryWatcher current = watcher;
+            if (file != null && current != null) {
+                try {
+                    for (Path directory : subdirectories(file)) {
+                        current.register(directory);
+                    }
+                } catch (IOException | UncheckedIOException e) {
+                    // Entries in the new directory are still indexed by the reload below.
+                }
+            }
+            snapshot = Snapshot.of(loadOrScan());
+        } else {
+            idOf(file).ifPresent(this::update);
+        }
+        listener.run();
+    }
+
+    /**
+     * Parses the current winner of the id again and swaps it into a new snapshot.
+     */
+    private void update(String id) {
+        Map<String, DesktopEntry> entries = new HashMap<>(snapshot.byId);
+        Optional<DesktopEntry> entry = DesktopEntry.find(id, roots);
+        if (entry.isPresent()) {
+            entries.put(id, entry.get());
+        } else {
+            entries.remove(id);
+        }
+        snapshot = Snapshot.of(entries);
+    }
+
+    private Optional<String> idOf(Path file) {
+        if (!file.getFileName().toString().endsWith(SUFFIX)) {
+            return Optional.empty();
+        }
+        for (Path root : roots) {
+            if (file.startsWith(root)) {
+                return Optional.of(root.relativize(file).toString().replace('/', '-'));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Map<String, DesktopEntry> loadOrScan() {
+        if (cacheFile == null) {
+            return scan(roots);
+        }
+
+        // Directory times are taken before scanning, so a change during the scan invalidates the snapshot.
+        Map<Path, Long> times = DesktopEntryCache.directoryTimes(roots);
+        Optional<Map<String, DesktopEntry>> cached = DesktopEntryCache.read(cacheFile, times);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Map<String, DesktopEntry> entries = scan(roots);
+        try {
+            DesktopEntryCache.write(cacheFile, times, entries);
+        } catch (IOException | RuntimeException e) {
+            // Without a snapshot the next JVM scans again.
+        }
+        return entries;
+    }
+
+    /**
+     * Finds every desktop file and parses them in parallel, keeping the first of each id.
+     */
+    private static Map<String, DesktopEntry> scan(List<Path> roots) {
+        Map<String, Path> files = new LinkedHashMap<>();
+        for (Path root : roots) {
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+
+            try (Stream<Path> walk = Files.walk(root)) {
+                walk.filter(file -> file.getFileName().toString().endsWith(SUFFIX))
+                        .sorted()
+                        .forEach(file -> files.putIfAbsent(root.relativize(file).toString().replace('/', '-'), file));
+            } catch (IOException | RuntimeException e) {
+                // An unreadable directory contributes no entries.
+            }
+        }
+
+        Map<String, DesktopEntry> entries = new HashMap<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<DesktopEntry>> parses = new LinkedHashMap<>();
+            files.forEach((id, file) -> parses.put(id, executor.submit(() -> DesktopEntry.parse(id, file))));
+
+            parses.forEach((id, parse) -> {
+                try {
+                    DesktopEntry entry = parse.get();
+                    if (!entry.isHidden() && entry.getExec() != null) {
+                        entries.put(id, entry);
+                    }
+                } catch (ExecutionException e) {
+                    // A malformed or unreadable entry counts as not installed.
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        return entries;
+    }
+
+    private static List<Path> subdirectories(Path root) throws IOException {
+        if (!Files.isDirectory(root)) {
+            return List.of();
+        }
+        try (Stream<Path> walk = Files.walk(root)) {
+            return walk.filter(Files::isDirectory).toList();
+        }
+    }
+
+    private record Snapshot(Map<String, DesktopEntry> byId, Map<String, List<DesktopEntry>> byMimeType) {
+
+        static Snapshot of(Map<String, DesktopEntry> entries) {
+            Map<String, List<DesktopEntry>> byMimeType = new HashMap<>();
+            for (DesktopEntry entry : entries.values()) {
+                for (String mimeType : entry.getMimeTypes()) {
+                    byMimeType.computeIfAbsent(mimeType, type -> new ArrayList<>()).add(entry);
+                }
+            }
+            byMimeType.replaceAll((type, list) -> {
+                list.sort(Comparator.comparing(DesktopEntry::getId));
+                return List.copyOf(list);
+            });
+            return new Snapshot(Collections.unmodifiableMap(entries), byMimeType);
+        }
+    }
+}
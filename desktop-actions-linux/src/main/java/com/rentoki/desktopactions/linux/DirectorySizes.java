@@ -0,0 +1,270 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The size of a trash directory, kept up to date incrementally.
+ *
+ * <p>The size of every item is remembered in memory together with the modification time and file
+ * key of its {@code .trashinfo} file. A query lists the {@code info} directory only when its
+ * modification time has changed, and then measures just the items that were added or whose
+ * {@code .trashinfo} file changed since the last query, such as a name that was purged and reused,
+ * and forgets the ones that were removed. An item whose file was not moved in yet is measured again
+ * on the next update. Sizes of trashed directories are shared with other applications through the
+ * {@code directorysizes} cache file of the Trash Specification, whose entries are valid as long as
+ * the item's {@code .trashinfo} file keeps its modification time.
+ */
+final class DirectorySizes {
+    static final String FILE_NAME = "directorysizes";
+
+    /**
+     * Modification times this recent are not trusted, as a further change within the same tick of
+     * a coarse file system clock (FAT has two seconds) would go unnoticed.
+     */
+    private static final Duration CLOCK_GRANULARITY = Duration.ofSeconds(2);
+    private static final Map<Path, DirectorySizes> INSTANCES = new ConcurrentHashMap<>();
+
+    private final TrashDirectory directory;
+    private final Map<String, Known> sizes = new HashMap<>();
+    private long total;
+    private FileTime listed;
+
+    private DirectorySizes(TrashDirectory directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the shared size tracker of a trash directory.
+     */
+    static DirectorySizes of(TrashDirectory directory) {
+        return INSTANCES.computeIfAbsent(directory.getRoot(), root -> new DirectorySizes(directory));
+    }
+
+    /**
+     * Returns the total size in bytes of the items in this trash directory.
+     */
+    synchronized long total() throws IOException {
+        if (!Files.isDirectory(directory.getInfo())) {
+            sizes.clear();
+            total = 0;
+            listed = null;
+            return 0;
+        }
+
+        FileTime modified = Files.getLastModifiedTime(directory.getInfo());
+        if (!modified.equals(listed) || isRecent(modified)) {
+            update();
+            listed = modified;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the size of one item, measuring it if it has not been seen yet.
+     */
+    synchronized long sizeOf(String name) throws IOException {
+        Known known = sizes.get(name);
+        if (known != null) {
+            return known.size();
+        }
+
+        Path item = directory.getFiles().resolve(name);
+        return Files.isDirectory(item, LinkOption.NOFOLLOW_LINKS) ? sizeOf(item) : sizeOfFile(item);
+    }
+
+    /**
+     * Forgets the size of a purged item, so the next {@link #total()} does not need to stat it.
+     */
+    synchronized void removed(String name) {
+        Known known = sizes.remove(name);
+        if (known != null) {
+            total -= known.size();
+        }
+    }
+
+    private void update() throws IOException {
+        Set<String> present = new HashSet<>();
+        Map<String, Entry> cache = null;
+        boolean cacheChanged = false;
+
+        try (DirectoryStream<Path> infos = Files.newDirectoryStream(directory.getInfo(), "*" + TrashDirectory.INFO_SUFFIX)) {
+            for (Path info : infos) {
+                String fileName = info.getFileName().toString();
+                String name = fileName.substring(0, fileName.length() - TrashDirectory.INFO_SUFFIX.length());
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(info, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                present.add(name);
+                Known known = sizes.get(name);
+                if (known != null && known.isCurrent(attributes)) {
+                    continue;
+                } else if (known != null) {
+                    total -= known.size();
+                }
+
+                Path item = directory.getFiles().resolve(name);
+                boolean exists = Files.exists(item, LinkOption.NOFOLLOW_LINKS);
+                long size;
+                if (!exists) {
+                    size = 0;
+                } else if (Files.isDirectory(item, LinkOption.NOFOLLOW_LINKS)) {
+                    if (cache == null) {
+                        cache = read(directory);
+                    }
+                    long infoModified = attributes.lastModifiedTime().toMillis() / 1000;
+                    Entry cached = cache.get(name);
+                    if (cached != null && cached.modified() == infoModified) {
+                        size = cached.size();
+                    } else {
+                        size = sizeOf(item);
+                        cache.put(name, new Entry(size, infoModified));
+                        cacheChanged = true;
+                    }
+                } else {
+                    size = sizeOfFile(item);
+                }
+                sizes.put(name, new Known(size, attributes.lastModifiedTime(), attributes.fileKey(), exists));
+                total += size;
+            }
+        }
+
+        Iterator<Map.Entry<String, Known>> known = sizes.entrySet().iterator();
+        while (known.hasNext()) {
+            Map.Entry<String, Known> entry = known.next();
+            if (!present.contains(entry.getKey())) {
+                total -= entry.getValue().size();
+                known.remove();
+            }
+        }
+
+        if (cache != null) {
+            cacheChanged |= cache.keySet().retainAll(present);
+            if (cacheChanged) {
+                write(directory, cache);
+            }
+        }
+    }
+
+    private static boolean isRecent(FileTime modified) {
+        return System.currentTimeMillis() - modified.toMillis() < CLOCK_GRANULARITY.toMillis();
+    }
+
+    private static long sizeOfFile(Path item) throws IOException {
+        try {
+            return Files.readAttributes(item, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS).size();
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the total size of the files in a directory tree, without following symbolic links.
+     */
+    static long sizeOf(Path tree) throws IOException {
+        long[] size = {0};
+        Files.walkFileTree(tree, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                size[0] += attributes.size();
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return size[0];
+    }
+
+    /**
+     * Reads the {@code directorysizes} file. Each line holds the size in bytes, the modification time
+     * of the {@code .trashinfo} file in seconds and the percent-encoded name of the directory.
+     */
+    static Map<String, Entry> read(TrashDirectory directory) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        Path file = directory.getRoot().resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ", 3);
+                if (fields.length < 3) {
+                    continue;
+                }
+                try {
+                    entries.put(TrashDirectory.decodePath(fields[2]), new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+                } catch (NumberFormatException e) {
+                    // Skip malformed lines, as other implementations do.
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Replaces the {@code directorysizes} file atomically, so readers never see a partial file.
+     */
+    static void write(TrashDirectory directory, Map<String, Entry> entries) throws IOException {
+        Path file = directory.getRoot().resolve(FILE_NAME);
+        Path temp = Files.createTempFile(directory.getRoot(), FILE_NAME, ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getValue().size() + " " + entry.getValue().modified() + " "
+                            + TrashDirectory.encodePath(entry.getKey()) + "\n");
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The remembered size of an item and the {@code .trashinfo} file it was measured for.
+     */
+    private record Known(long size, FileTime infoModified, Object infoKey, boolean exists) {
+
+        boolean isCurrent(BasicFileAttributes info) {
+            return exists && infoModified.equals(info.lastModifiedTime()) && Objects.equals(infoKey, info.fileKey());
+        }
+    }
+
+    /**
+     * A line of the {@code directorysizes} file.
+     *
+     * @param size     the size of the directory in bytes
+     * @param modified the modification time of the directory's {@code .trashinfo} file, in seconds
+     */
+    record Entry(long size, long modified) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.function.Consumer;
+
+/**
+ * Watches a fixed set of directories and reports every file that is created, modified or deleted
+ * in them.
+ *
+ * <p>Events are delivered on a virtual thread, one at a time. The listener receives the path of
+ * the changed file, or {@code null} if the platform dropped events and anything may have changed.
+ * Directories that do not exist when watching starts are not watched.
+ *
+ * <p>If the listener throws for a file, it is called again with {@code null}, so that it can
+ * reload everything instead. If that throws too, watching stops and {@link #isRunning()} returns
+ * {@code false}, so that owners stop relying on the watcher.
+ */
+final class DirectoryWatcher implements Closeable {
+    private final WatchService service;
+    private volatile boolean running = true;
+
+    private DirectoryWatcher(WatchService service) {
+        this.service = service;
+    }
+
+    /**
+     * Starts watching the given directories.
+     *
+     * @throws IOException if the platform cannot watch them
+     */
+    static DirectoryWatcher start(Collection<Path> directories, Consumer<Path> listener) throws IOException {
+        WatchService service = FileSystems.getDefault().newWatchService();
+        try {
+            for (Path directory : new LinkedHashSet<>(directories)) {
+                if (Files.isDirectory(directory)) {
+                    register(service, directory);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            service.close();
+            throw e;
+        }
+
+        DirectoryWatcher watcher = new DirectoryWatcher(service);
+        Thread.ofVirtual().name("desktop-actions-watcher").start(() -> watcher.run(listener));
+        return watcher;
+    }
+
+    /**
+     * Starts watching one more directory, for example one that was created after watching started.
+     */
+    void register(Path directory) throws IOException {
+        register(service, directory);
+    }
+
+    private static void register(WatchService service, Path directory) throws IOException {
+        directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+
+    /**
+     * Returns whether events are still being delivered.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        service.close();
+    }
+
+    private void run(Consumer<Path> listener) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Path file = event.kind() == StandardWatchEventKinds.OVERFLOW
+                            ? null
+                            : directory.resolve((Path) event.context());
+                    if (!deliver(listener, file)) {
+                        return;
+                    }
+                }
+                key.reset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Closed.
+        } finally {
+            running = false;
+        }
+    }
+
+    private boolean deliver(Consumer<Path> listener, Path file) {
+        try {
+            listener.accept(file);
+            return true;
+        } catch (RuntimeException e) {
+            // For example a directory that disappeared while the listener walked it.
+        }
+
+        if (file != null) {
+            try {
+                listener.accept(null);
+                return true;
+            } catch (RuntimeException e) {
+                // Stop below.
+            }
+        }
+
+        try {
+            close();
+        } catch (IOException e) {
+            // Not delivering anything more either way.
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package com.rentoki.desktopactions.linux;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits and expands the {@code Exec} key of a desktop entry into a command line.
+ *
+ * <p>Quoting follows the Desktop Entry Specification: arguments are separated by spaces, may be
+ * enclosed in double quotes, and inside quotes the characters {@code " ` $ \} are escaped with a
+ * backslash. The file and URL field codes ({@code %f %F %u %U}) are replaced by the targets,
+ * {@code %%} becomes a literal percent sign and all other field codes are removed. When the desktop
+ * entry is known, {@code %i} becomes {@code --icon <Icon>}, {@code %c} its name and {@code %k} the
+ * path of its file.
+ */
+final class ExecLine {
+
+    private ExecLine() {
+    }
+
+    /**
+     * Splits an unescaped Exec value into arguments, still containing their field codes.
+     *
+     * @throws IllegalArgumentException if a quoted argument is not terminated
+     */
+    static List<String> tokenize(String exec) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inToken = false;
+        boolean quoted = false;
+
+        for (int i = 0; i < exec.length(); i++) {
+            char c = exec.charAt(i);
+            if (quoted) {
+                if (c == '\\' && i + 1 < exec.length()) {
+                    current.append(exec.charAt(++i));
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inToken = true;
+            } else if (c == ' ' || c == '\t') {
+                if (inToken) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    inToken = false;
+                }
+            } else if (c == '\\' && i + 1 < exec.length()) {
+                current.append(exec.charAt(++i));
+                inToken = true;
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote in Exec line: " + exec);
+        }
+        if (inToken) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Replaces the field codes of the tokens with the given targets.
+     */
+    static List<String> expand(List<String> tokens, List<URI> targets) {
+        return expand(tokens, targets, null);
+    }
+
+    /**
+     * Replaces the field codes of the tokens with the given targets and the details of the entry
+     * the tokens belong to, or drops the entry's codes if it is {@code null}.
+     */
+    static List<String> expand(List<String> tokens, List<URI> targets, DesktopEntry entry) {
+        List<String> command = new ArrayList<>(tokens.size() + targets.size());
+        for (String token : tokens) {
+            if (token.equals("%F")) {
+                targets.forEach(target -> command.add(toPath(target)));
+            } else if (token.equals("%U")) {
+                targets.forEach(target -> command.add(target.toString()));
+            } else if (token.equals("%i")) {
+                if (entry != null && entry.getIcon() != null && !entry.getIcon().isEmpty()) {
+                    command.add("--icon");
+                    command.add(entry.getIcon());
+                }
+            } else {
+                expandSingle(token, targets, entry, command);
+            }
+        }
+        return command;
+    }
+
+    /**
+     * Returns whether the command accepts several targets in one launch: {@code %U} for any URI,
+     * or {@code %F} for a {@code file:} URI.
+     */
+    static boolean acceptsMany(List<String> tokens, URI target) {
+        return tokens.contains("%U") || tokens.contains("%F") && "file".equalsIgnoreCase(target.getScheme());
+    }
+
+    private static void expandSingle(String token, List<URI> targets, DesktopEntry entry, List<String> command) {
+        if (token.indexOf('%') < 0) {
+            command.add(token);
+            return;
+        }
+
+        StringBuilder argument = new StringBuilder(token.length());
+        boolean dropped = false;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c != '%' || i + 1 == token.length()) {
+                argument.append(c);
+                continue;
+            }
+
+            char code = token.charAt(++i);
+            switch (code) {
+                case '%' -> argument.append('%');
+                case 'f' -> {
+                    if (targets.isEmpty()) {
+                        dropped = true;
+                    } else {
+                        argument.append(toPath(targets.get(0)));
+                    }
+                }
+                case 'u' -> {
+                    if (targets.isEmpty()) {
+                        dropped = true;
+                    } else {
+                        argument.append(targets.get(0));
+                    }
+                }
+                case 'c' -> {
+                    if (entry == null || entry.getName() == null) {
+                        dropped = true;
+                    } else {
+                        argument.append(entry.getName());
+                    }
+                }
+                case 'k' -> {
+                    if (entry == null) {
+                        dropped = true;
+                    } else {
+                        argument.append(entry.getPath());
+                    }
+                }
+                default -> dropped = true;
+            }
+        }
+
+        if (!dropped || !argument.isEmpty()) {
+            command.add(argument.toString());
+        }
+    }
+
+    static String toPath(URI target) {
+        return "file".equalsIgnoreCase(target.getScheme()) ? Path.of(target).toString() : target.toString();
+    }
+}
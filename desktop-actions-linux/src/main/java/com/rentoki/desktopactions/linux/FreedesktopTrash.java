@@ -0,0 +1,127 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves files to the trash as described by the freedesktop.org Trash Specification.
+ *
+ * <p>Files on the same mount as the home trash go to {@code $XDG_DATA_HOME/Trash}. Files on other
+ * mounts go to the trash directory at the top of their own mount, so trashing is always a rename
+ * and never copies data. Mounts are looked up in the {@link MountTable}; if it cannot be read, the
+ * mount root is found by walking up the directory tree while the device stays the same.
+ */
+final class FreedesktopTrash {
+    private final XdgDirectories dirs;
+    private final int uid;
+    private final MountTable mounts;
+
+    FreedesktopTrash(XdgDirectories dirs, int uid) {
+        this(dirs, uid, MountTable.system());
+    }
+
+    FreedesktopTrash(XdgDirectories dirs, int uid, MountTable mounts) {
+        this.dirs = dirs;
+        this.uid = uid;
+        this.mounts = mounts;
+    }
+
+    /**
+     * Moves a file or directory to the trash. Symbolic links are trashed themselves, not their targets.
+     *
+     * @return the path of the file inside the trash
+     */
+    Path trash(Path file) throws IOException {
+        Path source = sourceOf(file);
+        return directoryFor(source).trash(source);
+    }
+
+    /**
+     * Returns the absolute path of the file with its parent directory resolved to its real path.
+     */
+    static Path sourceOf(Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path parent = absolute.getParent();
+        if (parent == null || absolute.getFileName() == null) {
+            throw new IOException("Cannot trash the root directory");
+        }
+        return parent.toRealPath().resolve(absolute.getFileName());
+    }
+
+    /**
+     * Returns the trash directory on the same file system as the source.
+     */
+    TrashDirectory directoryFor(Path source) throws IOException {
+        TrashDirectory home = TrashDirectory.home(dirs);
+        Path homeRoot = nearestExisting(home.getRoot()).toRealPath();
+
+        Optional<MountTable.Mount> mount = mounts.mountOf(source);
+        Path topdir;
+        if (mount.isPresent()) {
+            if (mount.equals(mounts.mountOf(homeRoot))) {
+                return home;
+            }
+            topdir = mount.get().mountPoint();
+        } else {
+            Object device = device(source);
+            if (device.equals(device(homeRoot))) {
+                return home;
+            }
+            topdir = mountRoot(source, device);
+        }
+
+        Optional<TrashDirectory> trash = TrashDirectory.forTopdir(topdir, uid);
+        if (trash.isEmpty()) {
+            throw new IOException("No usable trash directory on the file system mounted at " + topdir);
+        }
+        return trash.get();
+    }
+
+    /**
+     * Returns the trash directory on the same file system as the source, reusing the directory
+     * already resolved for its mount. Sources whose mount is unknown are resolved every time.
+     */
+    TrashDirectory directoryFor(Path source, Map<MountTable.Mount, TrashDirectory> resolved) throws IOException {
+        Optional<MountTable.Mount> mount = mounts.mountOf(source);
+        if (mount.isEmpty()) {
+            return directoryFor(source);
+        }
+        TrashDirectory directory = resolved.get(mount.get());
+        if (directory == null) {
+            directory = directoryFor(source);
+            resolved.put(mount.get(), directory);
+        }
+        return directory;
+    }
+
+    /**
+     * Returns the uid of the current process.
+     */
+    static int currentUid() throws IOException {
+        return (Integer) Files.getAttribute(Path.of("/proc/self"), "unix:uid");
+    }
+
+    private static Path mountRoot(Path source, Object device) throws IOException {
+        Path root = source.getParent();
+        for (Path parent = root.getParent(); parent != null && device.equals(device(parent)); parent = parent.getParent()) {
+            root = parent;
+        }
+        return root;
+    }
+
+    private static Path nearestExisting(Path path) {
+        Path existing = path.toAbsolutePath();
+        while (existing.getParent() != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return existing;
+    }
+
+    private static Object device(Path path) throws IOException {
+        return Files.getAttribute(path, "unix:dev", LinkOption.NOFOLLOW_LINKS);
+    }
+}
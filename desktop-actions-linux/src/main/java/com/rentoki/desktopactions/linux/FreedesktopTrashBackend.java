@@ -0,0 +1,105 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.ActionResult;
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DesktopBackend} that implements the freedesktop.org Trash Specification in plain Java.
+ *
+ * <p>Trashing is a single rename into the trash directory of the file's own file system, so even
+ * very large files and directories are trashed instantly. It works without a display server and
+ * without {@code java.awt}.
+ *
+ * @author Rentoki
+ */
+public final class FreedesktopTrashBackend implements DesktopBackend {
+    private final Map<String, String> env;
+
+    public FreedesktopTrashBackend() {
+        this(System.getenv());
+    }
+
+    FreedesktopTrashBackend(Map<String, String> env) {
+        this.env = env;
+    }
+
+    @Override
+    public String name() {
+        return "freedesktop-trash";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.NATIVE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return PlatformCapabilities.current().isLinux();
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return action == DesktopAction.MOVE_TO_TRASH;
+    }
+
+    @Override
+    public void moveToTrash(File file) throws DesktopActionException {
+        try {
+            trash().trash(file.toPath());
+        } catch (IOException | RuntimeException e) {
+            throw failed(file.toPath(), e);
+        }
+    }
+
+    @Override
+    public BatchResult<Path> moveToTrash(List<Path> paths) {
+        Map<Path, ActionResult> results = new LinkedHashMap<>();
+        FreedesktopTrash trash;
+        try {
+            trash = trash();
+        } catch (IOException | RuntimeException e) {
+            paths.forEach(path -> results.put(path, failure(path, failed(path, e))));
+            return BatchResult.of(results);
+        }
+
+        // Paths of one group can still live on different file systems, for example symbolic links
+        // to another mount, so the trash directory is resolved for every path by its own mount.
+        Map<MountTable.Mount, TrashDirectory> directories = new HashMap<>();
+        for (Path path : paths) {
+            try {
+                Path source = FreedesktopTrash.sourceOf(path);
+                trash.directoryFor(source, directories).trash(source);
+                results.put(path, ActionResult.success(DesktopAction.MOVE_TO_TRASH, path.toString()));
+            } catch (IOException | RuntimeException e) {
+                results.put(path, failure(path, failed(path, e)));
+            }
+        }
+        return BatchResult.of(results);
+    }
+
+    private FreedesktopTrash trash() throws IOException {
+        return new FreedesktopTrash(XdgDirectories.of(env, Path.of(System.getProperty("user.home"))), FreedesktopTrash.currentUid());
+    }
+
+    private static DesktopActionException failed(Path path, Exception cause) {
+        return new DesktopActionException(ErrorMessage.MOVE_TO_TRASH_FAILED.getMessage() + path, cause);
+    }
+
+    private static ActionResult failure(Path path, DesktopActionException error) {
+        return ActionResult.failure(DesktopAction.MOVE_TO_TRASH, path.toString(), error);
+    }
+}
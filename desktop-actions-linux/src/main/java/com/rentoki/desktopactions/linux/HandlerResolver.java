@@ -0,0 +1,176 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Resolves the default application for a MIME type from the user's XDG configuration.
+ *
+ * <p>When {@code mimeapps.list} names no installed handler for the type, the first installed
+ * entry that declares the type in its {@code MimeType} key, by id, is used instead, unless the user
+ * removed that association.
+ *
+ * <p>The {@code mimeapps.list} files are read once and every resolved handler is cached, so
+ * opening a URL costs no file I/O after the first time. Desktop entries are looked up in a
+ * {@link DesktopEntryIndex}, loaded on first use from its {@link DesktopEntryCache} snapshot when
+ * that is current. A {@link DirectoryWatcher} on the configuration
+ * directories and the index's own watcher on the application directories drop the cache whenever
+ * one of their files changes. If the directories cannot be watched, or a watcher has stopped,
+ * nothing is cached and every call reads the {@code mimeapps.list} files again; the entries
+ * declaring a type are then indexed again only when an application directory has changed.
+ */
+final class HandlerResolver implements Closeable {
+    private final XdgDirectories dirs;
+    private final DirectoryWatcher watcher;
+    private volatile DesktopEntryIndex index;
+    private volatile Cache cache = new Cache();
+    private volatile Unwatched unwatched;
+
+    HandlerResolver(XdgDirectories dirs) {
+        this(dirs, true);
+    }
+
+    HandlerResolver(XdgDirectories dirs, boolean watch) {
+        this.dirs = dirs;
+        this.watcher = watch ? watch(dirs) : null;
+    }
+
+    private DirectoryWatcher watch(XdgDirectories dirs) {
+        Set<Path> directories = new LinkedHashSet<>();
+        directories.add(dirs.getConfigHome());
+        directories.addAll(dirs.getConfigDirs());
+
+        try {
+            return DirectoryWatcher.start(directories, changed -> invalidate());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the preferred installed application for the MIME type, or an empty optional if none is associated.
+     */
+    Optional<DesktopEntry> resolve(String mimeType) {
+        DesktopEntryIndex entries = isWatching() ? index() : null;
+        if (entries == null || !entries.isWatching()) {
+            return lookup(MimeAppsList.load(dirs), mimeType, id -> DesktopEntry.find(id, dirs.getApplicationDirs()),
+                    type -> unwatchedIndex().handlersFor(type));
+        }
+
+        // Results computed from a cache that was invalidated meanwhile land in the discarded cache.
+        Cache current = cache;
+        Optional<DesktopEntry> handler = current.handlers.get(mimeType);
+        if (handler == null) {
+            handler = lookup(current.mimeApps(dirs), mimeType, entries::find, entries::handlersFor);
+            current.handlers.putIfAbsent(mimeType, handler);
+        }
+        return handler;
+    }
+
+    /**
+     * Returns the installed desktop entry with the given id.
+     */
+    Optional<DesktopEntry> find(String id) {
+        DesktopEntryIndex entries = isWatching() ? index() : null;
+        if (entries == null || !entries.isWatching()) {
+            return DesktopEntry.find(id, dirs.getApplicationDirs());
+        }
+        return entries.find(id);
+    }
+
+    /**
+     * Drops all cached associations and handlers.
+     */
+    void invalidate() {
+        cache = new Cache();
+    }
+
+    boolean isWatching() {
+        return watcher != null && watcher.isRunning();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+        }
+        DesktopEntryIndex entries = index;
+        if (entries != null) {
+            entries.close();
+        }
+    }
+
+    /**
+     * Returns an index of the application directories for lookups without a watcher. It is loaded
+     * again only when the modification time of one of the directories changed, as for a
+     * {@link DesktopEntryCache} snapshot, so an entry edited in place may be seen late.
+     */
+    private DesktopEntryIndex unwatchedIndex() {
+        // Times are taken before loading, so a change during the load is seen by the next call.
+        Map<Path, Long> times = DesktopEntryCache.directoryTimes(dirs.getApplicationDirs());
+        Unwatched current = unwatched;
+        if (current == null || !current.times().equals(times)) {
+            current = new Unwatched(times, DesktopEntryIndex.load(dirs.getApplicationDirs()));
+            unwatched = current;
+        }
+        return current.index();
+    }
+
+    private DesktopEntryIndex index() {
+        DesktopEntryIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = DesktopEntryIndex.watch(dirs.getApplicationDirs(), DesktopEntryCache.location(dirs), this::invalidate);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Optional<DesktopEntry> lookup(MimeAppsList mimeApps, String mimeType,
+                                                 Function<String, Optional<DesktopEntry>> find,
+                                                 Function<String, List<DesktopEntry>> declared) {
+        for (String id : mimeApps.handlersFor(mimeType)) {
+            Optional<DesktopEntry> entry = find.apply(id);
+            if (entry.isPresent()) {
+                return entry;
+            }
+        }
+
+        Set<String> removed = mimeApps.removedFor(mimeType);
+        for (DesktopEntry entry : declared.apply(mimeType)) {
+            if (!removed.contains(entry.getId())) {
+                return Optional.of(entry);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private record Unwatched(Map<Path, Long> times, DesktopEntryIndex index) {
+    }
+
+    private static final class Cache {
+        private final Map<String, Optional<DesktopEntry>> handlers = new ConcurrentHashMap<>();
+        private volatile MimeAppsList mimeApps;
+
+        MimeAppsList mimeApps(XdgDirectories dirs) {
+            MimeAppsList current = mimeApps;
+            if (current == null) {
+                current = MimeAppsList.load(dirs);
+                mimeApps = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal parser for the freedesktop.org "key file" format used by desktop entries and mimeapps.list.
+ *
+ * <p>Localized keys such as {@code Name[de]} are kept under their full name. Comments, blank lines
+ * and malformed lines are skipped; a later duplicate of a key is ignored.
+ */
+final class KeyFile {
+    private final Map<String, Map<String, String>> groups;
+
+    private KeyFile(Map<String, Map<String, String>> groups) {
+        this.groups = groups;
+    }
+
+    static KeyFile parse(Path file) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        }
+    }
+
+    static KeyFile parse(BufferedReader reader) throws IOException {
+        Map<String, Map<String, String>> groups = new LinkedHashMap<>();
+        Map<String, String> group = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                group = groups.computeIfAbsent(trimmed.substring(1, trimmed.length() - 1), name -> new LinkedHashMap<>());
+                continue;
+            }
+
+            int separator = trimmed.indexOf('=');
+            if (group == null || separator <= 0) {
+                continue;
+            }
+
+            group.putIfAbsent(trimmed.substring(0, separator).strip(), trimmed.substring(separator + 1).strip());
+        }
+
+        return new KeyFile(groups);
+    }
+
+    Map<String, String> group(String name) {
+        return groups.getOrDefault(name, Collections.emptyMap());
+    }
+
+    /**
+     * Returns the unescaped string value of a key, or null if the key is absent.
+     */
+    String getString(String group, String key) {
+        String raw = group(group).get(key);
+        return raw == null ? null : unescape(raw);
+    }
+
+    boolean getBoolean(String group, String key) {
+        return "true".equals(group(group).get(key));
+    }
+
+    /**
+     * Returns the semicolon-separated list value of a key, or an empty list if the key is absent.
+     */
+    List<String> getList(String group, String key) {
+        String raw = group(group).get(key);
+        return raw == null ? List.of() : splitList(raw);
+    }
+
+    static List<String> splitList(String raw) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c == '\\' && i + 1 < raw.length() && raw.charAt(i + 1) == ';') {
+                current.append(';');
+                i++;
+            } else if (c == ';') {
+                addValue(values, current);
+            } else {
+                current.append(c);
+            }
+        }
+        addValue(values, current);
+        return values;
+    }
+
+    private static void addValue(List<String> values, StringBuilder current) {
+        String value = unescape(current.toString().strip());
+        if (!value.isEmpty()) {
+            values.add(value);
+        }
+        current.setLength(0);
+    }
+
+    static String unescape(String raw) {
+        if (raw.indexOf('\\') < 0) {
+            return raw;
+        }
+
+        StringBuilder value = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 == raw.length()) {
+                value.append(c);
+                continue;
+            }
+
+            char next = raw.charAt(++i);
+            switch (next) {
+                case 's' -> value.append(' ');
+                case 'n' -> value.append('\n');
+                case 't' -> value.append('\t');
+                case 'r' -> value.append('\r');
+                case '\\' -> value.append('\\');
+                default -> value.append('\\').append(next);
+            }
+        }
+        return value.toString();
+    }
+}
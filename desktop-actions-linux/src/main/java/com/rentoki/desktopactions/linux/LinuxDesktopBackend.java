@@ -0,0 +1,218 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.ActionResult;
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.LaunchSpec;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link DesktopBackend} for Linux desktops that never touches {@code java.awt}.
+ *
+ * <p>The handler for a URI or file is resolved from the user's {@code mimeapps.list} files and
+ * the matching {@code .desktop} entry, and its {@code Exec} command is started directly, skipping
+ * the {@code xdg-open} and {@code gio}/{@code kde-open} hops. Resolved handlers are cached until
+ * the configuration changes. If no application is associated, {@code xdg-open} is used instead.
+ *
+ * @author Rentoki
+ */
+public final class LinuxDesktopBackend implements DesktopBackend {
+    static final String DIRECTORY_MIME_TYPE = "inode/directory";
+    static final String FALLBACK_MIME_TYPE = "application/octet-stream";
+    static final String SCHEME_HANDLER_PREFIX = "x-scheme-handler/";
+
+    private static final String DESKTOP_SUFFIX = ".desktop";
+
+    private final Map<String, String> env;
+    private final ApplicationLauncher launcher;
+    private volatile HandlerResolver resolver;
+
+    public LinuxDesktopBackend() {
+        this(System.getenv());
+    }
+
+    LinuxDesktopBackend(Map<String, String> env) {
+        this.env = env;
+        this.launcher = new ApplicationLauncher(env);
+    }
+
+    @Override
+    public String name() {
+        return "linux";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.EXEC;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return PlatformCapabilities.current().isLinux() && (isSet("DISPLAY") || isSet("WAYLAND_DISPLAY"));
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return switch (action) {
+            case BROWSE, OPEN_FILE_DIRECTORY, OPEN_FILE_LOCATION, LAUNCH_APPLICATION -> true;
+            default -> false;
+        };
+    }
+
+    @Override
+    public void refresh() {
+        HandlerResolver discarded = resolver;
+        resolver = null;
+        if (discarded != null) {
+            try {
+                discarded.close();
+            } catch (IOException e) {
+                // The watcher is gone either way.
+            }
+        }
+    }
+
+    @Override
+    public void browse(URI uri) throws DesktopActionException {
+        try {
+            launch(mimeTypeOf(uri), uri);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens the URIs with one process per handler whose {@code Exec} line accepts several targets
+     * ({@code %U}, or {@code %F} for files). URIs of other handlers are opened one by one. Each
+     * handler is started by the {@link ApplicationLauncher}, as for a single URI.
+     */
+    @Override
+    public BatchResult<URI> browse(List<URI> uris) {
+        Map<URI, ActionResult> results = new HashMap<>();
+        Map<Path, List<URI>> groups = new LinkedHashMap<>();
+        Map<Path, DesktopEntry> handlers = new HashMap<>();
+        List<URI> single = new ArrayList<>();
+
+        for (URI uri : uris) {
+            try {
+                Optional<DesktopEntry> handler = resolver().resolve(mimeTypeOf(uri));
+                List<String> tokens = handler.isPresent() ? handler.get().getExecTokens() : List.of();
+                if (ExecLine.acceptsMany(tokens, uri)) {
+                    groups.computeIfAbsent(handler.get().getPath(), path -> new ArrayList<>()).add(uri);
+                    handlers.putIfAbsent(handler.get().getPath(), handler.get());
+                } else {
+                    single.add(uri);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                results.put(uri, ActionResult.failure(DesktopAction.BROWSE, uri.toString(),
+                        new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e)));
+            }
+        }
+
+        groups.forEach((handler, group) -> {
+            DesktopActionException error = null;
+            try {
+                launcher.launch(handlers.get(handler), group);
+            } catch (IOException | RuntimeException e) {
+                error = new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e);
+            }
+            for (URI uri : group) {
+                results.put(uri, error == null
+                        ? ActionResult.success(DesktopAction.BROWSE, uri.toString())
+                        : ActionResult.failure(DesktopAction.BROWSE, uri.toString(), error));
+            }
+        });
+
+        if (!single.isEmpty()) {
+            results.putAll(DesktopBackend.super.browse(single).getResults());
+        }
+
+        Map<URI, ActionResult> ordered = new LinkedHashMap<>();
+        for (URI uri : uris) {
+            ordered.put(uri, results.get(uri));
+        }
+        return BatchResult.of(ordered);
+    }
+
+    @Override
+    public void openDirectory(File directory) throws DesktopActionException {
+        try {
+            launch(DIRECTORY_MIME_TYPE, directory.toPath().toAbsolutePath().toUri());
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DesktopActionException(ErrorMessage.OPEN_FILE_DIRECTORY_FAILED.getMessage() + directory.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * Starts the application of the desktop entry like {@code gtk-launch}, see {@link ApplicationLauncher}.
+     */
+    @Override
+    public void launchApplication(String desktopEntryId, List<URI> targets) throws DesktopActionException {
+        String id = desktopEntryId.endsWith(DESKTOP_SUFFIX) ? desktopEntryId : desktopEntryId + DESKTOP_SUFFIX;
+        try {
+            DesktopEntry entry = resolver().find(id)
+                    .orElseThrow(() -> new IOException("Desktop entry " + id + " is not installed"));
+            launcher.launch(entry, targets);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new DesktopActionException(ErrorMessage.LAUNCH_APPLICATION_FAILED.getMessage() + desktopEntryId, e);
+        }
+    }
+
+    private void launch(String mimeType, URI target) throws IOException {
+        Optional<DesktopEntry> handler = resolver().resolve(mimeType);
+        if (handler.isPresent()) {
+            launcher.launch(handler.get(), List.of(target));
+        } else {
+            LaunchSpec.builder(List.of("xdg-open", ExecLine.toPath(target))).build().start();
+        }
+    }
+
+    static String mimeTypeOf(URI uri) throws IOException {
+        if (!"file".equalsIgnoreCase(uri.getScheme())) {
+            return SCHEME_HANDLER_PREFIX + String.valueOf(uri.getScheme()).toLowerCase(Locale.ROOT);
+        }
+
+        Path path = Path.of(uri);
+        if (Files.isDirectory(path)) {
+            return DIRECTORY_MIME_TYPE;
+        }
+
+        String mimeType = Files.probeContentType(path);
+        return mimeType != null ? mimeType : FALLBACK_MIME_TYPE;
+    }
+
+    private HandlerResolver resolver() {
+        HandlerResolver current = resolver;
+        if (current == null) {
+            synchronized (this) {
+                current = resolver;
+                if (current == null) {
+                    current = new HandlerResolver(XdgDirectories.of(env, Path.of(System.getProperty("user.home"))));
+                    resolver = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private boolean isSet(String variable) {
+        String value = env.get(variable);
+        return value != null && !value.isEmpty();
+    }
+}
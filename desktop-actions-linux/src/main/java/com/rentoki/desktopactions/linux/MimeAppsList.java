@@ -0,0 +1,108 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The user's MIME type to application associations, read from the {@code mimeapps.list} files
+ * of the XDG "Association between MIME types and applications" specification.
+ *
+ * <p>Files are consulted in the order given by the specification: desktop-specific files before
+ * generic ones, and the user's configuration before the system's.
+ */
+final class MimeAppsList {
+    private static final String DEFAULT_APPLICATIONS = "Default Applications";
+    private static final String ADDED_ASSOCIATIONS = "Added Associations";
+    private static final String REMOVED_ASSOCIATIONS = "Removed Associations";
+
+    private final List<KeyFile> files;
+
+    private MimeAppsList(List<KeyFile> files) {
+        this.files = files;
+    }
+
+    static MimeAppsList load(XdgDirectories dirs) {
+        List<KeyFile> files = new ArrayList<>();
+        for (Path file : locations(dirs)) {
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+
+            try {
+                files.add(KeyFile.parse(file));
+            } catch (IOException e) {
+                // An unreadable association file is skipped, as if it did not exist.
+            }
+        }
+        return new MimeAppsList(files);
+    }
+
+    /**
+     * Returns the paths of all mimeapps.list files that may exist, most important first.
+     */
+    static List<Path> locations(XdgDirectories dirs) {
+        List<Path> directories = new ArrayList<>();
+        directories.add(dirs.getConfigHome());
+        directories.addAll(dirs.getConfigDirs());
+        directories.add(dirs.getDataHome().resolve("applications"));
+        for (Path dataDir : dirs.getDataDirs()) {
+            directories.add(dataDir.resolve("applications"));
+        }
+
+        List<Path> locations = new ArrayList<>();
+        for (Path directory : directories) {
+            for (String desktop : dirs.getCurrentDesktops()) {
+                locations.add(directory.resolve(desktop + "-mimeapps.list"));
+            }
+            locations.add(directory.resolve("mimeapps.list"));
+        }
+        return locations;
+    }
+
+    /**
+     * Returns the desktop entry ids associated with the MIME type, preferred first.
+     *
+     * <p>Default applications come before added associations. A removed association hides the id
+     * in its own file and in files of lower precedence, but not in more important ones, so a
+     * system-wide removal does not undo an association the user added. The caller picks the first
+     * id that is actually installed.
+     */
+    List<String> handlersFor(String mimeType) {
+        Set<String> handlers = new LinkedHashSet<>();
+        Set<String> added = new LinkedHashSet<>();
+        Set<String> removed = new HashSet<>();
+        for (KeyFile file : files) {
+            removed.addAll(file.getList(REMOVED_ASSOCIATIONS, mimeType));
+            for (String id : file.getList(DEFAULT_APPLICATIONS, mimeType)) {
+                if (!removed.contains(id)) {
+                    handlers.add(id);
+                }
+            }
+            for (String id : file.getList(ADDED_ASSOCIATIONS, mimeType)) {
+                if (!removed.contains(id)) {
+                    added.add(id);
+                }
+            }
+        }
+        handlers.addAll(added);
+        return List.copyOf(handlers);
+    }
+
+    /**
+     * Returns the desktop entry ids removed from the MIME type in any file. All of them apply to
+     * the {@code MimeType} keys of desktop entries, which rank below every {@code mimeapps.list}.
+     */
+    Set<String> removedFor(String mimeType) {
+        Set<String> removed = new HashSet<>();
+        for (KeyFile file : files) {
+            removed.addAll(file.getList(REMOVED_ASSOCIATIONS, mimeType));
+        }
+        return removed;
+    }
+}
@@ -0,0 +1,191 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The mount points of the current process, read from {@code /proc/self/mountinfo}.
+ *
+ * <p>Mount points are kept in a trie of path components, so finding the mount of a path is a
+ * longest-prefix lookup in O(path depth) that needs no system calls. The table is re-read at most
+ * once per staleness interval, and only rebuilt if the content of mountinfo actually changed.
+ * {@link #invalidate()} forces a re-read on the next lookup.
+ */
+final class MountTable {
+    static final Path MOUNTINFO = Path.of("/proc/self/mountinfo");
+    static final Duration DEFAULT_STALENESS = Duration.ofSeconds(1);
+
+    private static final MountTable SYSTEM = new MountTable(MOUNTINFO, DEFAULT_STALENESS);
+
+    private final Path source;
+    private final long stalenessNanos;
+    private volatile Snapshot snapshot;
+
+    MountTable(Path source, Duration staleness) {
+        this.source = source;
+        this.stalenessNanos = staleness.toNanos();
+    }
+
+    /**
+     * Returns the shared table of the current process.
+     */
+    static MountTable system() {
+        return SYSTEM;
+    }
+
+    /**
+     * Returns the mount that contains the given absolute path, or an empty optional if the mount
+     * table cannot be read. Symbolic links in the path are not resolved.
+     */
+    Optional<Mount> mountOf(Path path) {
+        Node node = current().root;
+        Mount mount = node.mount;
+        for (Path component : path.toAbsolutePath().normalize()) {
+            node = node.children.get(component.toString());
+            if (node == null) {
+                break;
+            }
+            if (node.mount != null) {
+                mount = node.mount;
+            }
+        }
+        return Optional.ofNullable(mount);
+    }
+
+    /**
+     * Returns every mount point with its topmost mount, in no particular order.
+     */
+    List<Mount> mounts() {
+        List<Mount> mounts = new ArrayList<>();
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(current().root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            if (node.mount != null) {
+                mounts.add(node.mount);
+            }
+            node.children.values().forEach(pending::push);
+        }
+        return mounts;
+    }
+
+    /**
+     * Discards the cached table so that the next lookup reads mountinfo again.
+     */
+    void invalidate() {
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        if (current != null && now - current.checkedAt < stalenessNanos) {
+            return current;
+        }
+
+        byte[] content = read();
+        Snapshot next = current != null && Arrays.equals(current.content, content)
+                ? new Snapshot(current.content, current.root, now)
+                : new Snapshot(content, parse(new String(content, StandardCharsets.UTF_8)), now);
+        snapshot = next;
+        return next;
+    }
+
+    private byte[] read() {
+        try {
+            return Files.readAllBytes(source);
+        } catch (IOException | SecurityException e) {
+            return new byte[0];
+        }
+    }
+
+    /**
+     * Builds the trie from mountinfo lines. Later lines win, so a path that is mounted over
+     * resolves to the topmost mount.
+     */
+    static Node parse(String mountinfo) {
+        Node root = new Node();
+        for (String line : mountinfo.split("\n")) {
+            String[] fields = line.split(" ");
+            int separator = Arrays.asList(fields).indexOf("-");
+            if (fields.length < 5 || separator < 6 || separator + 1 >= fields.length) {
+                continue;
+            }
+
+            Path mountPoint = Path.of(unescape(fields[4]));
+            if (!mountPoint.isAbsolute()) {
+                continue;
+            }
+
+            Node node = root;
+            for (Path component : mountPoint) {
+                node = node.children.computeIfAbsent(component.toString(), name -> new Node());
+            }
+            node.mount = new Mount(mountPoint, fields[2], fields[separator + 1]);
+        }
+        return root;
+    }
+
+    /**
+     * Decodes the octal escapes ({@code \040} for a space and so on) used for paths in mountinfo.
+     */
+    static String unescape(String field) {
+        if (field.indexOf('\\') < 0) {
+            return field;
+        }
+
+        StringBuilder result = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && isOctal(field, i + 1)) {
+                result.append((char) Integer.parseInt(field.substring(i + 1, i + 4), 8));
+                i += 3;
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static boolean isOctal(String field, int start) {
+        if (start + 3 > field.length()) {
+            return false;
+        }
+        for (int i = start; i < start + 3; i++) {
+            char c = field.charAt(i);
+            if (c < '0' || c > '7') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A mounted file system.
+     *
+     * @param mountPoint     where the file system is mounted
+     * @param device         the {@code major:minor} device number
+     * @param fileSystemType the file system type, for example {@code ext4}
+     */
+    record Mount(Path mountPoint, String device, String fileSystemType) {
+    }
+
+    static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private Mount mount;
+    }
+
+    private record Snapshot(byte[] content, Node root, long checkedAt) {
+    }
+}
@@ -0,0 +1,123 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.LaunchSpec;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DesktopBackend} for Flatpak and Snap sandboxes that opens URIs through the
+ * {@code org.freedesktop.portal.OpenURI} interface of the XDG desktop portal.
+ *
+ * <p>Inside a sandbox the host's applications cannot be started directly, so URIs are handed to
+ * the portal over the session bus, which asks the host to open them. Outside a sandbox this
+ * backend reports itself unavailable after a single file check, without connecting to the bus.
+ * The result is remembered until {@link #refresh()}.
+ *
+ * <p>{@code file:} URIs are opened with {@code xdg-open}. The portal only accepts files through
+ * {@code OpenFile}, which takes a file descriptor that cannot be passed over a JDK socket; inside
+ * Flatpak, {@code xdg-open} is a shim that calls {@code OpenFile} itself.
+ *
+ * @author Rentoki
+ */
+public final class PortalBackend implements DesktopBackend {
+    static final String PORTAL_NAME = "org.freedesktop.portal.Desktop";
+    static final String PORTAL_PATH = "/org/freedesktop/portal/desktop";
+    static final String OPEN_URI_INTERFACE = "org.freedesktop.portal.OpenURI";
+
+    private static final Path FLATPAK_INFO = Path.of("/.flatpak-info");
+
+    private final Map<String, String> env;
+    private final Path flatpakInfo;
+    private volatile Boolean available;
+
+    public PortalBackend() {
+        this(System.getenv(), FLATPAK_INFO);
+    }
+
+    PortalBackend(Map<String, String> env, Path flatpakInfo) {
+        this.env = env;
+        this.flatpakInfo = flatpakInfo;
+    }
+
+    @Override
+    public String name() {
+        return "xdg-portal";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.NATIVE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        Boolean current = available;
+        if (current == null) {
+            current = PlatformCapabilities.current().isLinux() && isSandboxed() && hasPortal();
+            available = current;
+        }
+        return current;
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return action == DesktopAction.BROWSE;
+    }
+
+    @Override
+    public void refresh() {
+        available = null;
+    }
+
+    @Override
+    public void browse(URI uri) throws DesktopActionException {
+        try {
+            if ("file".equalsIgnoreCase(uri.getScheme())) {
+                LaunchSpec.builder(List.of("xdg-open", ExecLine.toPath(uri))).build().start();
+            } else {
+                openUri(uri);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.BROWSE_FAILED.getMessage(), e);
+        }
+    }
+
+    /**
+     * Calls {@code OpenURI} with no parent window and no options. The portal replies as soon as the
+     * request is queued; the user may still be asked to pick an application afterwards.
+     */
+    void openUri(URI uri) throws IOException {
+        DBusConnection.session(env).call(DBusMessage.methodCall(PORTAL_NAME, PORTAL_PATH, OPEN_URI_INTERFACE, "OpenURI",
+                "ssa{sv}", "", uri.toString(), Map.of()), DBusConnection.DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * Returns whether this process runs inside Flatpak or Snap.
+     */
+    boolean isSandboxed() {
+        return Files.exists(flatpakInfo) || isSet("SNAP") || "flatpak".equals(env.get("container"));
+    }
+
+    private boolean hasPortal() {
+        try {
+            return DBusConnection.session(env).hasName(PORTAL_NAME);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private boolean isSet(String variable) {
+        String value = env.get(variable);
+        return value != null && !value.isEmpty();
+    }
+}
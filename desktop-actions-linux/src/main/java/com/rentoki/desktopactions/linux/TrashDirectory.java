@@ -0,0 +1,273 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A trash directory of the freedesktop.org Trash Specification, with its {@code files} and
+ * {@code info} subdirectories.
+ *
+ * <p>The home trash stores absolute original paths. A per-mount trash ({@code $topdir/.Trash/$uid}
+ * or {@code $topdir/.Trash-$uid}) stores paths relative to its top directory, so the trash stays
+ * valid if the volume is mounted elsewhere.
+ */
+final class TrashDirectory {
+    static final String INFO_SUFFIX = ".trashinfo";
+
+    private static final FileAttribute<Set<PosixFilePermission>> PRIVATE =
+            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------"));
+    private static final DateTimeFormatter DELETION_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final int STICKY_BIT = 01000;
+
+    private final Path root;
+    private final Path topdir;
+
+    private TrashDirectory(Path root, Path topdir) {
+        this.root = root;
+        this.topdir = topdir;
+    }
+
+    /**
+     * Returns the home trash, {@code $XDG_DATA_HOME/Trash}. It is created on first use.
+     */
+    static TrashDirectory home(XdgDirectories dirs) {
+        return new TrashDirectory(dirs.getDataHome().resolve("Trash"), null);
+    }
+
+    /**
+     * Returns the trash directory for a mounted volume, creating it if needed.
+     *
+     * <p>{@code $topdir/.Trash/$uid} is used when the administrator has set up {@code $topdir/.Trash}
+     * as a sticky directory that is not a symbolic link. Otherwise {@code $topdir/.Trash-$uid} is used.
+     * An empty optional means neither could be created.
+     */
+    static Optional<TrashDirectory> forTopdir(Path topdir, int uid) {
+        Path shared = topdir.resolve(".Trash");
+        if (isSharedTrash(shared)) {
+            TrashDirectory trash = new TrashDirectory(shared.resolve(Integer.toString(uid)), topdir);
+            if (trash.tryCreate()) {
+                return Optional.of(trash);
+            }
+        }
+
+        TrashDirectory trash = new TrashDirectory(topdir.resolve(".Trash-" + uid), topdir);
+        return trash.tryCreate() ? Optional.of(trash) : Optional.empty();
+    }
+
+    /**
+     * Returns an existing trash directory without checking or creating it.
+     *
+     * @param topdir the top directory of the mount for a per-mount trash, or null for the home trash
+     */
+    static TrashDirectory at(Path root, Path topdir) {
+        return new TrashDirectory(root, topdir);
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the top directory of the mount for a per-mount trash, or null for the home trash.
+     */
+    Path getTopdir() {
+        return topdir;
+    }
+
+    Path getFiles() {
+        return root.resolve("files");
+    }
+
+    Path getInfo() {
+        return root.resolve("info");
+    }
+
+    /**
+     * Moves a file into this trash with a single rename.
+     *
+     * <p>A free name is reserved by creating its {@code .trashinfo} file exclusively (O_EXCL), then the
+     * file is renamed into {@code files}. The plain name is tried first; after a collision the next
+     * suffix comes from the shared {@link TrashNames} counter, so concurrent callers never compete for
+     * the same candidate. Nothing is copied: a file on another file system fails with an
+     * {@link AtomicMoveNotSupportedException}, and its reservation is removed again.
+     *
+     * @param source the absolute path of the file, with its parent directory resolved to its real path
+     * @return the path of the file inside the trash
+     */
+    Path trash(Path source) throws IOException {
+        create();
+        String originalPath = encodePath(topdir != null && source.startsWith(topdir)
+                ? topdir.relativize(source).toString()
+                : source.toString());
+        String name = source.getFileName().toString();
+        TrashNames names = TrashNames.of(root);
+
+        for (int attempt = 1, collisions = 0; ; attempt = names.next(name, attempt, ++collisions)) {
+            String candidate = candidateName(name, attempt);
+            Path info = getInfo().resolve(candidate + INFO_SUFFIX);
+            try {
+                writeInfo(info, originalPath);
+            } catch (FileAlreadyExistsException e) {
+                continue;
+            }
+
+            Path target = getFiles().resolve(candidate);
+            if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                // An orphan without info file; renaming onto it would replace it.
+                Files.deleteIfExists(info);
+                continue;
+            }
+
+            try {
+                return Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(info);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the name to try for the given attempt: {@code report.pdf}, then {@code report.2.pdf},
+     * {@code report.3.pdf} and so on.
+     */
+    static String candidateName(String name, int attempt) {
+        if (attempt == 1) {
+            return name;
+        }
+
+        int dot = name.lastIndexOf('.');
+        return dot > 0
+                ? name.substring(0, dot) + "." + attempt + name.substring(dot)
+                : name + "." + attempt;
+    }
+
+    /**
+     * Percent-encodes a path for the {@code Path} key of a {@code .trashinfo} file, leaving
+     * {@code /} and the unreserved characters of RFC 2396 as they are.
+     */
+    static String encodePath(String path) {
+        StringBuilder encoded = new StringBuilder(path.length());
+        for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if (c < 0x80 && (Character.isLetterOrDigit(c) || "/-_.!~*'()".indexOf(c) >= 0)) {
+                encoded.append((char) c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xF, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Decodes the {@code Path} key of a {@code .trashinfo} file into the original absolute path.
+     * Relative paths are resolved against the top directory of a per-mount trash.
+     */
+    Path originalPath(String encoded) {
+        Path path = Path.of(decodePath(encoded));
+        return path.isAbsolute() || topdir == null ? path : topdir.resolve(path);
+    }
+
+    static String decodePath(String encoded) {
+        if (encoded.indexOf('%') < 0) {
+            return encoded;
+        }
+
+        byte[] bytes = new byte[encoded.length()];
+        int length = 0;
+        for (int i = 0; i < encoded.length(); i++) {
+            char c = encoded.charAt(i);
+            int high = c == '%' && i + 2 < encoded.length() ? Character.digit(encoded.charAt(i + 1), 16) : -1;
+            int low = high >= 0 ? Character.digit(encoded.charAt(i + 2), 16) : -1;
+            if (low >= 0) {
+                bytes[length++] = (byte) (high << 4 | low);
+                i += 2;
+            } else {
+                byte[] raw = String.valueOf(c).getBytes(StandardCharsets.UTF_8);
+                if (length + raw.length > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2 + raw.length);
+                }
+                System.arraycopy(raw, 0, bytes, length, raw.length);
+                length += raw.length;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void writeInfo(Path info, String originalPath) throws IOException {
+        String content = "[Trash Info]\n"
+                + "Path=" + originalPath + "\n"
+                + "DeletionDate=" + DELETION_DATE.format(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)) + "\n";
+        try (OutputStream out = Files.newOutputStream(info, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void create() throws IOException {
+        if (topdir == null) {
+            Files.createDirectories(root.getParent());
+        }
+        createPrivate(root);
+        createPrivate(getFiles());
+        createPrivate(getInfo());
+    }
+
+    private boolean tryCreate() {
+        try {
+            create();
+            return Files.isWritable(getFiles()) && Files.isWritable(getInfo());
+        } catch (IOException | SecurityException e) {
+            return false;
+        }
+    }
+
+    private static void createPrivate(Path directory) throws IOException {
+        if (Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+
+        try {
+            Files.createDirectory(directory, PRIVATE);
+        } catch (FileAlreadyExistsException e) {
+            if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isSharedTrash(Path shared) {
+        if (!Files.isDirectory(shared, LinkOption.NOFOLLOW_LINKS)) {
+            return false;
+        }
+
+        try {
+            int mode = (Integer) Files.getAttribute(shared, "unix:mode", LinkOption.NOFOLLOW_LINKS);
+            return (mode & STICKY_BIT) != 0;
+        } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
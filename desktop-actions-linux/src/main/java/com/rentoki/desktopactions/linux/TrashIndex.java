@@ -0,0 +1,279 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.ActionResult;
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Stream;
+
+/**
+ * Lists, restores and purges the items in the current user's freedesktop.org trash directories:
+ * the home trash and the per-mount trash directories of all mounted volumes.
+ *
+ * <p>Items are read lazily from their {@code .trashinfo} files, so even a trash with hundreds of
+ * thousands of entries is never held in memory at once. Invalid {@code .trashinfo} files are skipped.
+ *
+ * @author Rentoki
+ */
+public final class TrashIndex {
+    private final XdgDirectories dirs;
+    private final int uid;
+    private final MountTable mounts;
+
+    TrashIndex(XdgDirectories dirs, int uid, MountTable mounts) {
+        this.dirs = dirs;
+        this.uid = uid;
+        this.mounts = mounts;
+    }
+
+    /**
+     * Opens the trash of the user running this process.
+     *
+     * @return an index over the user's trash directories
+     * @throws DesktopActionException if the current user cannot be determined, for example when not running on Linux
+     * @example <pre>
+     * try (Stream&lt;TrashedItem&gt; items = TrashIndex.forCurrentUser().stream()) {
+     *     items.forEach(item -&gt; System.out.println(item.getOriginalPath()));
+     * }
+     * </pre>
+     */
+    public static TrashIndex forCurrentUser() throws DesktopActionException {
+        try {
+            return new TrashIndex(XdgDirectories.fromEnvironment(), FreedesktopTrash.currentUid(), MountTable.system());
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.NOT_SUPPORTED.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns a lazy stream of all trashed items. The stream holds open directory handles and
+     * must be closed, preferably with try-with-resources.
+     *
+     * @return the trashed items, in no particular order
+     */
+    public Stream<TrashedItem> stream() {
+        return directories().stream().flatMap(TrashIndex::items);
+    }
+
+    /**
+     * Returns one page of trashed items. Only the {@code .trashinfo} files of the page are read.
+     *
+     * <p>Pages are taken from the directory listing order, which is stable as long as the trash
+     * does not change between calls. The offset counts {@code .trashinfo} files, and invalid ones
+     * are left out of the page, so a page can hold fewer than {@code limit} items even when more
+     * follow.
+     *
+     * @param offset the number of items to skip
+     * @param limit  the maximum number of items to return
+     * @return at most {@code limit} items
+     * @example <pre>
+     * List&lt;TrashedItem&gt; secondPage = index.list(100, 100);
+     * </pre>
+     */
+    public List<TrashedItem> list(long offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+
+        try (Stream<InfoFile> infos = directories().stream().flatMap(TrashIndex::infoFiles)) {
+            return infos.skip(offset)
+                    .limit(limit)
+                    .map(InfoFile::read)
+                    .flatMap(Optional::stream)
+                    .toList();
+        }
+    }
+
+    /**
+     * Returns the total size of all trashed items in bytes.
+     *
+     * <p>Sizes are tracked incrementally: only items added since the previous call are measured,
+     * and the sizes of trashed directories are cached in each trash's {@code directorysizes} file,
+     * where file managers that follow the Trash Specification can reuse them.
+     *
+     * @return the size of the trash in bytes
+     * @throws DesktopActionException if a trash directory cannot be read
+     * @example <pre>
+     * if (index.size() &gt; 10L * 1024 * 1024 * 1024) {
+     *     System.out.println("Trash is larger than 10 GiB");
+     * }
+     * </pre>
+     */
+    public long size() throws DesktopActionException {
+        long size = 0;
+        for (TrashDirectory directory : directories()) {
+            try {
+                size += DirectorySizes.of(directory).total();
+            } catch (IOException | RuntimeException e) {
+                throw new DesktopActionException(ErrorMessage.TRASH_SIZE_FAILED.getMessage() + directory, e);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the size of one trashed item in bytes, reusing the size tracked by {@link #size()}.
+     */
+    long sizeOf(TrashedItem item) throws IOException {
+        return DirectorySizes.of(item.getDirectory()).sizeOf(item.getName());
+    }
+
+    /**
+     * Moves a trashed item back to its original path and removes its trash entry.
+     * Missing parent directories are recreated.
+     *
+     * @param item the item to restore
+     * @return the restored path
+     * @throws DesktopActionException if the item is null, something already exists at the original path,
+     *                                or the item cannot be moved back
+     */
+    public Path restore(TrashedItem item) throws DesktopActionException {
+        if (item == null) {
+            throw new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage());
+        }
+
+        Path target = item.getOriginalPath();
+        try {
+            if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+                throw new FileAlreadyExistsException(target.toString());
+            }
+
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(item.getTrashedPath(), target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(item.getTrashedPath(), target);
+            }
+            Files.deleteIfExists(item.getInfoPath());
+            return target;
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.RESTORE_FAILED.getMessage() + target, e);
+        }
+    }
+
+    /**
+     * Permanently deletes a trashed item. Directory trees are deleted in parallel.
+     *
+     * @param item the item to delete
+     * @throws DesktopActionException if the item is null or cannot be deleted
+     */
+    public void purge(TrashedItem item) throws DesktopActionException {
+        if (item == null) {
+            throw new DesktopActionException(ErrorMessage.FILE_IS_NULL.getMessage());
+        }
+
+        try {
+            TreeDeletion.delete(item.getTrashedPath());
+            Files.deleteIfExists(item.getInfoPath());
+            DirectorySizes.of(item.getDirectory()).removed(item.getName());
+        } catch (IOException | RuntimeException e) {
+            throw new DesktopActionException(ErrorMessage.PURGE_FAILED.getMessage() + item.getOriginalPath(), e);
+        }
+    }
+
+    /**
+     * Permanently deletes many trashed items in parallel, reporting the outcome of each one.
+     *
+     * @param items the items to delete
+     * @return the outcome for every item, in the order given
+     * @throws DesktopActionException if {@code items} is null
+     * @example <pre>
+     * try (Stream&lt;TrashedItem&gt; items = index.stream()) {
+     *     index.purge(items.filter(item -&gt; item.getOriginalPath().startsWith(buildDir)).toList());
+     * }
+     * </pre>
+     */
+    public BatchResult<TrashedItem> purge(Collection<TrashedItem> items) throws DesktopActionException {
+        if (items == null) {
+            throw new DesktopActionException(ErrorMessage.PATHS_IS_NULL.getMessage());
+        }
+
+        Map<TrashedItem, ForkJoinTask<ActionResult>> tasks = new LinkedHashMap<>();
+        for (TrashedItem item : new LinkedHashSet<>(items)) {
+            tasks.put(item, ForkJoinTask.adapt(() -> purgeResult(item)));
+        }
+        ForkJoinTask.invokeAll(tasks.values());
+
+        Map<TrashedItem, ActionResult> results = new LinkedHashMap<>();
+        tasks.forEach((item, task) -> results.put(item, task.join()));
+        return BatchResult.of(results);
+    }
+
+    private ActionResult purgeResult(TrashedItem item) {
+        String target = item == null ? "null" : item.getOriginalPath().toString();
+        try {
+            purge(item);
+            return ActionResult.success(DesktopAction.PURGE_TRASH, target);
+        } catch (DesktopActionException e) {
+            return ActionResult.failure(DesktopAction.PURGE_TRASH, target, e);
+        }
+    }
+
+    /**
+     * Returns the home trash and every existing per-mount trash directory of this user.
+     */
+    List<TrashDirectory> directories() {
+        List<TrashDirectory> directories = new ArrayList<>();
+        directories.add(TrashDirectory.home(dirs));
+        for (MountTable.Mount mount : mounts.mounts()) {
+            Path topdir = mount.mountPoint();
+            Path shared = topdir.resolve(".Trash");
+            if (Files.isDirectory(shared, LinkOption.NOFOLLOW_LINKS)) {
+                addIfPresent(directories, shared.resolve(Integer.toString(uid)), topdir);
+            }
+            addIfPresent(directories, topdir.resolve(".Trash-" + uid), topdir);
+        }
+        return directories;
+    }
+
+    private static void addIfPresent(List<TrashDirectory> directories, Path root, Path topdir) {
+        if (Files.isDirectory(root.resolve("info"), LinkOption.NOFOLLOW_LINKS)) {
+            directories.add(TrashDirectory.at(root, topdir));
+        }
+    }
+
+    private static Stream<TrashedItem> items(TrashDirectory directory) {
+        return infoFiles(directory).map(InfoFile::read).flatMap(Optional::stream);
+    }
+
+    /**
+     * Lists the {@code .trashinfo} files of a trash directory without reading them.
+     */
+    private static Stream<InfoFile> infoFiles(TrashDirectory directory) {
+        if (!Files.isDirectory(directory.getInfo())) {
+            return Stream.empty();
+        }
+
+        try {
+            return Files.list(directory.getInfo())
+                    .filter(info -> info.getFileName().toString().endsWith(TrashDirectory.INFO_SUFFIX))
+                    .map(info -> new InfoFile(directory, info));
+        } catch (IOException e) {
+            return Stream.empty();
+        }
+    }
+
+    private record InfoFile(TrashDirectory directory, Path path) {
+
+        Optional<TrashedItem> read() {
+            return TrashedItem.read(directory, path);
+        }
+    }
+}
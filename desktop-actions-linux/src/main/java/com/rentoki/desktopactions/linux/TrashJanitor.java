@@ -0,0 +1,367 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.DesktopActionException;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Purges trashed items in the background once they are older than a maximum age, or once the
+ * trash grows beyond a size budget, oldest items first.
+ *
+ * <p>The janitor runs on a single low-priority daemon thread. Each run does at most one tick budget
+ * of work and then yields: a sweep over a large trash resumes where the previous tick stopped
+ * instead of starting over, so cleanup never holds up {@code moveToTrash} calls for long.
+ *
+ * <p>Items without a valid {@code DeletionDate} are never purged for their age, since it is
+ * unknown, but count as the oldest items when the trash is over its size budget.
+ *
+ * @author Rentoki
+ * @example <pre>
+ * TrashJanitor janitor = TrashJanitor.builder()
+ *         .maxAge(Duration.ofDays(30))
+ *         .maxSize(20L * 1024 * 1024 * 1024)
+ *         .build();
+ * janitor.start();
+ * </pre>
+ */
+public final class TrashJanitor implements AutoCloseable {
+    /**
+     * Items without a deletion date sort first, as they were most likely trashed by an old or
+     * broken implementation.
+     */
+    private static final Comparator<TrashedItem> OLDEST_FIRST = Comparator.comparing(
+            TrashedItem::getDeletionDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final TrashIndex index;
+    private final Duration maxAge;
+    private final long maxSize;
+    private final Duration interval;
+    private final Duration tickBudget;
+    private final int trimCandidates;
+    private final Clock clock;
+    private final AtomicLong purged = new AtomicLong();
+
+    private ScheduledExecutorService executor;
+
+    private Stream<TrashedItem> sweep;
+    private Iterator<TrashedItem> cursor;
+    private PriorityQueue<TrashedItem> oldest;
+    private Deque<TrashedItem> trimQueue;
+    private boolean moreCandidates;
+    private boolean trimmed;
+    private long excess;
+
+    private TrashJanitor(Builder builder, TrashIndex index) {
+        this.index = index;
+        this.maxAge = builder.maxAge;
+        this.maxSize = builder.maxSize;
+        this.interval = builder.interval;
+        this.tickBudget = builder.tickBudget;
+        this.trimCandidates = builder.trimCandidates;
+        this.clock = builder.clock;
+    }
+
+    /**
+     * Returns a builder for a janitor over the current user's trash.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts purging in the background. Calling this method on a running janitor has no effect.
+     */
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "desktop-actions-trash-janitor");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        scheduler.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        executor = scheduler;
+        executor.schedule(this::run, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the janitor. A tick that is in progress finishes its current item.
+     */
+    @Override
+    public void close() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = executor;
+            executor = null;
+        }
+        if (stopping != null) {
+            stopping.shutdown();
+        }
+        synchronized (this) {
+            closeSweep();
+            trimQueue = null;
+        }
+    }
+
+    /**
+     * Returns the number of items purged since the janitor was built.
+     *
+     * @return the number of purged items
+     */
+    public long getPurgedCount() {
+        return purged.get();
+    }
+
+    private void run() {
+        boolean pending;
+        try {
+            pending = tick();
+        } catch (RuntimeException e) {
+            pending = false;
+        }
+
+        synchronized (this) {
+            if (executor != null) {
+                executor.schedule(this::run, (pending ? tickBudget : interval).toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Does at most one tick budget of work.
+     *
+     * @return true if work is left for the next tick
+     */
+    synchronized boolean tick() {
+        Instant deadline = clock.instant().plus(tickBudget);
+
+        if (trimQueue != null) {
+            trim(deadline);
+            return trimPending();
+        }
+
+        if (cursor == null) {
+            sweep = index.stream();
+            cursor = sweep.iterator();
+            oldest = new PriorityQueue<>(OLDEST_FIRST.reversed());
+        }
+
+        LocalDateTime cutoff = maxAge != null ? LocalDateTime.now(clock).minus(maxAge) : null;
+        while (cursor.hasNext()) {
+            if (!clock.instant().isBefore(deadline)) {
+                return true;
+            }
+
+            TrashedItem item = cursor.next();
+            if (cutoff != null && item.getDeletionDate() != null && item.getDeletionDate().isBefore(cutoff)) {
+                purge(item);
+            } else if (maxSize >= 0) {
+                oldest.add(item);
+                if (oldest.size() > trimCandidates) {
+                    oldest.poll();
+                }
+            }
+        }
+
+        List<TrashedItem> candidates = new ArrayList<>(oldest);
+        moreCandidates = candidates.size() >= trimCandidates;
+        closeSweep();
+        if (maxSize < 0) {
+            return false;
+        }
+
+        try {
+            excess = index.size() - maxSize;
+        } catch (DesktopActionException e) {
+            return false;
+        }
+        if (excess <= 0) {
+            return false;
+        }
+
+        candidates.sort(OLDEST_FIRST);
+        trimQueue = new ArrayDeque<>(candidates);
+        trimmed = false;
+        trim(deadline);
+        return trimPending();
+    }
+
+    /**
+     * Returns whether trimming goes on in the next tick. Only the oldest {@code trimCandidates}
+     * items of a sweep are queued, so when they are all purged and the trash is still too large, the
+     * next tick sweeps again for the next oldest ones, as long as the last round purged anything.
+     */
+    private boolean trimPending() {
+        if (excess > 0 && !trimQueue.isEmpty()) {
+            return true;
+        }
+        trimQueue = null;
+        return excess > 0 && moreCandidates && trimmed;
+    }
+
+    private void trim(Instant deadline) {
+        while (excess > 0 && !trimQueue.isEmpty() && clock.instant().isBefore(deadline)) {
+            TrashedItem item = trimQueue.poll();
+            long size;
+            try {
+                size = index.sizeOf(item);
+            } catch (IOException e) {
+                size = 0;
+            }
+            if (purge(item)) {
+                excess -= size;
+                trimmed = true;
+            }
+        }
+    }
+
+    private boolean purge(TrashedItem item) {
+        try {
+            index.purge(item);
+            purged.incrementAndGet();
+            return true;
+        } catch (DesktopActionException e) {
+            return false;
+        }
+    }
+
+    private void closeSweep() {
+        if (sweep != null) {
+            sweep.close();
+        }
+        sweep = null;
+        cursor = null;
+        oldest = null;
+    }
+
+    /**
+     * Configures a {@link TrashJanitor}. At least one of {@link #maxAge(Duration)} and
+     * {@link #maxSize(long)} must be set.
+     */
+    public static final class Builder {
+        private TrashIndex index;
+        private Duration maxAge;
+        private long maxSize = -1;
+        private Duration interval = Duration.ofHours(1);
+        private Duration tickBudget = Duration.ofMillis(200);
+        private int trimCandidates = 4096;
+        private Clock clock = Clock.systemDefaultZone();
+
+        private Builder() {
+        }
+
+        /**
+         * Sets the trash to clean. Defaults to {@link TrashIndex#forCurrentUser()}.
+         *
+         * @param index the trash to clean
+         * @return this builder
+         */
+        public Builder index(TrashIndex index) {
+            this.index = index;
+            return this;
+        }
+
+        /**
+         * Purges items whose {@code DeletionDate} is older than the given age.
+         *
+         * @param maxAge the maximum age of a trashed item
+         * @return this builder
+         */
+        public Builder maxAge(Duration maxAge) {
+            if (maxAge == null || maxAge.isNegative()) {
+                throw new IllegalArgumentException("maxAge must not be null or negative");
+            }
+            this.maxAge = maxAge;
+            return this;
+        }
+
+        /**
+         * Purges the oldest items while the trash is larger than the given size. Items without a
+         * valid {@code DeletionDate} are purged first.
+         *
+         * @param bytes the size budget of the trash in bytes
+         * @return this builder
+         */
+        public Builder maxSize(long bytes) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("maxSize must not be negative");
+            }
+            this.maxSize = bytes;
+            return this;
+        }
+
+        /**
+         * Sets how long the janitor sleeps after the trash is clean. Defaults to one hour.
+         *
+         * @param interval the pause between sweeps
+         * @return this builder
+         */
+        public Builder interval(Duration interval) {
+            this.interval = requirePositive(interval, "interval");
+            return this;
+        }
+
+        /**
+         * Sets the maximum time spent per tick. A sweep that takes longer continues after a pause of
+         * the same length. Defaults to 200 milliseconds.
+         *
+         * @param tickBudget the time budget of one tick
+         * @return this builder
+         */
+        public Builder tickBudget(Duration tickBudget) {
+            this.tickBudget = requirePositive(tickBudget, "tickBudget");
+            return this;
+        }
+
+        Builder trimCandidates(int trimCandidates) {
+            this.trimCandidates = trimCandidates;
+            return this;
+        }
+
+        Builder clock(Clock clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * Builds the janitor. It does nothing until {@link TrashJanitor#start()} is called.
+         *
+         * @return the configured janitor
+         * @throws DesktopActionException if no index was set and the current user's trash cannot be opened
+         */
+        public TrashJanitor build() throws DesktopActionException {
+            if (maxAge == null && maxSize < 0) {
+                throw new IllegalStateException("maxAge or maxSize must be set");
+            }
+            return new TrashJanitor(this, index != null ? index : TrashIndex.forCurrentUser());
+        }
+
+        private static Duration requirePositive(Duration duration, String name) {
+            if (duration == null || duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return duration;
+        }
+    }
+}
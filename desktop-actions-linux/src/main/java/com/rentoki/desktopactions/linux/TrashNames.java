@@ -0,0 +1,57 @@
+package com.rentoki.desktopactions.linux;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out name suffixes for items entering a trash directory.
+ *
+ * <p>A name is only taken once its {@code .trashinfo} file has been created exclusively, so the
+ * suffixes handed out here are just hints. They keep threads from racing for the same candidate:
+ * every thread trashing a {@code build.log} gets its own suffix from a shared counter, so naming
+ * stays O(1) amortized no matter how many copies are already in the trash. When another process
+ * holds a name, the counter gallops ahead instead of probing one name at a time.
+ */
+final class TrashNames {
+    /**
+     * The number of distinct names remembered per trash directory before the hints are dropped.
+     */
+    static final int MAX_NAMES = 10_000;
+
+    private static final Map<Path, TrashNames> INSTANCES = new ConcurrentHashMap<>();
+    private static final int LINEAR_PROBES = 3;
+
+    private final Map<String, AtomicInteger> next = new ConcurrentHashMap<>();
+
+    private TrashNames() {
+    }
+
+    /**
+     * Returns the shared suffix counters of a trash directory.
+     */
+    static TrashNames of(Path trashRoot) {
+        return INSTANCES.computeIfAbsent(trashRoot, root -> new TrashNames());
+    }
+
+    /**
+     * Returns the next attempt to try after {@code name} itself was taken. Attempt 2 stands for
+     * {@code name.2}, see {@link TrashDirectory#candidateName(String, int)}.
+     *
+     * @param attempt    the attempt that just collided
+     * @param collisions how many attempts of the current caller collided so far
+     */
+    int next(String name, int attempt, int collisions) {
+        if (next.size() > MAX_NAMES) {
+            next.clear();
+        }
+
+        AtomicInteger counter = next.computeIfAbsent(name, key -> new AtomicInteger(2));
+        if (collisions <= LINEAR_PROBES) {
+            return Math.max(2, counter.getAndIncrement());
+        }
+        int skipTo = attempt * 2;
+        return Math.max(skipTo, counter.getAndUpdate(value -> Math.max(value, skipTo) + 1));
+    }
+}
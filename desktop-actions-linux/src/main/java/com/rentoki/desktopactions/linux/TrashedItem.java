@@ -0,0 +1,131 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A file or directory in a freedesktop.org trash, as listed by {@link TrashIndex}.
+ *
+ * @author Rentoki
+ */
+public final class TrashedItem {
+    private static final String GROUP = "Trash Info";
+
+    private final TrashDirectory directory;
+    private final String name;
+    private final Path originalPath;
+    private final LocalDateTime deletionDate;
+
+    TrashedItem(TrashDirectory directory, String name, Path originalPath, LocalDateTime deletionDate) {
+        this.directory = directory;
+        this.name = name;
+        this.originalPath = originalPath;
+        this.deletionDate = deletionDate;
+    }
+
+    /**
+     * Reads an item from its {@code .trashinfo} file. Files without a {@code Path} key are not valid
+     * trash entries and are skipped; an unreadable {@code DeletionDate} is reported as null.
+     */
+    static Optional<TrashedItem> read(TrashDirectory directory, Path infoFile) {
+        String fileName = infoFile.getFileName().toString();
+        if (!fileName.endsWith(TrashDirectory.INFO_SUFFIX) || fileName.length() == TrashDirectory.INFO_SUFFIX.length()) {
+            return Optional.empty();
+        }
+
+        Map<String, String> info;
+        try {
+            info = KeyFile.parse(infoFile).group(GROUP);
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+
+        String path = info.get("Path");
+        if (path == null || path.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String name = fileName.substring(0, fileName.length() - TrashDirectory.INFO_SUFFIX.length());
+        return Optional.of(new TrashedItem(directory, name, directory.originalPath(path), deletionDate(info.get("DeletionDate"))));
+    }
+
+    private static LocalDateTime deletionDate(String value) {
+        if (value == null) {
+            return null;
+        }
+
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    TrashDirectory getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns the name of the item inside the trash, which may differ from the original file name.
+     *
+     * @return the name under {@code files/}
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns where the item was before it was trashed.
+     *
+     * @return the original absolute path
+     */
+    public Path getOriginalPath() {
+        return originalPath;
+    }
+
+    /**
+     * Returns when the item was trashed, in local time.
+     *
+     * @return the deletion date, or null if the {@code .trashinfo} file has none
+     */
+    public LocalDateTime getDeletionDate() {
+        return deletionDate;
+    }
+
+    /**
+     * Returns the location of the item's content inside the trash.
+     *
+     * @return the path under the trash's {@code files} directory
+     */
+    public Path getTrashedPath() {
+        return directory.getFiles().resolve(name);
+    }
+
+    /**
+     * Returns the location of the item's {@code .trashinfo} file.
+     *
+     * @return the path under the trash's {@code info} directory
+     */
+    public Path getInfoPath() {
+        return directory.getInfo().resolve(name + TrashDirectory.INFO_SUFFIX);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof TrashedItem other && getInfoPath().equals(other.getInfoPath());
+    }
+
+    @Override
+    public int hashCode() {
+        return getInfoPath().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TrashedItem[" + originalPath + " as " + getTrashedPath() + "]";
+    }
+}
@@ -0,0 +1,63 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.IOException;
+import java.io.Serial;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Deletes a file tree with fork-join: every subdirectory is deleted by its own task, so large
+ * trees are removed by all worker threads of the common pool. Symbolic links are deleted, never followed.
+ */
+final class TreeDeletion extends RecursiveAction {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final transient Path path;
+
+    private TreeDeletion(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Deletes the file or directory tree at the path. A path that does not exist is ignored.
+     */
+    static void delete(Path path) throws IOException {
+        try {
+            new TreeDeletion(path).invoke();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    protected void compute() {
+        try {
+            if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                List<TreeDeletion> subdirectories = new ArrayList<>();
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                    for (Path child : children) {
+                        if (Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                            subdirectories.add(new TreeDeletion(child));
+                        } else {
+                            Files.deleteIfExists(child);
+                        }
+                    }
+                }
+                invokeAll(subdirectories);
+            }
+            Files.deleteIfExists(path);
+        } catch (NoSuchFileException e) {
+            // Already gone, for example deleted concurrently by another process.
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.rentoki.desktopactions.linux;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The XDG base directories and current desktop names of the user's session.
+ *
+ * <p>Values are read from the {@code XDG_*} environment variables, falling back to the defaults
+ * of the XDG Base Directory Specification. Relative paths in the environment are ignored, as the
+ * specification requires.
+ *
+ * @author Rentoki
+ */
+public final class XdgDirectories {
+    private final Path dataHome;
+    private final List<Path> dataDirs;
+    private final Path configHome;
+    private final List<Path> configDirs;
+    private final Path cacheHome;
+    private final List<String> currentDesktops;
+
+    private XdgDirectories(Path dataHome, List<Path> dataDirs, Path configHome, List<Path> configDirs,
+                           Path cacheHome, List<String> currentDesktops) {
+        this.dataHome = dataHome;
+        this.dataDirs = dataDirs;
+        this.configHome = configHome;
+        this.configDirs = configDirs;
+        this.cacheHome = cacheHome;
+        this.currentDesktops = currentDesktops;
+    }
+
+    /**
+     * Reads the XDG directories of the current process.
+     *
+     * @return the directories of the current session
+     */
+    public static XdgDirectories fromEnvironment() {
+        return of(System.getenv(), Path.of(System.getProperty("user.home")));
+    }
+
+    /**
+     * Reads the XDG directories from the given environment.
+     *
+     * @param env  the environment variables
+     * @param home the user's home directory
+     * @return the directories described by the environment
+     */
+    public static XdgDirectories of(Map<String, String> env, Path home) {
+        return new XdgDirectories(
+                directory(env.get("XDG_DATA_HOME"), home.resolve(".local/share")),
+                directories(env.get("XDG_DATA_DIRS"), "/usr/local/share:/usr/share"),
+                directory(env.get("XDG_CONFIG_HOME"), home.resolve(".config")),
+                directories(env.get("XDG_CONFIG_DIRS"), "/etc/xdg"),
+                directory(env.get("XDG_CACHE_HOME"), home.resolve(".cache")),
+                desktops(env.get("XDG_CURRENT_DESKTOP")));
+    }
+
+    public Path getDataHome() {
+        return dataHome;
+    }
+
+    public List<Path> getDataDirs() {
+        return dataDirs;
+    }
+
+    public Path getConfigHome() {
+        return configHome;
+    }
+
+    public List<Path> getConfigDirs() {
+        return configDirs;
+    }
+
+    public Path getCacheHome() {
+        return cacheHome;
+    }
+
+    /**
+     * Returns the lower-cased entries of {@code XDG_CURRENT_DESKTOP}, most specific first.
+     *
+     * @return the current desktop names, possibly empty
+     */
+    public List<String> getCurrentDesktops() {
+        return currentDesktops;
+    }
+
+    /**
+     * Returns the {@code applications} directories in which desktop entries are installed, most important first.
+     *
+     * @return the application directories
+     */
+    public List<Path> getApplicationDirs() {
+        List<Path> dirs = new ArrayList<>(dataDirs.size() + 1);
+        dirs.add(dataHome.resolve("applications"));
+        for (Path dataDir : dataDirs) {
+            dirs.add(dataDir.resolve("applications"));
+        }
+        return Collections.unmodifiableList(dirs);
+    }
+
+    private static Path directory(String value, Path fallback) {
+        if (value != null && value.startsWith("/")) {
+            return Path.of(value);
+        }
+        return fallback;
+    }
+
+    private static List<Path> directories(String value, String fallback) {
+        String source = value == null || value.isBlank() ? fallback : value;
+        List<Path> dirs = Arrays.stream(source.split(":"))
+                .filter(dir -> dir.startsWith("/"))
+                .map(Path::of)
+                .distinct()
+                .toList();
+        return dirs.isEmpty() ? directories(fallback, fallback) : dirs;
+    }
+
+    private static List<String> desktops(String value) {
+        if (value == null || value.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(":"))
+                .filter(desktop -> !desktop.isBlank())
+                .map(desktop -> desktop.toLowerCase(Locale.ROOT))
+                .toList();
+    }
+}
@@ -0,0 +1,11 @@
+module DesktopActions.linux {
+    requires transitive DesktopActions;
+
+    exports com.rentoki.desktopactions.linux;
+
+    provides com.rentoki.desktopactions.spi.DesktopBackend with
+            com.rentoki.desktopactions.linux.LinuxDesktopBackend,
+            com.rentoki.desktopactions.linux.FreedesktopTrashBackend,
+            com.rentoki.desktopactions.linux.DBusFileManagerBackend,
+            com.rentoki.desktopactions.linux.PortalBackend;
+}
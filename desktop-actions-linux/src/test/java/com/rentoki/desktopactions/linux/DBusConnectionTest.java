@@ -0,0 +1,170 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DBusConnectionTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeAndRead_WithNestedTypes_ShouldRoundTrip() {
+        Map<Object, Object> options = new LinkedHashMap<>();
+        options.put("activation-token", new DBusTypes.Variant("s", "abc"));
+        options.put("writable", new DBusTypes.Variant("b", true));
+        List<Object> values = List.of((byte) 7, true, (short) -3, 42, 1L << 40, 2.5, "héllo", "/org/x", "a{sv}",
+                List.of("file:///a", "file:///b"), options, List.of(1, "two"), new DBusTypes.Variant("as", List.of("x")));
+        String signature = "ybnixdsogasa{sv}(is)v";
+
+        byte[] bytes = new DBusWriter().write(signature, values).toByteArray();
+        List<Object> read = new DBusReader(ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)).read(signature);
+
+        assertEquals(values, read);
+    }
+
+    @Test
+    void writeArray_WithEightByteElements_ShouldExcludeAlignmentPaddingFromLength() {
+        byte[] bytes = new DBusWriter().write("a(i)", List.of(List.of(List.of(5)))).toByteArray();
+
+        assertEquals(12, bytes.length);
+        assertEquals(4, ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getInt(0));
+    }
+
+    @Test
+    void split_WithContainerTypes_ShouldReturnCompleteTypes() {
+        assertEquals(List.of("s", "a{sv}", "(ia(ss))", "v", "aas"), DBusTypes.split("sa{sv}(ia(ss))vaas"));
+    }
+
+    @Test
+    void split_WithUnbalancedSignature_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> DBusTypes.split("(is"));
+    }
+
+    @Test
+    void encodeAndRead_WithMethodCall_ShouldPreserveHeaderFields() throws IOException {
+        DBusMessage call = DBusMessage.methodCall("org.example", "/org/example", "org.example.Iface", "Do", "as", List.of("x"));
+
+        DBusMessage read = DBusMessage.read(Channels.newChannel(new ByteArrayInputStream(call.encode(9))));
+
+        assertEquals(DBusMessage.METHOD_CALL, read.getType());
+        assertEquals(9, read.getSerial());
+        assertEquals("org.example", read.getDestination());
+        assertEquals("/org/example", read.getPath());
+        assertEquals("org.example.Iface", read.getInterface());
+        assertEquals("Do", read.getMember());
+        assertEquals("as", read.getSignature());
+        assertEquals(List.of(List.of("x")), read.getBody());
+        assertTrue(read.isReplyExpected());
+        assertFalse(call.withoutReply().isReplyExpected());
+    }
+
+    @Test
+    void open_WithStandInBus_ShouldAuthenticateAndSayHello() throws IOException {
+        try (FakeBus bus = FakeBus.start(tempDir.resolve("bus"));
+             DBusConnection connection = DBusConnection.open(bus.getSocket(), 1000)) {
+            assertTrue(connection.isOpen());
+            assertEquals(":1.1", connection.getUniqueName());
+            assertEquals(1, bus.calls("Hello").size());
+        }
+    }
+
+    @Test
+    void open_WhenAuthenticationRejected_ShouldThrow() throws IOException {
+        try (FakeBus bus = FakeBus.start(tempDir.resolve("bus")).rejectAuth()) {
+            IOException e = assertThrows(IOException.class, () -> DBusConnection.open(bus.getSocket(), 1000));
+            assertTrue(e.getMessage().contains("REJECTED"));
+        }
+    }
+
+    @Test
+    void call_WithErrorReply_ShouldThrowDBusException() throws IOException {
+        try (FakeBus bus = FakeBus.start(tempDir.resolve("bus")).fail("Do", "org.example.Error.Failed");
+             DBusConnection connection = DBusConnection.open(bus.getSocket(), 1000)) {
+            DBusConnection.DBusException e = assertThrows(DBusConnection.DBusException.class,
+                    () -> connection.call(DBusMessage.methodCall("org.example", "/", "org.example", "Do", ""), DBusConnection.DEFAULT_TIMEOUT));
+            assertEquals("org.example.Error.Failed", e.getName());
+        }
+    }
+
+    @Test
+    void call_FromManyThreads_ShouldMatchRepliesToCalls() throws Exception {
+        try (FakeBus bus = FakeBus.start(tempDir.resolve("bus"));
+             DBusConnection connection = DBusConnection.open(bus.getSocket(), 1000)) {
+            bus.own("org.example.Owned");
+            List<Thread> threads = new java.util.ArrayList<>();
+            List<Throwable> failures = new java.util.concurrent.CopyOnWriteArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                boolean expectOwned = i % 2 == 0;
+                threads.add(Thread.ofVirtual().start(() -> {
+                    try {
+                        assertEquals(expectOwned, connection.hasName(expectOwned ? "org.example.Owned" : "org.example.Missing"));
+                    } catch (Throwable t) {
+                        failures.add(t);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(List.of(), failures);
+        }
+    }
+
+    @Test
+    void hasName_WithActivatableName_ShouldReturnTrue() throws IOException {
+        try (FakeBus bus = FakeBus.start(tempDir.resolve("bus")).activatable("org.example.Lazy");
+             DBusConnection connection = DBusConnection.open(bus.getSocket(), 1000)) {
+            assertTrue(connection.hasName("org.example.Lazy"));
+            assertFalse(connection.hasName("org.example.Missing"));
+        }
+    }
+
+    @Test
+    void call_AfterBusCloses_ShouldFailAndSharedShouldReconnect() throws Exception {
+        Path socket = tempDir.resolve("bus");
+        FakeBus bus = FakeBus.start(socket);
+        DBusConnection first = DBusConnection.shared(socket);
+        assertSame(first, DBusConnection.shared(socket));
+
+        bus.close();
+        assertThrows(IOException.class, () -> first.call(DBusMessage.methodCall("org.example", "/", "org.example", "Do", ""), DBusConnection.DEFAULT_TIMEOUT));
+        assertFalse(first.isOpen());
+
+        Files.delete(socket);
+        try (FakeBus restarted = FakeBus.start(socket)) {
+            DBusConnection second = DBusConnection.shared(socket);
+            assertNotSame(first, second);
+            assertTrue(second.isOpen());
+            second.close();
+        }
+    }
+
+    @Test
+    void sessionBus_WithUnixPathAddress_ShouldReturnSocket() {
+        Optional<Path> bus = DBusConnection.sessionBus(Map.of("DBUS_SESSION_BUS_ADDRESS", "unix:abstract=/tmp/x;unix:path=/run/user/1000/my%20bus,guid=1"));
+
+        assertEquals(Optional.of(Path.of("/run/user/1000/my bus")), bus);
+    }
+
+    @Test
+    void sessionBus_WithoutAddress_ShouldFallBackToRuntimeDir() throws IOException {
+        Files.createFile(tempDir.resolve("bus"));
+
+        assertEquals(Optional.of(tempDir.resolve("bus")), DBusConnection.sessionBus(Map.of("XDG_RUNTIME_DIR", tempDir.toString())));
+        assertEquals(Optional.empty(), DBusConnection.sessionBus(Map.of("DBUS_SESSION_BUS_ADDRESS", "unix:abstract=/tmp/x")));
+    }
+}
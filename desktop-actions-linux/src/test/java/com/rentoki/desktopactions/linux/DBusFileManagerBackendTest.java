@@ -0,0 +1,125 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DBusFileManagerBackendTest {
+    @TempDir
+    Path tempDir;
+
+    private FakeBus bus;
+    private DBusFileManagerBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bus = FakeBus.start(tempDir.resolve("bus"));
+        backend = new DBusFileManagerBackend(Map.of("DBUS_SESSION_BUS_ADDRESS", "unix:path=" + bus.getSocket()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bus.close();
+    }
+
+    @Test
+    void isAvailable_WithFileManagerOnBus_ShouldReturnTrue() {
+        bus.own(DBusFileManagerBackend.FILE_MANAGER_NAME);
+
+        assertTrue(backend.isAvailable());
+    }
+
+    @Test
+    void isAvailable_WithActivatableFileManager_ShouldReturnTrue() {
+        bus.activatable(DBusFileManagerBackend.FILE_MANAGER_NAME);
+
+        assertTrue(backend.isAvailable());
+    }
+
+    @Test
+    void isAvailable_WithoutFileManager_ShouldReturnFalse() {
+        assertFalse(backend.isAvailable());
+    }
+
+    @Test
+    void isAvailable_WithoutSessionBus_ShouldReturnFalse() {
+        assertFalse(new DBusFileManagerBackend(Map.of()).isAvailable());
+    }
+
+    @Test
+    void supports_ShouldCoverRevealActionsOnly() {
+        assertTrue(backend.supports(DesktopAction.OPEN_FILE_LOCATION));
+        assertTrue(backend.supports(DesktopAction.OPEN_FILE_DIRECTORY));
+        assertFalse(backend.supports(DesktopAction.MOVE_TO_TRASH));
+        assertFalse(backend.supports(DesktopAction.BROWSE));
+    }
+
+    @Test
+    void openFileLocation_ShouldCallShowItemsWithFileUri() throws Exception {
+        Path file = Files.createFile(tempDir.resolve("report one.txt"));
+
+        backend.openFileLocation(file.toFile());
+
+        DBusMessage call = bus.calls("ShowItems").get(0);
+        assertEquals(DBusFileManagerBackend.FILE_MANAGER_NAME, call.getDestination());
+        assertEquals(DBusFileManagerBackend.FILE_MANAGER_PATH, call.getPath());
+        assertEquals(DBusFileManagerBackend.FILE_MANAGER_NAME, call.getInterface());
+        assertEquals(List.of(List.of(file.toUri().toString()), ""), call.getBody());
+    }
+
+    @Test
+    void openFileLocations_ShouldSelectAllFilesWithOneShowItemsCall() throws Exception {
+        Path first = Files.createFile(tempDir.resolve("a.txt"));
+        Path second = Files.createFile(tempDir.resolve("b.txt"));
+
+        BatchResult<Path> result = backend.openFileLocations(List.of(first, second));
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(1, bus.calls("ShowItems").size());
+        assertEquals(List.of(List.of(first.toUri().toString(), second.toUri().toString()), ""),
+                bus.calls("ShowItems").get(0).getBody());
+    }
+
+    @Test
+    void openFileLocations_WithErrorReply_ShouldFailEveryFile() throws Exception {
+        bus.fail("ShowItems", "org.freedesktop.DBus.Error.Failed");
+        Path first = Files.createFile(tempDir.resolve("a.txt"));
+        Path second = Files.createFile(tempDir.resolve("b.txt"));
+
+        BatchResult<Path> result = backend.openFileLocations(List.of(first, second));
+
+        assertEquals(List.of(first, second), List.copyOf(result.getFailed().keySet()));
+    }
+
+    @Test
+    void openDirectory_ShouldCallShowFolders() throws Exception {
+        backend.openDirectory(tempDir.toFile());
+
+        DBusMessage call = bus.calls("ShowFolders").get(0);
+        assertEquals(List.of(List.of(tempDir.toUri().toString()), ""), call.getBody());
+    }
+
+    @Test
+    void openFileLocation_WithErrorReply_ShouldThrow() throws Exception {
+        bus.fail("ShowItems", "org.freedesktop.DBus.Error.ServiceUnknown");
+        Path file = Files.createFile(tempDir.resolve("report.txt"));
+
+        DesktopActionException e = assertThrows(DesktopActionException.class, () -> backend.openFileLocation(file.toFile()));
+
+        assertEquals(ErrorMessage.OPEN_FILE_LOCATION_FAILED.getMessage() + file.toFile().getAbsolutePath(), e.getMessage());
+        assertInstanceOf(DBusConnection.DBusException.class, e.getCause());
+    }
+}
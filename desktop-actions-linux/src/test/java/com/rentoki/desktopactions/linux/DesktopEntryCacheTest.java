@@ -0,0 +1,131 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DesktopEntryCacheTest {
+    @TempDir
+    Path tempDir;
+
+    private Path applications;
+    private Path vendor;
+    private Path cacheFile;
+    private List<Path> roots;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        applications = Files.createDirectories(tempDir.resolve("applications"));
+        vendor = Files.createDirectories(applications.resolve("org"));
+        cacheFile = tempDir.resolve("cache/desktop-actions").resolve(DesktopEntryCache.FILE_NAME);
+        roots = List.of(applications, tempDir.resolve("missing"));
+        Files.writeString(applications.resolve("firefox.desktop"), """
+                [Desktop Entry]
+                Name=Firefox
+                Exec=firefox %u
+                Icon=firefox
+                MimeType=x-scheme-handler/https;text/html;
+                """);
+        Files.writeString(vendor.resolve("term.desktop"), """
+                [Desktop Entry]
+                Exec=term
+                Terminal=true
+                TryExec=term
+                Path=/tmp
+                """);
+        age(applications);
+        age(vendor);
+    }
+
+    @Test
+    void writeAndRead_WithUnchangedDirectories_ShouldRestoreEveryField() throws IOException {
+        Map<String, DesktopEntry> entries = DesktopEntryIndex.load(roots).entries().stream()
+                .collect(Collectors.toMap(DesktopEntry::getId, entry -> entry));
+
+        assertTrue(DesktopEntryCache.write(cacheFile, DesktopEntryCache.directoryTimes(roots), entries));
+        Map<String, DesktopEntry> read = DesktopEntryCache.read(cacheFile, DesktopEntryCache.directoryTimes(roots)).orElseThrow();
+
+        DesktopEntry firefox = read.get("firefox.desktop");
+        assertEquals("Firefox", firefox.getName());
+        assertEquals("firefox %u", firefox.getExec());
+        assertEquals("firefox", firefox.getIcon());
+        assertEquals(applications.resolve("firefox.desktop"), firefox.getPath());
+        assertEquals(List.of("x-scheme-handler/https", "text/html"), firefox.getMimeTypes());
+        assertNull(firefox.getTryExec());
+
+        DesktopEntry term = read.get("org-term.desktop");
+        assertTrue(term.isTerminal());
+        assertEquals("term", term.getTryExec());
+        assertEquals("/tmp", term.getWorkingDirectory());
+    }
+
+    @Test
+    void read_AfterEntryIsAdded_ShouldRejectSnapshot() throws IOException {
+        DesktopEntryCache.write(cacheFile, DesktopEntryCache.directoryTimes(roots), Map.of());
+
+        Files.writeString(vendor.resolve("new.desktop"), "[Desktop Entry]\nExec=new\n");
+        Files.setLastModifiedTime(vendor, FileTime.from(Instant.now().minusSeconds(30)));
+
+        assertEquals(Optional.empty(), DesktopEntryCache.read(cacheFile, DesktopEntryCache.directoryTimes(roots)));
+    }
+
+    @Test
+    void read_AfterMissingRootIsCreated_ShouldRejectSnapshot() throws IOException {
+        DesktopEntryCache.write(cacheFile, DesktopEntryCache.directoryTimes(roots), Map.of());
+
+        age(Files.createDirectories(tempDir.resolve("missing")));
+
+        assertEquals(Optional.empty(), DesktopEntryCache.read(cacheFile, DesktopEntryCache.directoryTimes(roots)));
+    }
+
+    @Test
+    void read_WithCorruptFile_ShouldReturnEmpty() throws IOException {
+        Files.createDirectories(cacheFile.getParent());
+        Files.write(cacheFile, new byte[]{0x44, 0x41, 0x45, 0x31, 0, 0, 0, 1, 0x7f, 0, 0, 0});
+
+        assertEquals(Optional.empty(), DesktopEntryCache.read(cacheFile, DesktopEntryCache.directoryTimes(roots)));
+    }
+
+    @Test
+    void write_WithRecentlyChangedDirectory_ShouldSkipSnapshot() throws IOException {
+        Files.setLastModifiedTime(vendor, FileTime.from(Instant.now()));
+
+        assertFalse(DesktopEntryCache.write(cacheFile, DesktopEntryCache.directoryTimes(roots), Map.of()));
+        assertFalse(Files.exists(cacheFile));
+    }
+
+    @Test
+    void watch_WithCurrentSnapshot_ShouldLoadEntriesFromIt() throws IOException {
+        try (DesktopEntryIndex first = DesktopEntryIndex.watch(roots, cacheFile, () -> { })) {
+            assertTrue(first.find("firefox.desktop").isPresent());
+        }
+        assertTrue(Files.isRegularFile(cacheFile));
+
+        // Replaced in place, so the directory time stays the same and the snapshot still applies.
+        FileTime before = Files.getLastModifiedTime(applications);
+        Files.writeString(applications.resolve("firefox.desktop"), "[Desktop Entry]\nExec=changed\n");
+        Files.setLastModifiedTime(applications, before);
+
+        try (DesktopEntryIndex second = DesktopEntryIndex.watch(roots, cacheFile, () -> { })) {
+            assertEquals("firefox %u", second.find("firefox.desktop").orElseThrow().getExec());
+            assertEquals(List.of("firefox.desktop"), second.handlersForScheme("https").stream().map(DesktopEntry::getId).toList());
+        }
+    }
+
+    private static Path age(Path directory) throws IOException {
+        Files.setLastModifiedTime(directory, FileTime.from(Instant.now().minusSeconds(60)));
+        return directory;
+    }
+}
@@ -0,0 +1,170 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DesktopEntryIndexTest {
+    @TempDir
+    Path tempDir;
+
+    private Path local;
+    private Path system;
+    private DesktopEntryIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        local = Files.createDirectories(tempDir.resolve("local/applications"));
+        system = Files.createDirectories(tempDir.resolve("usr/applications"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (index != null) {
+            index.close();
+        }
+    }
+
+    @Test
+    void load_ShouldIndexEntriesByIdAndMimeType() throws IOException {
+        writeEntry(system, "firefox.desktop", "firefox %u", "x-scheme-handler/https;text/html;");
+        writeEntry(system, "chromium.desktop", "chromium %U", "x-scheme-handler/https;");
+        writeEntry(system, "viewer.desktop", "viewer %f", "image/png;");
+
+        index = DesktopEntryIndex.load(List.of(local, system));
+
+        assertEquals("firefox %u", index.find("firefox.desktop").orElseThrow().getExec());
+        assertEquals(List.of("chromium.desktop", "firefox.desktop"), ids(index.handlersForScheme("https")));
+        assertEquals(List.of("viewer.desktop"), ids(index.handlersFor("image/png")));
+        assertEquals(List.of(), index.handlersFor("video/mp4"));
+        assertEquals(3, index.entries().size());
+    }
+
+    @Test
+    void load_WithSameIdInTwoDirectories_ShouldPreferTheFirst() throws IOException {
+        writeEntry(local, "firefox.desktop", "firefox-local %u", "");
+        writeEntry(system, "firefox.desktop", "firefox %u", "");
+
+        index = DesktopEntryIndex.load(List.of(local, system));
+
+        assertEquals("firefox-local %u", index.find("firefox.desktop").orElseThrow().getExec());
+    }
+
+    @Test
+    void load_WithHiddenEntry_ShouldHideLowerEntryWithSameId() throws IOException {
+        Files.writeString(local.resolve("firefox.desktop"), """
+                [Desktop Entry]
+                Hidden=true
+                """);
+        writeEntry(system, "firefox.desktop", "firefox %u", "");
+
+        index = DesktopEntryIndex.load(List.of(local, system));
+
+        assertEquals(Optional.empty(), index.find("firefox.desktop"));
+    }
+
+    @Test
+    void load_WithEntryInSubdirectory_ShouldUseVendorPrefixedId() throws IOException {
+        writeEntry(Files.createDirectories(system.resolve("org")), "browser.desktop", "browser %u", "");
+
+        index = DesktopEntryIndex.load(List.of(local, system));
+
+        assertTrue(index.find("org-browser.desktop").isPresent());
+    }
+
+    @Test
+    void watch_WhenEntryIsAddedChangedAndRemoved_ShouldUpdateIndex() throws Exception {
+        AtomicInteger changes = new AtomicInteger();
+        index = DesktopEntryIndex.watch(List.of(local, system), changes::incrementAndGet);
+        assertTrue(index.isWatching());
+
+        writeEntry(system, "firefox.desktop", "firefox %u", "x-scheme-handler/https;");
+        await(() -> index.find("firefox.desktop").isPresent());
+        assertEquals(List.of("firefox.desktop"), ids(index.handlersForScheme("https")));
+
+        writeEntry(local, "firefox.desktop", "firefox-local %u", "x-scheme-handler/https;");
+        await(() -> index.find("firefox.desktop").map(entry -> entry.getExec().startsWith("firefox-local")).orElse(false));
+
+        Files.delete(local.resolve("firefox.desktop"));
+        await(() -> index.find("firefox.desktop").map(entry -> entry.getExec().equals("firefox %u")).orElse(false));
+
+        Files.delete(system.resolve("firefox.desktop"));
+        await(() -> index.find("firefox.desktop").isEmpty());
+        assertEquals(List.of(), index.handlersForScheme("https"));
+        assertTrue(changes.get() > 0);
+    }
+
+    @Test
+    void watch_WhenSubdirectoryIsCreated_ShouldIndexAndWatchIt() throws Exception {
+        index = DesktopEntryIndex.watch(List.of(local, system), () -> { });
+
+        Path vendor = Files.createDirectories(system.resolve("org"));
+        writeEntry(vendor, "browser.desktop", "browser %u", "");
+        await(() -> index.find("org-browser.desktop").isPresent());
+
+        writeEntry(vendor, "browser.desktop", "browser --new %u", "");
+        await(() -> index.find("org-browser.desktop").map(entry -> entry.getExec().startsWith("browser --new")).orElse(false));
+    }
+
+    @Test
+    void watch_WhenListenerFailsOnce_ShouldReloadAndKeepWatching() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        index = DesktopEntryIndex.watch(List.of(local, system), () -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("first change");
+            }
+        });
+
+        writeEntry(system, "firefox.desktop", "firefox %u", "");
+        await(() -> index.find("firefox.desktop").isPresent());
+
+        writeEntry(system, "viewer.desktop", "viewer %f", "");
+        await(() -> index.find("viewer.desktop").isPresent());
+        assertTrue(index.isWatching());
+    }
+
+    @Test
+    void watch_WhenListenerKeepsFailing_ShouldStopWatching() throws Exception {
+        index = DesktopEntryIndex.watch(List.of(local, system), () -> {
+            throw new IllegalStateException("always");
+        });
+        assertTrue(index.isWatching());
+
+        writeEntry(system, "firefox.desktop", "firefox %u", "");
+
+        await(() -> !index.isWatching());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Index was not updated");
+            Thread.sleep(20);
+        }
+    }
+
+    private static List<String> ids(List<DesktopEntry> entries) {
+        return entries.stream().map(DesktopEntry::getId).toList();
+    }
+
+    private static void writeEntry(Path dir, String id, String exec, String mimeTypes) throws IOException {
+        Files.writeString(dir.resolve(id), """
+                [Desktop Entry]
+                Type=Application
+                Name=Test
+                Exec=%s
+                MimeType=%s
+                """.formatted(exec, mimeTypes));
+    }
+}
@@ -0,0 +1,89 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExecLineTest {
+
+    @Test
+    void tokenize_WithPlainArguments_ShouldSplitOnSpaces() {
+        assertEquals(List.of("firefox", "--new-window", "%u"), ExecLine.tokenize("firefox  --new-window %u"));
+    }
+
+    @Test
+    void tokenize_WithQuotedArgument_ShouldKeepSpacesAndUnescape() {
+        assertEquals(List.of("/opt/My App/run", "say \"hi\" $HOME"),
+                ExecLine.tokenize("\"/opt/My App/run\" \"say \\\"hi\\\" \\$HOME\""));
+    }
+
+    @Test
+    void tokenize_WithUnterminatedQuote_ShouldThrowIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> ExecLine.tokenize("app \"unterminated"));
+    }
+
+    @Test
+    void expand_WithSingleUrlCode_ShouldInsertUri() {
+        URI target = URI.create("https://www.example.com/?q=1");
+
+        assertEquals(List.of("firefox", "https://www.example.com/?q=1"),
+                ExecLine.expand(List.of("firefox", "%u"), List.of(target)));
+    }
+
+    @Test
+    void expand_WithFileCode_ShouldInsertLocalPath() {
+        URI target = URI.create("file:///tmp/some%20dir");
+
+        assertEquals(List.of("nautilus", "/tmp/some dir"),
+                ExecLine.expand(List.of("nautilus", "%f"), List.of(target)));
+    }
+
+    @Test
+    void expand_WithListCodes_ShouldInsertAllTargets() {
+        List<URI> targets = List.of(URI.create("file:///a"), URI.create("file:///b"));
+
+        assertEquals(List.of("app", "/a", "/b"), ExecLine.expand(List.of("app", "%F"), targets));
+        assertEquals(List.of("app", "file:///a", "file:///b"), ExecLine.expand(List.of("app", "%U"), targets));
+    }
+
+    @Test
+    void expand_WithoutTargets_ShouldDropFieldCodes() {
+        assertEquals(List.of("app"), ExecLine.expand(List.of("app", "%U", "%f"), List.of()));
+    }
+
+    @Test
+    void expand_WithOtherCodes_ShouldRemoveThemAndKeepLiteralPercent() {
+        assertEquals(List.of("app", "100%", "--name="),
+                ExecLine.expand(List.of("app", "%i", "100%%", "--name=%c"), List.of()));
+    }
+
+    @Test
+    void expand_WithEntry_ShouldInsertIconNameAndLocation() {
+        DesktopEntry entry = new DesktopEntry("editor.desktop", Path.of("/usr/share/applications/editor.desktop"),
+                "Editor", "editor %i --class=%c %k %f", null, null, "accessories-text-editor", false, false, List.of());
+
+        assertEquals(List.of("editor", "--icon", "accessories-text-editor", "--class=Editor",
+                        "/usr/share/applications/editor.desktop", "/tmp/a"),
+                ExecLine.expand(entry.getExecTokens(), List.of(URI.create("file:///tmp/a")), entry));
+    }
+
+    @Test
+    void expand_WithEntryWithoutIcon_ShouldDropIconCode() {
+        DesktopEntry entry = new DesktopEntry("editor.desktop", Path.of("/a/editor.desktop"),
+                null, "editor %i %c", null, null, null, false, false, List.of());
+
+        assertEquals(List.of("editor"), ExecLine.expand(entry.getExecTokens(), List.of(), entry));
+    }
+
+    @Test
+    void getExecTokens_ShouldOnlyTokenizeOnce() {
+        DesktopEntry entry = new DesktopEntry("editor.desktop", Path.of("/a/editor.desktop"),
+                "Editor", "editor %U", null, null, null, false, false, List.of());
+
+        assertSame(entry.getExecTokens(), entry.getExecTokens());
+    }
+}
@@ -0,0 +1,159 @@
+package com.rentoki.desktopactions.linux;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A stand-in message bus for tests: accepts SASL {@code EXTERNAL}, answers the bus methods the
+ * client uses and records every other call, replying with an empty return or a configured error.
+ */
+final class FakeBus implements Closeable {
+    private final ServerSocketChannel server;
+    private final Path socket;
+    private final List<DBusMessage> calls = new CopyOnWriteArrayList<>();
+    private final List<SocketChannel> clients = new CopyOnWriteArrayList<>();
+    private final Set<String> owned = ConcurrentHashMap.newKeySet();
+    private final Set<String> activatable = ConcurrentHashMap.newKeySet();
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
+    private volatile boolean rejectAuth;
+
+    private FakeBus(ServerSocketChannel server, Path socket) {
+        this.server = server;
+        this.socket = socket;
+    }
+
+    static FakeBus start(Path socket) throws IOException {
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        FakeBus bus = new FakeBus(server, socket);
+        Thread.ofVirtual().start(bus::acceptLoop);
+        return bus;
+    }
+
+    Path getSocket() {
+        return socket;
+    }
+
+    FakeBus own(String name) {
+        owned.add(name);
+        return this;
+    }
+
+    FakeBus activatable(String name) {
+        activatable.add(name);
+        return this;
+    }
+
+    /**
+     * Makes calls to the given member fail with the given error name.
+     */
+    FakeBus fail(String member, String errorName) {
+        errors.put(member, errorName);
+        return this;
+    }
+
+    FakeBus rejectAuth() {
+        rejectAuth = true;
+        return this;
+    }
+
+    /**
+     * Returns the recorded calls to the given member, in arrival order.
+     */
+    List<DBusMessage> calls(String member) {
+        return calls.stream().filter(call -> member.equals(call.getMember())).toList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        for (SocketChannel client : clients) {
+            client.close();
+        }
+    }
+
+    private void acceptLoop() {
+        try {
+            while (true) {
+                SocketChannel client = server.accept();
+                clients.add(client);
+                Thread.ofVirtual().start(() -> serve(client));
+            }
+        } catch (IOException e) {
+            // Closed.
+        }
+    }
+
+    private void serve(SocketChannel client) {
+        try {
+            readLine(client);
+            if (rejectAuth) {
+                write(client, "REJECTED EXTERNAL\r\n".getBytes(StandardCharsets.US_ASCII));
+                client.close();
+                return;
+            }
+            write(client, "OK 0123456789abcdef0123456789abcdef\r\n".getBytes(StandardCharsets.US_ASCII));
+            readLine(client);
+
+            while (true) {
+                DBusMessage call = DBusMessage.read(client).withSender(":1.1");
+                calls.add(call);
+                if (call.isReplyExpected()) {
+                    write(client, reply(call).encode(1));
+                }
+            }
+        } catch (IOException e) {
+            // Client went away.
+        }
+    }
+
+    private DBusMessage reply(DBusMessage call) {
+        String error = errors.get(call.getMember());
+        if (error != null) {
+            return DBusMessage.error(call, error, "Stand-in failure");
+        }
+        return switch (call.getMember()) {
+            case "Hello" -> DBusMessage.methodReturn(call, "s", ":1.1");
+            case "NameHasOwner" -> DBusMessage.methodReturn(call, "b", owned.contains((String) call.getBody().get(0)));
+            case "ListActivatableNames" -> DBusMessage.methodReturn(call, "as", List.copyOf(activatable));
+            default -> DBusMessage.methodReturn(call, "");
+        };
+    }
+
+    private static void write(SocketChannel client, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        synchronized (client) {
+            while (buffer.hasRemaining()) {
+                client.write(buffer);
+            }
+        }
+    }
+
+    private static String readLine(SocketChannel client) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        ByteBuffer single = ByteBuffer.allocate(1);
+        while (true) {
+            single.clear();
+            if (client.read(single) < 0) {
+                throw new IOException("closed");
+            }
+            if (single.get(0) == '\n') {
+                return line.toString(StandardCharsets.US_ASCII);
+            }
+            line.write(single.get(0));
+        }
+    }
+}
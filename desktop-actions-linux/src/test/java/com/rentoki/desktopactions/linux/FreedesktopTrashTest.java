@@ -0,0 +1,261 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FreedesktopTrashTest {
+    @TempDir
+    Path tempDir;
+
+    private Path trashRoot;
+    private FreedesktopTrash trash;
+
+    @BeforeEach
+    void setUp() {
+        trashRoot = tempDir.resolve("data/Trash");
+        trash = new FreedesktopTrash(XdgDirectories.of(Map.of("XDG_DATA_HOME", tempDir.resolve("data").toString()), tempDir), 1000);
+    }
+
+    @Test
+    void trash_WithFile_ShouldRenameIntoHomeTrashAndWriteInfo() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("report.txt"), "content");
+
+        Path trashed = trash.trash(file);
+
+        assertFalse(Files.exists(file));
+        assertEquals(trashRoot.resolve("files/report.txt"), trashed);
+        assertEquals("content", Files.readString(trashed));
+
+        List<String> info = Files.readAllLines(trashRoot.resolve("info/report.txt.trashinfo"));
+        assertEquals("[Trash Info]", info.get(0));
+        assertEquals("Path=" + TrashDirectory.encodePath(tempDir.toRealPath().resolve("report.txt").toString()), info.get(1));
+        assertTrue(info.get(2).matches("DeletionDate=\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}"));
+    }
+
+    @Test
+    void trash_WithNameAlreadyInTrash_ShouldPickNextFreeName() throws Exception {
+        Files.writeString(tempDir.resolve("report.txt"), "first");
+        trash.trash(tempDir.resolve("report.txt"));
+        Files.writeString(tempDir.resolve("report.txt"), "second");
+
+        Path trashed = trash.trash(tempDir.resolve("report.txt"));
+
+        assertEquals(trashRoot.resolve("files/report.2.txt"), trashed);
+        assertEquals("second", Files.readString(trashed));
+        assertTrue(Files.exists(trashRoot.resolve("info/report.2.txt.trashinfo")));
+    }
+
+    @Test
+    void trash_WithOrphanedTrashFile_ShouldNotOverwriteIt() throws Exception {
+        Files.createDirectories(trashRoot.resolve("files"));
+        Files.writeString(trashRoot.resolve("files/report.txt"), "orphan");
+        Files.writeString(tempDir.resolve("report.txt"), "new");
+
+        Path trashed = trash.trash(tempDir.resolve("report.txt"));
+
+        assertEquals(trashRoot.resolve("files/report.2.txt"), trashed);
+        assertEquals("orphan", Files.readString(trashRoot.resolve("files/report.txt")));
+        assertFalse(Files.exists(trashRoot.resolve("info/report.txt.trashinfo")));
+    }
+
+    @Test
+    void trash_WithDirectory_ShouldMoveWholeTree() throws Exception {
+        Path directory = Files.createDirectories(tempDir.resolve("build/classes"));
+        Files.writeString(directory.resolve("Main.class"), "bytes");
+
+        trash.trash(tempDir.resolve("build"));
+
+        assertFalse(Files.exists(tempDir.resolve("build")));
+        assertEquals("bytes", Files.readString(trashRoot.resolve("files/build/classes/Main.class")));
+    }
+
+    @Test
+    void trash_WithSymbolicLink_ShouldTrashLinkNotTarget() throws Exception {
+        Path target = Files.writeString(tempDir.resolve("target.txt"), "keep");
+        Path link = Files.createSymbolicLink(tempDir.resolve("link.txt"), target);
+
+        trash.trash(link);
+
+        assertTrue(Files.exists(target));
+        assertTrue(Files.isSymbolicLink(trashRoot.resolve("files/link.txt")));
+    }
+
+    @Test
+    void trash_WithMissingFile_ShouldNotLeaveInfoBehind() throws Exception {
+        assertThrows(IOException.class, () -> trash.trash(tempDir.resolve("missing.txt")));
+
+        try (var info = Files.list(Files.createDirectories(trashRoot.resolve("info")))) {
+            assertEquals(0, info.count());
+        }
+    }
+
+    @Test
+    void forTopdir_WithoutSharedTrash_ShouldUsePerUserTrash() {
+        TrashDirectory directory = TrashDirectory.forTopdir(tempDir, 1000).orElseThrow();
+
+        assertEquals(tempDir.resolve(".Trash-1000"), directory.getRoot());
+        assertTrue(Files.isDirectory(directory.getFiles()));
+        assertTrue(Files.isDirectory(directory.getInfo()));
+    }
+
+    @Test
+    void forTopdir_WithSymlinkedSharedTrash_ShouldNotUseIt() throws Exception {
+        Path elsewhere = Files.createDirectories(tempDir.resolve("elsewhere"));
+        Files.createSymbolicLink(tempDir.resolve(".Trash"), elsewhere);
+
+        TrashDirectory directory = TrashDirectory.forTopdir(tempDir, 1000).orElseThrow();
+
+        assertEquals(tempDir.resolve(".Trash-1000"), directory.getRoot());
+        assertFalse(Files.exists(elsewhere.resolve("1000"), LinkOption.NOFOLLOW_LINKS));
+    }
+
+    @Test
+    void forTopdir_WithNonStickySharedTrash_ShouldNotUseIt() throws Exception {
+        Files.createDirectories(tempDir.resolve(".Trash"));
+
+        TrashDirectory directory = TrashDirectory.forTopdir(tempDir, 1000).orElseThrow();
+
+        assertEquals(tempDir.resolve(".Trash-1000"), directory.getRoot());
+    }
+
+    @Test
+    void trash_InPerMountTrash_ShouldStoreRelativePath() throws Exception {
+        Path file = Files.writeString(Files.createDirectories(tempDir.resolve("photos")).resolve("a b.jpg"), "jpeg");
+        TrashDirectory directory = TrashDirectory.forTopdir(tempDir, 1000).orElseThrow();
+
+        directory.trash(FreedesktopTrash.sourceOf(file));
+
+        List<String> info = Files.readAllLines(directory.getInfo().resolve("a b.jpg.trashinfo"));
+        assertEquals("Path=photos/a%20b.jpg", info.get(1));
+    }
+
+    @Test
+    void encodePath_ShouldEscapeReservedAndNonAsciiCharacters() {
+        assertEquals("/home/user/%C3%BCber%20uns%25.txt", TrashDirectory.encodePath("/home/user/über uns%.txt"));
+    }
+
+    @Test
+    void candidateName_ShouldNumberBeforeExtension() {
+        assertEquals("report.pdf", TrashDirectory.candidateName("report.pdf", 1));
+        assertEquals("report.3.pdf", TrashDirectory.candidateName("report.pdf", 3));
+        assertEquals(".bashrc.2", TrashDirectory.candidateName(".bashrc", 2));
+    }
+
+    @Test
+    void moveToTrash_WithBatch_ShouldReportEveryPath() throws Exception {
+        Path first = Files.writeString(tempDir.resolve("first.txt"), "1");
+        Path missing = tempDir.resolve("missing.txt");
+        FreedesktopTrashBackend backend = new FreedesktopTrashBackend(Map.of("XDG_DATA_HOME", tempDir.resolve("data").toString()));
+
+        BatchResult<Path> result = backend.moveToTrash(List.of(first, missing));
+
+        assertEquals(List.of(first), result.getSucceeded());
+        assertTrue(Files.exists(trashRoot.resolve("files/first.txt")));
+        DesktopActionException error = result.getFailed().get(missing);
+        assertEquals(ErrorMessage.MOVE_TO_TRASH_FAILED.getMessage() + missing, error.getMessage());
+    }
+
+    @Test
+    void directoryFor_WithSourcesOnDifferentMounts_ShouldResolveEachByItsOwnMount() throws Exception {
+        Path root = tempDir.toRealPath();
+        Path usb = Files.createDirectories(root.resolve("usb"));
+        Path mountinfo = Files.writeString(tempDir.resolve("mountinfo"), """
+                22 1 259:2 / / rw,relatime shared:1 - ext4 /dev/nvme0n1p2 rw
+                70 22 0:45 / %s rw - vfat /dev/sdc1 rw
+                """.formatted(usb));
+        FreedesktopTrash mounted = new FreedesktopTrash(
+                XdgDirectories.of(Map.of("XDG_DATA_HOME", tempDir.resolve("data").toString()), tempDir), 1000,
+                new MountTable(mountinfo, Duration.ofHours(1)));
+        Path onUsb = Files.writeString(usb.resolve("photo.jpg"), "jpeg");
+        Path link = Files.createSymbolicLink(root.resolve("photo-link"), onUsb);
+        Map<MountTable.Mount, TrashDirectory> resolved = new HashMap<>();
+
+        TrashDirectory usbTrash = mounted.directoryFor(FreedesktopTrash.sourceOf(onUsb), resolved);
+        TrashDirectory linkTrash = mounted.directoryFor(FreedesktopTrash.sourceOf(link), resolved);
+
+        assertEquals(usb.resolve(".Trash-1000"), usbTrash.getRoot());
+        assertEquals(trashRoot, linkTrash.getRoot());
+        assertSame(usbTrash, mounted.directoryFor(FreedesktopTrash.sourceOf(onUsb), resolved));
+    }
+
+    @Test
+    void trash_WithSameNameFromManyThreads_ShouldGiveEveryFileItsOwnName() throws Exception {
+        int count = 64;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            files.add(Files.writeString(Files.createDirectories(tempDir.resolve("job-" + i)).resolve("build.log"), "log " + i));
+        }
+
+        Set<Path> trashed = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(16)) {
+            List<Future<Path>> results = new ArrayList<>();
+            for (Path file : files) {
+                results.add(executor.submit(() -> trash.trash(file)));
+            }
+            for (Future<Path> result : results) {
+                trashed.add(result.get());
+            }
+        }
+
+        assertEquals(count, trashed.size());
+        try (var infos = Files.list(trashRoot.resolve("info"))) {
+            assertEquals(count, infos.count());
+        }
+        Set<String> contents = new HashSet<>();
+        for (Path path : trashed) {
+            contents.add(Files.readString(path));
+        }
+        assertEquals(count, contents.size());
+    }
+
+    @Test
+    void trash_WithNamesTakenByAnotherProcess_ShouldSkipAheadWithoutOverwriting() throws Exception {
+        Files.createDirectories(trashRoot.resolve("info"));
+        Files.createDirectories(trashRoot.resolve("files"));
+        for (int attempt = 1; attempt <= 200; attempt++) {
+            Files.writeString(trashRoot.resolve("info/" + TrashDirectory.candidateName("build.log", attempt) + ".trashinfo"), "other");
+        }
+
+        Path trashed = trash.trash(Files.writeString(tempDir.resolve("build.log"), "mine"));
+
+        assertEquals("mine", Files.readString(trashed));
+        assertTrue(Files.readString(trashRoot.resolve("info/" + trashed.getFileName() + ".trashinfo")).contains("[Trash Info]"));
+        try (var infos = Files.list(trashRoot.resolve("info"))) {
+            assertEquals(201, infos.count());
+        }
+    }
+
+    @Test
+    void next_ShouldHandOutDistinctSuffixes() {
+        TrashNames names = TrashNames.of(tempDir.resolve("Trash"));
+
+        Set<Integer> attempts = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(attempts.add(names.next("build.log", 1, 1)));
+        }
+        assertTrue(attempts.add(names.next("build.log", 150, 10)));
+        assertFalse(attempts.contains(1));
+    }
+}
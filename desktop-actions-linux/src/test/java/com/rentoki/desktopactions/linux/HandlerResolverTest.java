@@ -0,0 +1,182 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HandlerResolverTest {
+    @TempDir
+    Path tempDir;
+
+    private Path configHome;
+    private Path applications;
+    private XdgDirectories dirs;
+    private HandlerResolver resolver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        configHome = Files.createDirectories(tempDir.resolve("config"));
+        applications = Files.createDirectories(tempDir.resolve("data/applications"));
+        dirs = XdgDirectories.of(Map.of(
+                "XDG_CONFIG_HOME", configHome.toString(),
+                "XDG_CONFIG_DIRS", tempDir.resolve("etc").toString(),
+                "XDG_DATA_HOME", tempDir.resolve("data").toString(),
+                "XDG_DATA_DIRS", tempDir.resolve("usr").toString()), tempDir);
+        writeEntry("firefox.desktop", "firefox %u");
+        writeEntry("chromium.desktop", "chromium %U");
+        writeDefault("firefox.desktop");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (resolver != null) {
+            resolver.close();
+        }
+    }
+
+    @Test
+    void resolve_WithDefaultApplication_ShouldReturnItsEntry() {
+        resolver = new HandlerResolver(dirs);
+
+        assertEquals("firefox.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+        assertEquals(Optional.empty(), resolver.resolve("x-scheme-handler/gopher"));
+    }
+
+    @Test
+    void resolve_CalledTwice_ShouldReuseCachedEntry() {
+        resolver = new HandlerResolver(dirs);
+        assertTrue(resolver.isWatching());
+
+        assertSame(resolver.resolve("x-scheme-handler/https").orElseThrow(), resolver.resolve("x-scheme-handler/https").orElseThrow());
+    }
+
+    @Test
+    void resolve_AfterMimeappsListChanges_ShouldPickUpNewHandler() throws Exception {
+        resolver = new HandlerResolver(dirs);
+        assertEquals("firefox.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+
+        writeDefault("chromium.desktop");
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!"chromium.desktop".equals(resolver.resolve("x-scheme-handler/https").orElseThrow().getId())) {
+            assertTrue(System.nanoTime() < deadline, "Change was not picked up");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void resolve_AfterDesktopEntryChanges_ShouldPickUpNewExecLine() throws Exception {
+        resolver = new HandlerResolver(dirs);
+        assertEquals("firefox %u", resolver.resolve("x-scheme-handler/https").orElseThrow().getExec());
+
+        writeEntry("firefox.desktop", "firefox --new-window %u");
+
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        // The entry may briefly be empty while it is rewritten, so an empty result is not a failure yet.
+        while (!"firefox --new-window %u".equals(resolver.resolve("x-scheme-handler/https").map(DesktopEntry::getExec).orElse(null))) {
+            assertTrue(System.nanoTime() < deadline, "Change was not picked up");
+            Thread.sleep(20);
+        }
+    }
+
+    @Test
+    void resolve_WithoutAssociation_ShouldFallBackToEntryDeclaringTheType() throws IOException {
+        Files.writeString(applications.resolve("viewer.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Name=Viewer
+                Exec=viewer %f
+                MimeType=image/png;image/jpeg;
+                """);
+        Files.writeString(applications.resolve("editor.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Name=Editor
+                Exec=editor %f
+                MimeType=image/jpeg;
+                """);
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                image/png=missing.desktop
+                [Removed Associations]
+                image/jpeg=editor.desktop
+                """);
+        resolver = new HandlerResolver(dirs);
+
+        assertEquals("viewer.desktop", resolver.resolve("image/png").orElseThrow().getId());
+        assertEquals("viewer.desktop", resolver.resolve("image/jpeg").orElseThrow().getId());
+        assertEquals(Optional.empty(), resolver.resolve("video/mp4"));
+        assertEquals("viewer.desktop", new HandlerResolver(dirs, false).resolve("image/png").orElseThrow().getId());
+    }
+
+    @Test
+    void resolve_WithoutWatcher_ShouldReadFilesEveryTime() throws IOException {
+        resolver = new HandlerResolver(dirs, false);
+        assertEquals("firefox.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+
+        writeDefault("chromium.desktop");
+
+        assertEquals("chromium.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+    }
+
+    @Test
+    void resolve_WithoutWatcher_ShouldIndexDeclaredTypesAgainOnlyWhenApplicationsChange() throws IOException {
+        writeDeclaring("viewer.desktop", "image/png");
+        resolver = new HandlerResolver(dirs, false);
+        DesktopEntry viewer = resolver.resolve("image/png").orElseThrow();
+
+        assertSame(viewer, resolver.resolve("image/png").orElseThrow());
+
+        writeDeclaring("gallery.desktop", "image/png");
+        Files.setLastModifiedTime(applications, FileTime.fromMillis(Files.getLastModifiedTime(applications).toMillis() + 10_000));
+
+        assertEquals("gallery.desktop", resolver.resolve("image/png").orElseThrow().getId());
+    }
+
+    @Test
+    void invalidate_ShouldDropCachedAssociations() throws IOException {
+        resolver = new HandlerResolver(dirs);
+        assertEquals("firefox.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+        writeDefault("chromium.desktop");
+
+        resolver.invalidate();
+
+        assertEquals("chromium.desktop", resolver.resolve("x-scheme-handler/https").orElseThrow().getId());
+    }
+
+    private void writeDefault(String id) throws IOException {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=%s
+                """.formatted(id));
+    }
+
+    private void writeDeclaring(String id, String mimeType) throws IOException {
+        Files.writeString(applications.resolve(id), """
+                [Desktop Entry]
+                Type=Application
+                Name=Test
+                Exec=test %%f
+                MimeType=%s;
+                """.formatted(mimeType));
+    }
+
+    private void writeEntry(String id, String exec) throws IOException {
+        Files.writeString(applications.resolve(id), """
+                [Desktop Entry]
+                Type=Application
+                Name=Test
+                Exec=%s
+                """.formatted(exec));
+    }
+}
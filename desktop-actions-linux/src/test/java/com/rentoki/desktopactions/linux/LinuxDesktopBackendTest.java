@@ -0,0 +1,341 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.PlatformCapabilities;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedConstruction;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+public class LinuxDesktopBackendTest {
+    @TempDir
+    Path tempDir;
+
+    private Path configHome;
+    private Path applications;
+    private Map<String, String> env;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        configHome = Files.createDirectories(tempDir.resolve("config"));
+        applications = Files.createDirectories(tempDir.resolve("data/applications"));
+        env = Map.of(
+                "DISPLAY", ":0",
+                "XDG_CONFIG_HOME", configHome.toString(),
+                "XDG_CONFIG_DIRS", tempDir.resolve("etc").toString(),
+                "XDG_DATA_HOME", tempDir.resolve("data").toString(),
+                "XDG_DATA_DIRS", tempDir.resolve("usr").toString(),
+                "XDG_CACHE_HOME", tempDir.resolve("cache").toString());
+    }
+
+    @Test
+    void browse_WithDefaultBrowser_ShouldExecHandlerDirectly() throws Exception {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=firefox.desktop
+                """);
+        writeEntry("firefox.desktop", "firefox --new-window %u");
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).browse(URI.create("https://www.example.com")));
+
+        assertEquals(List.of(List.of("firefox", "--new-window", "https://www.example.com")), commands);
+    }
+
+    @Test
+    void browse_WithManyUrisAndMultiUrlHandler_ShouldLaunchOnce() throws Exception {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=chromium.desktop
+                x-scheme-handler/http=chromium.desktop
+                """);
+        writeEntry("chromium.desktop", "chromium %U");
+        List<URI> uris = List.of(URI.create("https://a.example"), URI.create("http://b.example"), URI.create("https://c.example"));
+        List<BatchResult<URI>> result = new ArrayList<>();
+
+        List<List<String>> commands = launch(() -> result.add(new LinuxDesktopBackend(env).browse(uris)));
+
+        assertEquals(List.of(List.of("chromium", "https://a.example", "http://b.example", "https://c.example")), commands);
+        assertEquals(uris, result.get(0).getSucceeded());
+    }
+
+    @Test
+    void browse_WithManyUris_ShouldApplyEntryCodesWorkingDirectoryAndTerminal() throws Exception {
+        Map<String, String> withTerminal = new java.util.HashMap<>(env);
+        withTerminal.put("TERMINAL", "foot");
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/gopher=lynx.desktop
+                """);
+        Files.writeString(applications.resolve("lynx.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Name=Lynx
+                Icon=lynx-icon
+                Path=%s
+                Terminal=true
+                Exec=lynx %%i --title=%%c %%U
+                """.formatted(tempDir));
+        List<URI> uris = List.of(URI.create("gopher://a.example"), URI.create("gopher://b.example"));
+        List<File> directories = new ArrayList<>();
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(withTerminal).browse(uris), directories);
+
+        assertEquals(List.of(List.of("foot", "-e", "lynx", "--icon", "lynx-icon", "--title=Lynx",
+                "gopher://a.example", "gopher://b.example")), commands);
+        assertEquals(List.of(tempDir.toFile()), directories);
+    }
+
+    @Test
+    void browse_WithManyUrisAndSingleUrlHandler_ShouldLaunchOncePerUri() throws Exception {
+        assumeTrue(Files.isExecutable(Path.of("/bin/true")));
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=single.desktop
+                x-scheme-handler/broken=broken.desktop
+                """);
+        writeEntry("single.desktop", "/bin/true %u");
+        writeEntry("broken.desktop", "\"unterminated %u");
+        List<URI> uris = List.of(URI.create("https://a.example"), URI.create("broken:x"), URI.create("https://b.example"));
+
+        BatchResult<URI> result = new LinuxDesktopBackend(env).browse(uris);
+
+        assertEquals(List.of(URI.create("https://a.example"), URI.create("https://b.example")), result.getSucceeded());
+        assertEquals(List.of(URI.create("broken:x")), List.copyOf(result.getFailed().keySet()));
+        assertEquals(uris, List.copyOf(result.getResults().keySet()));
+    }
+
+    @Test
+    void browse_ShouldSkipUninstalledAndRemovedHandlers() throws Exception {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=missing.desktop;chromium.desktop
+
+                [Added Associations]
+                x-scheme-handler/https=firefox.desktop
+
+                [Removed Associations]
+                x-scheme-handler/https=chromium.desktop
+                """);
+        writeEntry("chromium.desktop", "chromium %U");
+        writeEntry("firefox.desktop", "firefox %u");
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).browse(URI.create("https://www.example.com")));
+
+        assertEquals(List.of(List.of("firefox", "https://www.example.com")), commands);
+    }
+
+    @Test
+    void browse_WithSystemRemoval_ShouldKeepAssociationAddedByUser() throws Exception {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Added Associations]
+                x-scheme-handler/https=firefox.desktop
+                """);
+        Files.writeString(Files.createDirectories(tempDir.resolve("etc")).resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/https=chromium.desktop
+
+                [Removed Associations]
+                x-scheme-handler/https=firefox.desktop;chromium.desktop
+                """);
+        writeEntry("chromium.desktop", "chromium %U");
+        writeEntry("firefox.desktop", "firefox %u");
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).browse(URI.create("https://www.example.com")));
+
+        assertEquals(List.of(List.of("firefox", "https://www.example.com")), commands);
+    }
+
+    @Test
+    void browse_WithVendorPrefixedId_ShouldFindEntryInSubdirectory() throws Exception {
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                x-scheme-handler/http=org-browser.desktop
+                """);
+        Files.createDirectories(applications.resolve("org"));
+        Files.writeString(applications.resolve("org/browser.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Exec=browser %u
+                """);
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).browse(URI.create("http://example.com")));
+
+        assertEquals(List.of(List.of("browser", "http://example.com")), commands);
+    }
+
+    @Test
+    void openDirectory_WithDesktopSpecificDefault_ShouldPreferIt() throws Exception {
+        Map<String, String> gnome = new java.util.HashMap<>(env);
+        gnome.put("XDG_CURRENT_DESKTOP", "GNOME");
+        Files.writeString(configHome.resolve("mimeapps.list"), """
+                [Default Applications]
+                inode/directory=dolphin.desktop
+                """);
+        Files.writeString(configHome.resolve("gnome-mimeapps.list"), """
+                [Default Applications]
+                inode/directory=org.gnome.Nautilus.desktop
+                """);
+        writeEntry("dolphin.desktop", "dolphin %u");
+        writeEntry("org.gnome.Nautilus.desktop", "nautilus --new-window %U");
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(gnome).openDirectory(tempDir.toFile()));
+
+        assertEquals(List.of(List.of("nautilus", "--new-window", tempDir.toUri().toString())), commands);
+    }
+
+    @Test
+    void browse_WithoutAssociation_ShouldFallBackToXdgOpen() throws Exception {
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).browse(URI.create("https://www.example.com")));
+
+        assertEquals(List.of(List.of("xdg-open", "https://www.example.com")), commands);
+    }
+
+    @Test
+    void browse_WhenProcessFailsToStart_ShouldThrowDesktopActionException() {
+        try (MockedConstruction<ProcessBuilder> mock = mockConstruction(ProcessBuilder.class,
+                (processBuilder, context) -> when(processBuilder.start()).thenThrow(new IOException("Process error")))) {
+
+            DesktopActionException exception = assertThrows(
+                    DesktopActionException.class,
+                    () -> new LinuxDesktopBackend(env).browse(URI.create("https://www.example.com"))
+            );
+            assertEquals(ErrorMessage.BROWSE_FAILED.getMessage(), exception.getMessage());
+            assertInstanceOf(IOException.class, exception.getCause());
+        }
+    }
+
+    @Test
+    void launchApplication_ShouldExpandEntryCodesInWorkingDirectory() throws Exception {
+        Files.writeString(applications.resolve("editor.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Name=Editor
+                Icon=editor-icon
+                Path=%s
+                Exec=editor %%i --name=%%c %%F
+                """.formatted(tempDir));
+        List<File> directories = new ArrayList<>();
+        List<URI> targets = List.of(tempDir.resolve("a.txt").toUri(), tempDir.resolve("b.txt").toUri());
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).launchApplication("editor", targets), directories);
+
+        assertEquals(List.of(List.of("editor", "--icon", "editor-icon", "--name=Editor",
+                tempDir.resolve("a.txt").toString(), tempDir.resolve("b.txt").toString())), commands);
+        assertEquals(List.of(tempDir.toFile()), directories);
+    }
+
+    @Test
+    void launchApplication_WithSingleTargetCode_ShouldLaunchOncePerTarget() throws Exception {
+        writeEntry("viewer.desktop", "viewer %u");
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(env).launchApplication("viewer.desktop",
+                List.of(URI.create("https://a.example"), URI.create("https://b.example"))));
+
+        assertEquals(List.of(List.of("viewer", "https://a.example"), List.of("viewer", "https://b.example")), commands);
+    }
+
+    @Test
+    void launchApplication_WithTerminalEntry_ShouldWrapInTerminal() throws Exception {
+        Map<String, String> withTerminal = new java.util.HashMap<>(env);
+        withTerminal.put("TERMINAL", "foot");
+        Files.writeString(applications.resolve("top.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                Exec=top
+                Terminal=true
+                """);
+
+        List<List<String>> commands = launch(() -> new LinuxDesktopBackend(withTerminal).launchApplication("top.desktop", List.of()));
+
+        assertEquals(List.of(List.of("foot", "-e", "top")), commands);
+    }
+
+    @Test
+    void launchApplication_WithMissingTryExec_ShouldThrowWithoutLaunching() throws Exception {
+        Files.writeString(applications.resolve("gone.desktop"), """
+                [Desktop Entry]
+                Type=Application
+                TryExec=%s
+                Exec=gone
+                """.formatted(tempDir.resolve("missing-binary")));
+        List<List<String>> commands = launch(() -> {
+            DesktopActionException exception = assertThrows(DesktopActionException.class,
+                    () -> new LinuxDesktopBackend(env).launchApplication("gone.desktop", List.of()));
+            assertEquals(ErrorMessage.LAUNCH_APPLICATION_FAILED.getMessage() + "gone.desktop", exception.getMessage());
+        });
+
+        assertEquals(List.of(), commands);
+    }
+
+    @Test
+    void launchApplication_WithUnknownId_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(DesktopActionException.class,
+                () -> new LinuxDesktopBackend(env).launchApplication("missing", List.of()));
+
+        assertInstanceOf(IOException.class, exception.getCause());
+    }
+
+    @Test
+    void isAvailable_WithoutDisplay_ShouldBeFalse() {
+        assertFalse(new LinuxDesktopBackend(Map.of()).isAvailable());
+    }
+
+    @Test
+    void isAvailable_OnLinuxWithDisplay_ShouldBeTrue() {
+        assumeTrue(PlatformCapabilities.current().isLinux());
+
+        assertTrue(new LinuxDesktopBackend(env).isAvailable());
+        assertTrue(new LinuxDesktopBackend(env).supports(DesktopAction.BROWSE));
+    }
+
+    private void writeEntry(String id, String exec) throws IOException {
+        Files.writeString(applications.resolve(id), """
+                [Desktop Entry]
+                Type=Application
+                Name=Test
+                Exec=%s
+                """.formatted(exec));
+    }
+
+    private static List<List<String>> launch(ThrowingAction action) throws Exception {
+        return launch(action, new ArrayList<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<List<String>> launch(ThrowingAction action, List<File> directories) throws Exception {
+        List<List<String>> commands = new ArrayList<>();
+        try (MockedConstruction<ProcessBuilder> mock = mockConstruction(ProcessBuilder.class,
+                (processBuilder, context) -> {
+                    commands.add(List.copyOf((List<String>) context.arguments().get(0)));
+                    when(processBuilder.start()).thenReturn(mock(Process.class));
+                    when(processBuilder.directory(any(File.class))).thenAnswer(invocation -> {
+                        directories.add(invocation.getArgument(0));
+                        return processBuilder;
+                    });
+                })) {
+            action.run();
+        }
+        return commands;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingAction {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,116 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MountTableTest {
+    private static final String MOUNTINFO = """
+            22 1 259:2 / / rw,relatime shared:1 - ext4 /dev/nvme0n1p2 rw
+            25 22 0:22 / /proc rw,nosuid shared:12 - proc proc rw
+            40 22 259:3 / /home rw,relatime shared:20 - ext4 /dev/nvme0n1p3 rw
+            61 40 8:17 / /home/user/My\\040Drive rw,relatime shared:31 master:2 - vfat /dev/sdb1 rw
+            70 22 0:45 / /media/usb rw - vfat /dev/sdc1 rw
+            71 70 0:46 / /media/usb rw - exfat /dev/sdd1 rw
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mountOf_ShouldReturnLongestMatchingMountPoint() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ofHours(1));
+
+        assertEquals(Path.of("/"), mountPoint(table, "/usr/share/doc"));
+        assertEquals(Path.of("/home"), mountPoint(table, "/home/user/report.txt"));
+        assertEquals(Path.of("/home"), mountPoint(table, "/home"));
+        assertEquals("259:3", table.mountOf(Path.of("/home/user")).orElseThrow().device());
+    }
+
+    @Test
+    void mountOf_ShouldMatchWholeComponentsOnly() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ofHours(1));
+
+        assertEquals(Path.of("/"), mountPoint(table, "/homework/notes.txt"));
+        assertEquals(Path.of("/"), mountPoint(table, "/proc2"));
+    }
+
+    @Test
+    void mountOf_WithEscapedMountPoint_ShouldDecodeIt() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ofHours(1));
+
+        MountTable.Mount mount = table.mountOf(Path.of("/home/user/My Drive/photo.jpg")).orElseThrow();
+
+        assertEquals(Path.of("/home/user/My Drive"), mount.mountPoint());
+        assertEquals("vfat", mount.fileSystemType());
+    }
+
+    @Test
+    void mountOf_WithStackedMounts_ShouldReturnTopmost() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ofHours(1));
+
+        assertEquals("exfat", table.mountOf(Path.of("/media/usb/file")).orElseThrow().fileSystemType());
+    }
+
+    @Test
+    void mountOf_WithUnreadableMountInfo_ShouldReturnEmpty() {
+        MountTable table = new MountTable(tempDir.resolve("missing"), Duration.ofHours(1));
+
+        assertTrue(table.mountOf(Path.of("/home/user")).isEmpty());
+    }
+
+    @Test
+    void mountOf_WithinStalenessInterval_ShouldNotRereadMountInfo() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ofHours(1));
+        assertEquals(Path.of("/"), mountPoint(table, "/mnt/backup/file"));
+
+        Files.writeString(tempDir.resolve("mountinfo"), MOUNTINFO + "80 22 0:50 / /mnt/backup rw - xfs /dev/sde1 rw\n");
+
+        assertEquals(Path.of("/"), mountPoint(table, "/mnt/backup/file"));
+        table.invalidate();
+        assertEquals(Path.of("/mnt/backup"), mountPoint(table, "/mnt/backup/file"));
+    }
+
+    @Test
+    void mountOf_AfterStalenessInterval_ShouldPickUpNewMounts() throws Exception {
+        MountTable table = table(MOUNTINFO, Duration.ZERO);
+        assertEquals(Path.of("/"), mountPoint(table, "/mnt/backup/file"));
+
+        Files.writeString(tempDir.resolve("mountinfo"), MOUNTINFO + "80 22 0:50 / /mnt/backup rw - xfs /dev/sde1 rw\n");
+
+        assertEquals(Path.of("/mnt/backup"), mountPoint(table, "/mnt/backup/file"));
+    }
+
+    @Test
+    void directoryFor_WithFileOnOtherMount_ShouldUseTrashAtMountRoot() throws Exception {
+        Path data = Files.createDirectories(tempDir.resolve("home/data"));
+        Path volume = Files.createDirectories(tempDir.resolve("volume/photos"));
+        MountTable table = table("""
+                22 1 259:2 / / rw - ext4 /dev/nvme0n1p2 rw
+                40 22 259:3 / %s rw - ext4 /dev/nvme0n1p3 rw
+                """.formatted(tempDir.toRealPath().resolve("volume")), Duration.ofHours(1));
+        FreedesktopTrash trash = new FreedesktopTrash(
+                XdgDirectories.of(Map.of("XDG_DATA_HOME", data.toString()), tempDir), 1000, table);
+
+        TrashDirectory directory = trash.directoryFor(FreedesktopTrash.sourceOf(volume.resolve("a.jpg")));
+        TrashDirectory home = trash.directoryFor(FreedesktopTrash.sourceOf(tempDir.resolve("b.jpg")));
+
+        assertEquals(tempDir.toRealPath().resolve("volume/.Trash-1000"), directory.getRoot());
+        assertEquals(data.resolve("Trash"), home.getRoot());
+    }
+
+    private MountTable table(String content, Duration staleness) throws Exception {
+        Path mountinfo = Files.writeString(tempDir.resolve("mountinfo"), content);
+        return new MountTable(mountinfo, staleness);
+    }
+
+    private static Path mountPoint(MountTable table, String path) {
+        return table.mountOf(Path.of(path)).orElseThrow().mountPoint();
+    }
+}
@@ -0,0 +1,137 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.MockedConstruction;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PortalBackendTest {
+    @TempDir
+    Path tempDir;
+
+    private FakeBus bus;
+    private Path flatpakInfo;
+    private Map<String, String> env;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        bus = FakeBus.start(tempDir.resolve("bus"));
+        flatpakInfo = tempDir.resolve(".flatpak-info");
+        env = Map.of("DBUS_SESSION_BUS_ADDRESS", "unix:path=" + bus.getSocket());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        bus.close();
+    }
+
+    @Test
+    void isAvailable_InFlatpakWithPortal_ShouldReturnTrue() throws IOException {
+        Files.createFile(flatpakInfo);
+        bus.own(PortalBackend.PORTAL_NAME);
+
+        assertTrue(new PortalBackend(env, flatpakInfo).isAvailable());
+    }
+
+    @Test
+    void isAvailable_InSnapWithPortal_ShouldReturnTrue() {
+        bus.own(PortalBackend.PORTAL_NAME);
+        Map<String, String> snapEnv = Map.of("SNAP", "/snap/app/1", "DBUS_SESSION_BUS_ADDRESS", "unix:path=" + bus.getSocket());
+
+        assertTrue(new PortalBackend(snapEnv, flatpakInfo).isAvailable());
+    }
+
+    @Test
+    void isAvailable_OutsideSandbox_ShouldNotTouchTheBus() {
+        bus.own(PortalBackend.PORTAL_NAME);
+
+        assertFalse(new PortalBackend(env, flatpakInfo).isAvailable());
+        assertEquals(List.of(), bus.calls("Hello"));
+    }
+
+    @Test
+    void isAvailable_InSandboxWithoutPortal_ShouldReturnFalse() throws IOException {
+        Files.createFile(flatpakInfo);
+
+        assertFalse(new PortalBackend(env, flatpakInfo).isAvailable());
+    }
+
+    @Test
+    void isAvailable_ShouldBeCachedUntilRefresh() throws IOException {
+        Files.createFile(flatpakInfo);
+        bus.own(PortalBackend.PORTAL_NAME);
+        PortalBackend backend = new PortalBackend(env, flatpakInfo);
+
+        assertTrue(backend.isAvailable());
+        Files.delete(flatpakInfo);
+        assertTrue(backend.isAvailable());
+        assertEquals(1, bus.calls("NameHasOwner").size());
+
+        backend.refresh();
+        assertFalse(backend.isAvailable());
+    }
+
+    @Test
+    void supports_ShouldCoverBrowseOnly() {
+        PortalBackend backend = new PortalBackend(env, flatpakInfo);
+
+        assertTrue(backend.supports(DesktopAction.BROWSE));
+        assertFalse(backend.supports(DesktopAction.OPEN_FILE_DIRECTORY));
+        assertFalse(backend.supports(DesktopAction.MOVE_TO_TRASH));
+    }
+
+    @Test
+    void browse_WithHttpsUri_ShouldCallOpenUri() throws Exception {
+        new PortalBackend(env, flatpakInfo).browse(URI.create("https://example.com/a?b=c"));
+
+        DBusMessage call = bus.calls("OpenURI").get(0);
+        assertEquals(PortalBackend.PORTAL_NAME, call.getDestination());
+        assertEquals(PortalBackend.PORTAL_PATH, call.getPath());
+        assertEquals(PortalBackend.OPEN_URI_INTERFACE, call.getInterface());
+        assertEquals(List.of("", "https://example.com/a?b=c", Map.of()), call.getBody());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void browse_WithFileUri_ShouldUseXdgOpen() throws Exception {
+        Path file = Files.createFile(tempDir.resolve("notes.txt"));
+
+        List<List<String>> commands = new ArrayList<>();
+
+        try (MockedConstruction<ProcessBuilder> mock = mockConstruction(ProcessBuilder.class,
+                (processBuilder, context) -> {
+                    commands.add(List.copyOf((List<String>) context.arguments().get(0)));
+                    when(processBuilder.start()).thenReturn(mock(Process.class));
+                })) {
+            new PortalBackend(env, flatpakInfo).browse(file.toUri());
+        }
+
+        assertEquals(List.of(List.of("xdg-open", file.toString())), commands);
+        assertEquals(List.of(), bus.calls("OpenURI"));
+    }
+
+    @Test
+    void browse_WithErrorReply_ShouldThrow() {
+        bus.fail("OpenURI", "org.freedesktop.portal.Error.NotAllowed");
+
+        DesktopActionException e = assertThrows(DesktopActionException.class,
+                () -> new PortalBackend(env, flatpakInfo).browse(URI.create("https://example.com")));
+
+        assertEquals(ErrorMessage.BROWSE_FAILED.getMessage(), e.getMessage());
+    }
+}
@@ -0,0 +1,282 @@
+package com.rentoki.desktopactions.linux;
+
+import com.rentoki.desktopactions.BatchResult;
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrashIndexTest {
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private Path volume;
+    private FreedesktopTrash trash;
+    private TrashIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        root = tempDir.toRealPath();
+        volume = Files.createDirectories(root.resolve("volume"));
+        Path mountinfo = Files.writeString(root.resolve("mountinfo"), """
+                22 1 259:2 / / rw - ext4 /dev/nvme0n1p2 rw
+                40 22 259:3 / %s rw - ext4 /dev/nvme0n1p3 rw
+                """.formatted(volume));
+        MountTable mounts = new MountTable(mountinfo, Duration.ofHours(1));
+        XdgDirectories dirs = XdgDirectories.of(Map.of("XDG_DATA_HOME", root.resolve("data").toString()), root);
+
+        trash = new FreedesktopTrash(dirs, 1000, mounts);
+        index = new TrashIndex(dirs, 1000, mounts);
+    }
+
+    @Test
+    void stream_ShouldListItemsFromHomeAndMountTrash() throws Exception {
+        Path home = Files.writeString(root.resolve("notes.txt"), "home");
+        Path mounted = Files.writeString(volume.resolve("photo.jpg"), "volume");
+        trash.trash(home);
+        trash.trash(mounted);
+
+        Set<Path> originals = new HashSet<>();
+        try (Stream<TrashedItem> items = index.stream()) {
+            items.forEach(item -> originals.add(item.getOriginalPath()));
+        }
+
+        assertEquals(Set.of(home, mounted), originals);
+    }
+
+    @Test
+    void stream_ShouldReadNameAndDeletionDate() throws Exception {
+        trash.trash(Files.writeString(root.resolve("report.pdf"), "1"));
+        trash.trash(Files.writeString(root.resolve("report.pdf"), "2"));
+
+        List<TrashedItem> items = index.list(0, 10);
+
+        assertEquals(Set.of("report.pdf", "report.2.pdf"), Set.of(items.get(0).getName(), items.get(1).getName()));
+        LocalDateTime deleted = items.get(0).getDeletionDate();
+        assertTrue(ChronoUnit.MINUTES.between(deleted, LocalDateTime.now()) < 1);
+    }
+
+    @Test
+    void stream_ShouldSkipInvalidInfoFiles() throws Exception {
+        trash.trash(Files.writeString(root.resolve("valid.txt"), "ok"));
+        Path info = root.resolve("data/Trash/info");
+        Files.writeString(info.resolve("broken.trashinfo"), "[Trash Info]\nDeletionDate=2024-01-01T00:00:00\n");
+        Files.writeString(info.resolve("stray.txt"), "not an info file");
+
+        assertEquals(1, index.list(0, 10).size());
+    }
+
+    @Test
+    void list_ShouldPageThroughAllItems() throws Exception {
+        for (int i = 0; i < 25; i++) {
+            trash.trash(Files.writeString(root.resolve("file-" + i + ".txt"), "x"));
+        }
+
+        Set<TrashedItem> seen = new HashSet<>();
+        for (int offset = 0; offset < 30; offset += 10) {
+            List<TrashedItem> page = index.list(offset, 10);
+            assertEquals(offset < 20 ? 10 : 5, page.size());
+            seen.addAll(page);
+        }
+
+        assertEquals(25, seen.size());
+    }
+
+    @Test
+    void list_WithInvalidInfoFile_ShouldKeepPagesAligned() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            trash.trash(Files.writeString(root.resolve("file-" + i + ".txt"), "x"));
+        }
+        Files.writeString(root.resolve("data/Trash/info/broken.trashinfo"), "[Trash Info]\n");
+
+        List<TrashedItem> seen = new ArrayList<>();
+        for (int offset = 0; offset < 6; offset += 2) {
+            List<TrashedItem> page = index.list(offset, 2);
+            assertTrue(page.size() <= 2);
+            seen.addAll(page);
+        }
+
+        assertEquals(5, seen.size());
+        assertEquals(5, Set.copyOf(seen).size());
+    }
+
+    @Test
+    void restore_ShouldMoveItemBackAndRemoveEntry() throws Exception {
+        Path file = Files.writeString(Files.createDirectories(root.resolve("docs")).resolve("cv.txt"), "cv");
+        trash.trash(file);
+        Files.delete(root.resolve("docs"));
+        TrashedItem item = index.list(0, 1).get(0);
+
+        Path restored = index.restore(item);
+
+        assertEquals(file, restored);
+        assertEquals("cv", Files.readString(file));
+        assertFalse(Files.exists(item.getInfoPath()));
+        assertTrue(index.list(0, 10).isEmpty());
+    }
+
+    @Test
+    void restore_FromMountTrash_ShouldResolveRelativePath() throws Exception {
+        Path file = Files.writeString(volume.resolve("photo.jpg"), "jpeg");
+        trash.trash(file);
+        TrashedItem item = index.list(0, 1).get(0);
+
+        assertTrue(Files.readString(item.getInfoPath()).contains("Path=photo.jpg"));
+        assertEquals(file, index.restore(item));
+        assertTrue(Files.exists(file));
+    }
+
+    @Test
+    void restore_WhenOriginalPathIsTaken_ShouldThrowDesktopActionException() throws Exception {
+        Path file = Files.writeString(root.resolve("cv.txt"), "old");
+        trash.trash(file);
+        Files.writeString(file, "new");
+        TrashedItem item = index.list(0, 1).get(0);
+
+        DesktopActionException exception = assertThrows(DesktopActionException.class, () -> index.restore(item));
+
+        assertEquals(ErrorMessage.RESTORE_FAILED.getMessage() + file, exception.getMessage());
+        assertEquals("new", Files.readString(file));
+        assertTrue(Files.exists(item.getTrashedPath()));
+    }
+
+    @Test
+    void purge_WithDirectoryTree_ShouldDeleteEverything() throws Exception {
+        Path build = Files.createDirectories(root.resolve("build"));
+        for (int i = 0; i < 5; i++) {
+            Path module = Files.createDirectories(build.resolve("module-" + i + "/classes/pkg"));
+            Files.writeString(module.resolve("A.class"), "a");
+            Files.createSymbolicLink(module.resolve("link"), root);
+        }
+        trash.trash(build);
+        TrashedItem item = index.list(0, 1).get(0);
+
+        index.purge(item);
+
+        assertFalse(Files.exists(item.getTrashedPath()));
+        assertFalse(Files.exists(item.getInfoPath()));
+        assertTrue(Files.isDirectory(root));
+    }
+
+    @Test
+    void purge_WithBatch_ShouldReportEveryItem() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            trash.trash(Files.writeString(root.resolve("file-" + i + ".txt"), "x"));
+        }
+        List<TrashedItem> items = index.list(0, 100);
+
+        BatchResult<TrashedItem> result = index.purge(items);
+        result.getResults().values().forEach(outcome -> assertEquals(DesktopAction.PURGE_TRASH, outcome.getAction()));
+
+        assertTrue(result.isAllSucceeded());
+        assertEquals(10, result.size());
+        assertTrue(index.list(0, 100).isEmpty());
+    }
+
+    @Test
+    void purge_WithNullCollection_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> index.purge((List<TrashedItem>) null)
+        );
+        assertEquals(ErrorMessage.PATHS_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void size_ShouldSumFilesAndDirectoriesAndCacheDirectorySizes() throws Exception {
+        trash.trash(Files.write(root.resolve("file.bin"), new byte[100]));
+        Path directory = Files.createDirectories(root.resolve("dir/nested"));
+        Files.write(directory.resolve("a.bin"), new byte[30]);
+        Files.write(root.resolve("dir/b.bin"), new byte[20]);
+        trash.trash(root.resolve("dir"));
+
+        assertEquals(150, index.size());
+
+        Map<String, DirectorySizes.Entry> cache = DirectorySizes.read(TrashDirectory.at(root.resolve("data/Trash"), null));
+        assertEquals(Set.of("dir"), cache.keySet());
+        assertEquals(50, cache.get("dir").size());
+    }
+
+    @Test
+    void size_ShouldFollowAddedAndPurgedItems() throws Exception {
+        trash.trash(Files.write(root.resolve("first.bin"), new byte[10]));
+        assertEquals(10, index.size());
+
+        trash.trash(Files.write(volume.resolve("second.bin"), new byte[5]));
+        assertEquals(15, index.size());
+
+        index.purge(index.list(0, 10).stream().filter(item -> item.getName().equals("first.bin")).findFirst().orElseThrow());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void size_WhenNameIsReusedByAnotherItem_ShouldMeasureItAgain() throws Exception {
+        trash.trash(Files.write(root.resolve("report.bin"), new byte[10]));
+        assertEquals(10, index.size());
+        TrashedItem first = index.list(0, 1).get(0);
+        FileTime modified = Files.getLastModifiedTime(first.getInfoPath());
+
+        // Another application purges the item and trashes a bigger one under the same name.
+        Files.delete(first.getTrashedPath());
+        Files.delete(first.getInfoPath());
+        Path second = trash.trash(Files.write(root.resolve("report.bin"), new byte[50]));
+        assertEquals(first.getTrashedPath(), second);
+        Files.setLastModifiedTime(first.getInfoPath(), FileTime.fromMillis(modified.toMillis() + 10_000));
+
+        assertEquals(50, index.size());
+    }
+
+    @Test
+    void size_WithValidCacheEntry_ShouldNotWalkDirectory() throws Exception {
+        Path directory = Files.createDirectories(root.resolve("dir"));
+        Files.write(directory.resolve("a.bin"), new byte[30]);
+        trash.trash(directory);
+        TrashedItem item = index.list(0, 1).get(0);
+        long modified = Files.getLastModifiedTime(item.getInfoPath()).toMillis() / 1000;
+        TrashDirectory home = TrashDirectory.at(root.resolve("data/Trash"), null);
+
+        DirectorySizes.write(home, Map.of("dir", new DirectorySizes.Entry(4096, modified)));
+        assertEquals(4096, index.size());
+    }
+
+    @Test
+    void size_WithStaleCacheEntry_ShouldMeasureDirectoryAgain() throws Exception {
+        Path directory = Files.createDirectories(root.resolve("dir"));
+        Files.write(directory.resolve("a.bin"), new byte[30]);
+        trash.trash(directory);
+        TrashDirectory home = TrashDirectory.at(root.resolve("data/Trash"), null);
+
+        DirectorySizes.write(home, Map.of("dir", new DirectorySizes.Entry(4096, 0), "gone", new DirectorySizes.Entry(1, 0)));
+
+        assertEquals(30, index.size());
+        assertEquals(Set.of("dir"), DirectorySizes.read(home).keySet());
+    }
+
+    @Test
+    void directorySizes_ShouldRoundTripEncodedNames() throws Exception {
+        TrashDirectory home = TrashDirectory.at(Files.createDirectories(root.resolve("data/Trash")), null);
+
+        DirectorySizes.write(home, Map.of("my dir%", new DirectorySizes.Entry(12, 34)));
+
+        assertTrue(Files.readString(root.resolve("data/Trash/directorysizes")).contains("12 34 my%20dir%25"));
+        assertEquals(new DirectorySizes.Entry(12, 34), DirectorySizes.read(home).get("my dir%"));
+    }
+}
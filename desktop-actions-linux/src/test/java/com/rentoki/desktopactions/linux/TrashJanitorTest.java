@@ -0,0 +1,202 @@
+package com.rentoki.desktopactions.linux;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrashJanitorTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @TempDir
+    Path tempDir;
+
+    private Path root;
+    private FreedesktopTrash trash;
+    private TrashIndex index;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        root = tempDir.toRealPath();
+        Path mountinfo = Files.writeString(root.resolve("mountinfo"), "22 1 259:2 / / rw - ext4 /dev/nvme0n1p2 rw\n");
+        MountTable mounts = new MountTable(mountinfo, Duration.ofHours(1));
+        XdgDirectories dirs = XdgDirectories.of(Map.of("XDG_DATA_HOME", root.resolve("data").toString()), root);
+
+        trash = new FreedesktopTrash(dirs, 1000, mounts);
+        index = new TrashIndex(dirs, 1000, mounts);
+    }
+
+    @Test
+    void tick_ShouldPurgeItemsOlderThanMaxAge() throws Exception {
+        trashFile("old.txt", 10, NOW.minusDays(40));
+        trashFile("recent.txt", 10, NOW.minusDays(2));
+        TrashJanitor janitor = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxAge(Duration.ofDays(30))
+                .build();
+
+        assertFalse(janitor.tick());
+
+        assertEquals(Set.of("recent.txt"), names());
+        assertEquals(1, janitor.getPurgedCount());
+    }
+
+    @Test
+    void tick_WhenOverSizeBudget_ShouldPurgeOldestFirst() throws Exception {
+        trashFile("a.bin", 100, NOW.minusDays(3));
+        trashFile("b.bin", 100, NOW.minusDays(1));
+        trashFile("c.bin", 100, NOW.minusDays(2));
+        TrashJanitor janitor = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxSize(150)
+                .build();
+
+        assertFalse(janitor.tick());
+
+        assertEquals(Set.of("b.bin"), names());
+        assertEquals(100, index.size());
+    }
+
+    @Test
+    void tick_WhenExcessOutlastsTrimCandidates_ShouldSweepAgainUntilWithinBudget() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            trashFile("item-" + i + ".bin", 100, NOW.minusDays(10 - i));
+        }
+        TrashJanitor janitor = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxSize(200)
+                .trimCandidates(2)
+                .build();
+
+        int ticks = 1;
+        while (janitor.tick()) {
+            ticks++;
+            assertTrue(ticks < 100, "janitor never finished");
+        }
+
+        assertEquals(Set.of("item-4.bin", "item-5.bin"), names());
+        assertEquals(4, janitor.getPurgedCount());
+    }
+
+    @Test
+    void tick_WithoutDeletionDate_ShouldKeepItemForAgeButTrimItFirst() throws Exception {
+        trashFile("dated.bin", 100, NOW.minusDays(60));
+        trash.trash(Files.write(root.resolve("undated.bin"), new byte[100]));
+        Path info = root.resolve("data/Trash/info/undated.bin.trashinfo");
+        Files.writeString(info, Files.readString(info).replaceAll("DeletionDate=.*\n", ""));
+
+        TrashJanitor byAge = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxAge(Duration.ofDays(30))
+                .build();
+        assertFalse(byAge.tick());
+        assertEquals(Set.of("undated.bin"), names());
+
+        trashFile("recent.bin", 100, NOW.minusDays(1));
+        TrashJanitor bySize = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxSize(100)
+                .build();
+        assertFalse(bySize.tick());
+        assertEquals(Set.of("recent.bin"), names());
+    }
+
+    @Test
+    void tick_WithinBudget_ShouldNotPurgeAnything() throws Exception {
+        trashFile("a.bin", 100, NOW.minusDays(3));
+        TrashJanitor janitor = janitor(Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneOffset.UTC))
+                .maxAge(Duration.ofDays(30))
+                .maxSize(1000)
+                .build();
+
+        assertFalse(janitor.tick());
+
+        assertEquals(Set.of("a.bin"), names());
+        assertEquals(0, janitor.getPurgedCount());
+    }
+
+    @Test
+    void tick_WithSmallTimeBudget_ShouldResumeSweepInLaterTicks() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            trashFile("old-" + i + ".txt", 1, NOW.minusDays(60));
+        }
+        TrashJanitor janitor = janitor(new SteppingClock())
+                .maxAge(Duration.ofDays(30))
+                .tickBudget(Duration.ofMillis(5))
+                .build();
+
+        int ticks = 1;
+        while (janitor.tick()) {
+            ticks++;
+            assertTrue(ticks < 100, "janitor never finished");
+        }
+
+        assertTrue(ticks > 1);
+        assertEquals(20, janitor.getPurgedCount());
+        assertTrue(names().isEmpty());
+    }
+
+    @Test
+    void start_ShouldPurgeOnBackgroundThread() throws Exception {
+        trashFile("old.txt", 10, LocalDateTime.now().minusDays(40));
+        try (TrashJanitor janitor = TrashJanitor.builder().index(index).maxAge(Duration.ofDays(30)).build()) {
+            janitor.start();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (janitor.getPurgedCount() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, janitor.getPurgedCount());
+        }
+    }
+
+    @Test
+    void build_WithoutLimits_ShouldThrowIllegalStateException() {
+        assertThrows(IllegalStateException.class, () -> TrashJanitor.builder().index(index).build());
+    }
+
+    private TrashJanitor.Builder janitor(Clock clock) {
+        return TrashJanitor.builder().index(index).clock(clock);
+    }
+
+    private void trashFile(String name, int size, LocalDateTime deletionDate) throws Exception {
+        trash.trash(Files.write(root.resolve(name), new byte[size]));
+        Path info = root.resolve("data/Trash/info/" + name + ".trashinfo");
+        Files.writeString(info, Files.readString(info).replaceAll("DeletionDate=.*", "DeletionDate=" + deletionDate));
+    }
+
+    private Set<String> names() {
+        return index.list(0, 1000).stream().map(TrashedItem::getName).collect(Collectors.toSet());
+    }
+
+    /**
+     * A clock that advances one millisecond every time it is read.
+     */
+    private static final class SteppingClock extends Clock {
+        private Instant now = NOW.toInstant(ZoneOffset.UTC);
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            now = now.plusMillis(1);
+            return now;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.rentoki.desktopactions.lnk;
+
+import com.rentoki.desktopactions.DesktopAction;
+import com.rentoki.desktopactions.DesktopActionException;
+import com.rentoki.desktopactions.ErrorMessage;
+import com.rentoki.desktopactions.spi.DesktopBackend;
+import mslinks.ShellLink;
+
+import java.io.IOException;
+
+/**
+ * {@link DesktopBackend} that writes Windows shortcut (.lnk) files with the mslinks library.
+ *
+ * @author Rentoki
+ */
+public final class ShellLinkBackend implements DesktopBackend {
+
+    @Override
+    public String name() {
+        return "mslinks";
+    }
+
+    @Override
+    public Latency latency() {
+        return Latency.NATIVE;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public boolean supports(DesktopAction action) {
+        return action == DesktopAction.CREATE_SHORTCUT;
+    }
+
+    @Override
+    public void createShortcut(String targetPath, String linkPath) throws DesktopActionException {
+        try {
+            ShellLink.createLink(targetPath, linkPath);
+        } catch (IOException e) {
+            throw new DesktopActionException(ErrorMessage.CREATE_SHORTCUT_FAILED.getMessage(), e);
+        }
+    }
+}
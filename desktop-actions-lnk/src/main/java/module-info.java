@@ -0,0 +1,7 @@
+module DesktopActions.lnk {
+    requires DesktopActions;
+    requires mslinks;
+
+    provides com.rentoki.desktopactions.spi.DesktopBackend with
+            com.rentoki.desktopactions.lnk.ShellLinkBackend;
+}
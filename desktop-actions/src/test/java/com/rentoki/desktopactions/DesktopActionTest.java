@@ -1,5 +1,8 @@
 package com.rentoki.desktopactions;
 
+import com.rentoki.desktopactions.awt.AwtDesktopBackend;
+import com.rentoki.desktopactions.lnk.ShellLinkBackend;
+import com.rentoki.desktopactions.windows.ExplorerBackend;
 import mslinks.ShellLink;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.AfterEach;
@@ -13,6 +16,9 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,10 +36,13 @@ public class DesktopActionTest {
     void setUp() {
         desktopMock = mockStatic(Desktop.class);
         shellLinkMock = mockStatic(ShellLink.class);
+        DesktopBackends.use(new ShellLinkBackend(), new ExplorerBackend(), new AwtDesktopBackend());
     }
 
     @AfterEach
     void tearDown() {
+        DesktopBackends.reset();
+
         if (desktopMock != null) {
             desktopMock.close();
         }
@@ -453,6 +462,7 @@ public class DesktopActionTest {
         try (MockedConstruction<ProcessBuilder> mock = mockConstruction(ProcessBuilder.class,
                 (processBuilder, context) -> {
                     Process process = mock(Process.class);
+                    when(process.onExit()).thenReturn(new CompletableFuture<>());
                     when(processBuilder.start()).thenReturn(process);
                 })) {
 
@@ -470,6 +480,15 @@ public class DesktopActionTest {
         assertEquals(ErrorMessage.EXECUTABLE_PATH_IS_NULL.getMessage(), exception.getMessage());
     }
 
+    @Test
+    void launch_WithNullLaunchSpec_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.launch(null)
+        );
+        assertEquals(ErrorMessage.LAUNCH_SPEC_IS_NULL.getMessage(), exception.getMessage());
+    }
+
     @Test
     void open_WithEmptyExecutablePath_ShouldThrowDesktopActionException() {
         DesktopActionException exception = assertThrows(
@@ -503,6 +522,7 @@ public class DesktopActionTest {
         try (MockedConstruction<ProcessBuilder> mock = mockConstruction(ProcessBuilder.class,
                 (processBuilder, context) -> {
                     Process process = mock(Process.class);
+                    when(process.onExit()).thenReturn(new CompletableFuture<>());
                     when(processBuilder.start()).thenReturn(process);
                 })) {
 
@@ -511,6 +531,33 @@ public class DesktopActionTest {
         }
     }
 
+    @Test
+    void launchApplication_WithEmptyId_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.launchApplication(" ", List.of())
+        );
+        assertEquals(ErrorMessage.DESKTOP_ENTRY_ID_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void launchApplication_WithNullTarget_ShouldThrowDesktopActionException() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.launchApplication("editor.desktop", Arrays.asList(URI.create("file:///a"), null))
+        );
+        assertEquals(ErrorMessage.URIS_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void launchApplication_WithoutSupportingBackend_ShouldThrowNotSupported() {
+        DesktopActionException exception = assertThrows(
+                DesktopActionException.class,
+                () -> DesktopActions.launchApplication("editor.desktop", List.of())
+        );
+        assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), exception.getMessage());
+    }
+
 
     @Test
     void testCreateShortcut_WithDefaultLocation_Success() throws DesktopActionException {
@@ -0,0 +1,125 @@
+package com.rentoki.desktopactions;
+
+import com.rentoki.desktopactions.awt.AwtDesktopBackend;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.awt.*;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class DesktopActionsAsyncTest {
+    private MockedStatic<Desktop> desktopMock;
+
+    @BeforeEach
+    void setUp() {
+        desktopMock = mockStatic(Desktop.class);
+        DesktopBackends.use(new AwtDesktopBackend());
+        DesktopActionsAsync.setExecutor(Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        DesktopActionsAsync.setExecutor(null);
+        DesktopBackends.reset();
+        desktopMock.close();
+    }
+
+    @Test
+    void browse_WithValidUrl_ShouldCompleteWithSuccess() throws Exception {
+        Desktop desktop = mock(Desktop.class);
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(desktop);
+        when(desktop.isSupported(Desktop.Action.BROWSE)).thenReturn(true);
+        doNothing().when(desktop).browse(any(URI.class));
+
+        ActionResult result = DesktopActionsAsync.browse("https://www.example.com").join();
+
+        assertTrue(result.isSuccess());
+        assertEquals(DesktopAction.BROWSE, result.getAction());
+        assertEquals("https://www.example.com", result.getTarget());
+        assertDoesNotThrow(result::orThrow);
+    }
+
+    @Test
+    void browse_WithNullUrl_ShouldCompleteWithFailure() {
+        ActionResult result = DesktopActionsAsync.browse((String) null).join();
+
+        assertFalse(result.isSuccess());
+        DesktopActionException exception = assertThrows(DesktopActionException.class, result::orThrow);
+        assertEquals(ErrorMessage.URL_IS_NULL.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void openFileDirectory_WhenDesktopNotSupported_ShouldCompleteWithFailure() {
+        when(Desktop.isDesktopSupported()).thenReturn(false);
+
+        ActionResult result = DesktopActionsAsync.openFileDirectory(System.getProperty("java.io.tmpdir")).join();
+
+        assertEquals(DesktopAction.OPEN_FILE_DIRECTORY, result.getAction());
+        assertEquals(ErrorMessage.NOT_SUPPORTED.getMessage(), result.getError().orElseThrow().getMessage());
+    }
+
+    @Test
+    void open_WithEmptyExecutablePath_ShouldCompleteWithFailure() {
+        ActionResult result = DesktopActionsAsync.open("   ").join();
+
+        assertFalse(result.isSuccess());
+        assertEquals(ErrorMessage.EXECUTABLE_PATH_IS_NULL.getMessage(), result.getError().orElseThrow().getMessage());
+    }
+
+    @Test
+    void launch_WithNullSpec_ShouldCompleteExceptionally() {
+        CompletionException exception = assertThrows(CompletionException.class, () -> DesktopActionsAsync.launch(null).join());
+
+        assertInstanceOf(DesktopActionException.class, exception.getCause());
+        assertEquals(ErrorMessage.LAUNCH_SPEC_IS_NULL.getMessage(), exception.getCause().getMessage());
+    }
+
+    @Test
+    void browse_ShouldReturnBeforeActionRuns() {
+        Deque<Runnable> pending = new ArrayDeque<>();
+        Desktop desktop = mock(Desktop.class);
+        when(Desktop.isDesktopSupported()).thenReturn(true);
+        when(Desktop.getDesktop()).thenReturn(desktop);
+        when(desktop.isSupported(Desktop.Action.BROWSE)).thenReturn(true);
+        DesktopActionsAsync.setExecutor(pending::add);
+
+        CompletableFuture<ActionResult> future = DesktopActionsAsync.browse("https://www.example.com");
+
+        assertFalse(future.isDone());
+        pending.remove().run();
+        assertTrue(future.join().isSuccess());
+    }
+
+    @Test
+    void submit_WhenExecutorRejects_ShouldCompleteExceptionally() {
+        Executor rejecting = task -> {
+            throw new RejectedExecutionException("shut down");
+        };
+        DesktopActionsAsync.setExecutor(rejecting);
+
+        CompletableFuture<ActionResult> future = DesktopActionsAsync.moveToTrash("some/file.txt");
+
+        CompletionException exception = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(RejectedExecutionException.class, exception.getCause());
+    }
+
+    @Test
+    void getExecutor_WhenReset_ShouldReturnDefaultExecutor() {
+        DesktopActionsAsync.setExecutor(null);
+
+        assertNotNull(DesktopActionsAsync.getExecutor());
+    }
+}
@@ -1,6 +0,0 @@
-module DesktopActions {
-    requires java.desktop;
-    requires mslinks;
-
-    exports com.rentoki.desktopactions;
-}
\ No newline at end of file